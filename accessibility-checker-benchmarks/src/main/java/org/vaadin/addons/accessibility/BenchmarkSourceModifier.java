@@ -0,0 +1,74 @@
+package org.vaadin.addons.accessibility;
+
+/*-
+ * #%L
+ * Accessibility checker benchmarks
+ * %%
+ * Copyright (C) 2023 - 2026 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.internal.ComponentTracker;
+
+import java.io.File;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Source modifier editing a single generated file. The create locations of
+ * the components are registered with {@link #track(Component, int)} instead
+ * of being recorded by the {@link ComponentTracker}, so no session is needed.
+ */
+class BenchmarkSourceModifier extends AccessibilityJavaSourceModifier {
+
+    private final File sourceFile;
+    private final Map<Component, ComponentTracker.Location> createLocations = new IdentityHashMap<>();
+
+    BenchmarkSourceModifier(File sourceFile) {
+        super(null, null, null);
+        this.sourceFile = sourceFile;
+    }
+
+    /**
+     * Registers the line where the component is created in the generated
+     * source.
+     */
+    <C extends Component> C track(C component, int lineNumber) {
+        createLocations.put(component, new ComponentTracker.Location(
+                ViewGenerator.PACKAGE_NAME + "." + ViewGenerator.CLASS_NAME,
+                ViewGenerator.CLASS_NAME + ".java", ViewGenerator.CLASS_NAME, lineNumber));
+        return component;
+    }
+
+    CompilationUnit parse(String source) {
+        return parseSource(source);
+    }
+
+    @Override
+    protected ComponentTracker.Location getCreateLocation(Component c) {
+        ComponentTracker.Location location = createLocations.get(c);
+        if (location == null) {
+            throw new AccessibilityCheckerException("The component " + c.getClass().getName() + " is not tracked");
+        }
+        return location;
+    }
+
+    @Override
+    protected File getSourceFile(ComponentTracker.Location createLocation) {
+        return sourceFile;
+    }
+}
@@ -0,0 +1,56 @@
+package org.vaadin.addons.accessibility;
+
+/*-
+ * #%L
+ * Accessibility checker benchmarks
+ * %%
+ * Copyright (C) 2023 - 2026 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link AccessibilityJavaSourceModifier#escapeForJava(String, boolean)}
+ * with texts containing quotes, backslashes, line breaks and non ASCII
+ * characters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EscapeForJavaBenchmark {
+
+    private static final String SAMPLE = "Nom d'utilisateur \"requis\"\\ Käyttäjätunnus\n\t";
+
+    @Param({"16", "256", "4096"})
+    public int length;
+
+    private String text;
+
+    @Setup
+    public void setup() {
+        text = SAMPLE.repeat(length / SAMPLE.length() + 1).substring(0, length);
+    }
+
+    @Benchmark
+    public String escapeForJava() {
+        return AccessibilityJavaSourceModifier.escapeForJava(text, true);
+    }
+}
@@ -0,0 +1,193 @@
+package org.vaadin.addons.accessibility;
+
+/*-
+ * #%L
+ * Accessibility checker benchmarks
+ * %%
+ * Copyright (C) 2023 - 2026 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.html.Image;
+import com.vaadin.flow.component.internal.ComponentTracker;
+import com.vaadin.flow.component.textfield.TextField;
+import org.openjdk.jmh.annotations.*;
+import org.vaadin.addons.accessibility.visitors.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the source modifications on generated views from 50 to 10,000
+ * lines.
+ * <p>
+ * The edits are created and applied synchronously with
+ * {@link AccessibilityJavaSourceModifier#modifyClass}, the way the
+ * {@link SourceEditQueue} applies them, so the numbers don't include the
+ * coalescing delay of the queue. Each text is different from the previous one
+ * so every invocation writes the file.
+ * <p>
+ * The edits start from the generated source, restored before each invocation
+ * and parsed again, so they include the parsing growing with the size of the
+ * view. {@link #setLabelCached(ViewState)} repeats the edit on the unit kept
+ * by the {@link CompilationUnitCache}, the way the next fixes of the same view
+ * are applied.
+ * <p>
+ * The edits start from the generated source, parsed again with an empty
+ * {@link CompilationUnitCache}, so they include the parsing growing with the
+ * size of the view. {@link #setLabelCached()} repeats the edit on the unit
+ * kept by the cache, the way a second fix of the same view is applied.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar SourceModifierBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SourceModifierBenchmark {
+
+    @Benchmark
+    public int setLabel(RestoredViewState state) {
+        return state.setText(state.field, new LabelVisitor());
+    }
+
+    @Benchmark
+    public int setLabelCached(ViewState state) {
+        return state.setText(state.field, new LabelVisitor());
+    }
+
+    @Benchmark
+    public int setAriaLabel(RestoredViewState state) {
+        return state.setText(state.field, new AriaLabelVisitor());
+    }
+
+    @Benchmark
+    public int setTitle(RestoredViewState state) {
+        return state.setText(state.image, new TitleVisitor());
+    }
+
+    @Benchmark
+    public int setAltText(RestoredViewState state) {
+        return state.setText(state.image, new AltTextVisitor());
+    }
+
+    @Benchmark
+    public int setPageTitle(RestoredViewState state) {
+        return state.apply(state.modifier.createPageTitleEdit(state.view, state.nextText()));
+    }
+
+    @Benchmark
+    public int updateRouteExtends(RestoredViewState state) {
+        return state.apply(state.modifier.createRouteExtendsEdit(state.view));
+    }
+
+    @Benchmark
+    public Node findNode(ViewState state) {
+        return state.modifier.findNode(state.compilationUnit, state.fieldLocation);
+    }
+
+    @Benchmark
+    public ExpressionStmt findStmt(ViewState state) {
+        return state.modifier.findStmt(state.compilationUnit, state.fieldLocation, new LabelVisitor());
+    }
+
+    @Benchmark
+    public CompilationUnit parse(ViewState state) {
+        return state.modifier.parse(state.generated.source());
+    }
+
+    @Benchmark
+    public Path write(ViewState state) throws IOException {
+        return Files.writeString(state.writeFile, LexicalPreservingPrinter.print(state.compilationUnit),
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The generated view and the modifier editing it.
+     */
+    @State(Scope.Thread)
+    public static class ViewState {
+
+        @Param({"50", "500", "2500", "10000"})
+        public int lines;
+
+        ViewGenerator.GeneratedSource generated;
+        Path sourceFile;
+        Path writeFile;
+        BenchmarkSourceModifier modifier;
+        TextField field;
+        Image image;
+        Component view;
+        CompilationUnit compilationUnit;
+        ComponentTracker.Location fieldLocation;
+        private int counter;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            generated = ViewGenerator.generate(lines);
+            sourceFile = Files.createTempFile(ViewGenerator.CLASS_NAME, ".java");
+            writeFile = Files.createTempFile(ViewGenerator.CLASS_NAME, ".java");
+            Files.writeString(sourceFile, generated.source(), StandardCharsets.UTF_8);
+            modifier = new BenchmarkSourceModifier(sourceFile.toFile());
+            field = modifier.track(new TextField(), generated.middleFieldLine());
+            image = modifier.track(new Image(), generated.middleImageLine());
+            view = modifier.track(new ViewGenerator.GeneratedView(), generated.classLine());
+            compilationUnit = modifier.parse(generated.source());
+            fieldLocation = modifier.getCreateLocation(field);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(sourceFile);
+            Files.deleteIfExists(writeFile);
+        }
+
+        int setText(Component component, GenericStringVisitor visitor) {
+            return apply(modifier.createSetTextEdit(component, nextText(), visitor));
+        }
+
+        int apply(AccessibilityJavaSourceModifier.SourceEdit edit) {
+            return modifier.modifyClass(edit.sourceFile(), edit.modifier());
+        }
+
+        String nextText() {
+            return "Text " + counter++;
+        }
+    }
+
+    /**
+     * Restores the generated source and removes it from the cache before
+     * each invocation, so the file is parsed again. The view can only be
+     * extended from another class once, so the route extends modification is
+     * only measured this way.
+     */
+    public static class RestoredViewState extends ViewState {
+
+        @Setup(Level.Invocation)
+        public void restore() throws IOException {
+            Files.writeString(sourceFile, generated.source(), StandardCharsets.UTF_8);
+            modifier.getCompilationUnitCache().invalidate(sourceFile.toFile());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.vaadin.addons.accessibility;
+
+/*-
+ * #%L
+ * Accessibility checker benchmarks
+ * %%
+ * Copyright (C) 2023 - 2026 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.vaadin.flow.component.html.Div;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates the source of a view of a given size. The view is made of
+ * sections, each one creating text fields and an image like a form would do.
+ */
+final class ViewGenerator {
+
+    static final String PACKAGE_NAME = "com.example.application.views";
+    static final String CLASS_NAME = "GeneratedView";
+    private static final int FIELDS_PER_SECTION = 4;
+    // lines of a section, including the blank line after it
+    private static final int SECTION_LINES = 4 + 2 * FIELDS_PER_SECTION + 1;
+
+    private ViewGenerator() {
+    }
+
+    /**
+     * @param lines the approximate number of lines of the source
+     * @return the source and the lines where the components are created
+     */
+    static GeneratedSource generate(int lines) {
+        int sections = Math.max(1, (lines - 14) / (SECTION_LINES + 1));
+        List<String> source = new ArrayList<>();
+        List<Integer> fieldLines = new ArrayList<>();
+        List<Integer> imageLines = new ArrayList<>();
+        source.add("package " + PACKAGE_NAME + ";");
+        source.add("");
+        source.add("import com.vaadin.flow.component.html.Div;");
+        source.add("import com.vaadin.flow.component.html.Image;");
+        source.add("import com.vaadin.flow.component.textfield.TextField;");
+        source.add("import com.vaadin.flow.router.Route;");
+        source.add("");
+        source.add("@Route(\"generated\")");
+        source.add("public class " + CLASS_NAME + " extends Div {");
+        int classLine = source.size();
+        source.add("");
+        source.add("    public " + CLASS_NAME + "() {");
+        for (int section = 0; section < sections; section++) {
+            source.add("        section" + section + "();");
+        }
+        source.add("    }");
+        source.add("");
+        for (int section = 0; section < sections; section++) {
+            source.add("    private void section" + section + "() {");
+            for (int field = 0; field < FIELDS_PER_SECTION; field++) {
+                String name = "field" + section + "x" + field;
+                source.add("        TextField " + name + " = new TextField();");
+                fieldLines.add(source.size());
+                source.add("        add(" + name + ");");
+            }
+            source.add("        Image image" + section + " = new Image(\"images/empty.png\", \"\");");
+            imageLines.add(source.size());
+            source.add("        add(image" + section + ");");
+            source.add("    }");
+            source.add("");
+        }
+        source.add("}");
+        return new GeneratedSource(String.join("\n", source) + "\n", classLine, fieldLines, imageLines);
+    }
+
+    /**
+     * @param source the generated source
+     * @param classLine line of the class declaration
+     * @param fieldLines lines where the text fields are created
+     * @param imageLines lines where the images are created
+     */
+    record GeneratedSource(String source, int classLine, List<Integer> fieldLines, List<Integer> imageLines) {
+
+        int middleFieldLine() {
+            return fieldLines.get(fieldLines.size() / 2);
+        }
+
+        int middleImageLine() {
+            return imageLines.get(imageLines.size() / 2);
+        }
+    }
+
+    /**
+     * Stands for the generated class, the page title and the route extends
+     * modifications look up the class by its simple name. It is never
+     * serialized.
+     */
+    @SuppressWarnings("serial")
+    static class GeneratedView extends Div {
+    }
+}
@@ -22,9 +22,9 @@ package org.vaadin.addons.accessibility;
 
 import com.vaadin.base.devserver.DevToolsInterface;
 import com.vaadin.base.devserver.DevToolsMessageHandler;
-import com.vaadin.base.devserver.IdeIntegration;
 import com.vaadin.base.devserver.editor.Editor;
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.component.dependency.NpmPackage;
 import com.vaadin.flow.component.internal.ComponentTracker;
@@ -33,11 +33,32 @@ import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.startup.ApplicationConfiguration;
 import elemental.json.Json;
+import elemental.json.JsonArray;
 import elemental.json.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vaadin.addons.accessibility.report.ReportExportCli;
+import org.vaadin.addons.accessibility.report.ReportExporter;
+import org.vaadin.addons.accessibility.report.ReportStore;
+import org.vaadin.addons.accessibility.report.RunSummary;
+import org.vaadin.addons.accessibility.report.StoredIssue;
+import org.vaadin.addons.accessibility.rules.ComponentIssue;
+import org.vaadin.addons.accessibility.rules.ComponentRuleEngine;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author jcgueriaud
@@ -50,30 +71,144 @@ public class AccessibilityCheckerPlugin implements DevToolsMessageHandler {
     public static final String ACCESSIBILITY_CHECKER = "accessibility-checker";
     public static final String NODE_ID = "nodeId";
     public static final String UI_ID = "uiId";
+    /** runs sent in the report history **/
+    private static final int HISTORY_RUNS = 20;
+    private static final String CLOSED_MESSAGE = "The accessibility checker is closed";
 
-    private IdeIntegration ideIntegration;
     private AccessibilityJavaSourceModifier accessibilityJavaSourceModifier;
+    private final ComponentRuleEngine componentRuleEngine = new ComponentRuleEngine();
+    private final CommandMetrics metrics = new CommandMetrics();
+    private final Set<DevToolsInterface> connections = ConcurrentHashMap.newKeySet();
+    private IgnoredRulesConfiguration ignoredRulesConfiguration;
+    private ReportStore reportStore;
+    /** the report store is only used from this thread **/
+    private final ExecutorService reportStoreExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "accessibility-checker-report-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** the runs of the store by connection and run id of the client, only used from the report store thread **/
+    private final Map<DevToolsInterface, Map<String, Long>> storeRuns = new HashMap<>();
+    /** the plugins created by the dev tools, closed with the service **/
+    private static final Set<AccessibilityCheckerPlugin> PLUGINS = ConcurrentHashMap.newKeySet();
+    /** the service of the application, the dev tools messages are not always handled in a request **/
+    private static volatile VaadinService service;
 
     public AccessibilityCheckerPlugin() {
+        metrics.registerMBean();
+        PLUGINS.add(this);
+    }
+
+    /**
+     * Keeps the service to resolve the project folder, called when the
+     * service is initialized.
+     */
+    static void serviceInit(VaadinService service) {
+        AccessibilityCheckerPlugin.service = service;
+    }
 
+    /**
+     * Closes the plugins, called when the service is destroyed.
+     */
+    static void closeAll() {
+        PLUGINS.forEach(AccessibilityCheckerPlugin::close);
+        PLUGINS.clear();
+        service = null;
+    }
+
+    /**
+     * Stops the threads of the plugin and closes the report store once the
+     * issues already received are stored.
+     */
+    void close() {
+        connections.clear();
+        metrics.unregisterMBean();
+        synchronized (this) {
+            try {
+                if (ignoredRulesConfiguration != null) {
+                    ignoredRulesConfiguration.close();
+                }
+                if (accessibilityJavaSourceModifier != null) {
+                    accessibilityJavaSourceModifier.close();
+                }
+            } catch (IOException e) {
+                getLogger().warn("Unable to close the accessibility checker", e);
+            }
+        }
+        reportStoreExecutor.execute(() -> {
+            try {
+                ReportStore store = getOpenedReportStore();
+                if (store != null) {
+                    store.close();
+                }
+            } catch (IOException e) {
+                getLogger().warn("Unable to close the report store", e);
+            }
+        });
+        reportStoreExecutor.shutdown();
     }
 
     @Override
     public void handleConnect(DevToolsInterface devToolsInterface) {
-        devToolsInterface.send(ACCESSIBILITY_CHECKER + "-init", Json.createObject());
+        connections.add(devToolsInterface);
+        JsonObject object = Json.createObject();
+        IgnoredRulesConfiguration configuration = getIgnoredRulesConfiguration();
+        object.put("ignoredRules", configuration != null ? configuration.getIgnoredRules() : Json.createArray());
+        devToolsInterface.send(ACCESSIBILITY_CHECKER + "-init", object);
     }
 
+    @Override
+    public void handleDisconnect(DevToolsInterface devToolsInterface) {
+        connections.remove(devToolsInterface);
+        // the tab was closed or reloaded during a check
+        ReportStore store = getOpenedReportStore();
+        if (store != null) {
+            try {
+                reportStoreExecutor.execute(() -> {
+                    Map<String, Long> runs = storeRuns.remove(devToolsInterface);
+                    if (runs != null) {
+                        runs.values().forEach(store::abort);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // closed, the pending runs are not committed
+            }
+        }
+    }
+
+    /**
+     * Handles the command. The errors of the report store, not available
+     * before the service is initialized, and the commands received after the
+     * plugin was closed are sent back as errors.
+     */
     @Override
     public boolean handleMessage(String command, JsonObject data, DevToolsInterface devToolsInterface) {
+        try {
+            return handleCommand(command, data, devToolsInterface);
+        } catch (AccessibilityCheckerException | RejectedExecutionException e) {
+            getLogger().warn("Unable to handle the command {}", command, e);
+            String message = e instanceof RejectedExecutionException ? CLOSED_MESSAGE : e.getMessage();
+            if (command.equals(ACCESSIBILITY_CHECKER + "-export-report")) {
+                JsonObject object = Json.createObject();
+                object.put("error", message);
+                devToolsInterface.send(ACCESSIBILITY_CHECKER + "-export-report", object);
+            } else {
+                sendError(devToolsInterface, message);
+            }
+            return true;
+        }
+    }
+
+    private boolean handleCommand(String command, JsonObject data, DevToolsInterface devToolsInterface) {
         if (command.equals(ACCESSIBILITY_CHECKER + "-show-component-creation-location")) {
             int nodeId = (int) data.getNumber(NODE_ID);
             int uiId = (int) data.getNumber(UI_ID);
             VaadinSession session = VaadinSession.getCurrent();
-            session.access(() -> {
+            metrics.access(session, "show-component-creation-location", () -> {
                 Element element = session.findElement(uiId, nodeId);
                 Optional<Component> c = element.getComponent();
                 if (c.isPresent()) {
-                    getIdeIntegration().showComponentCreateInIde(c.get());
+                    getAccessibilityJavaSourceModifier().showCreateLocationInIde(c.get());
                 } else {
                     System.out.println(
                             "Only component locations are tracked. The given node id refers to an element and not a component");
@@ -104,6 +239,16 @@ public class AccessibilityCheckerPlugin implements DevToolsMessageHandler {
             String label = data.getString("text");
             getAccessibilityJavaSourceModifier().setAltText(devToolsInterface, uiId, nodeId, label);
             return true;
+        } else if (command.equals(ACCESSIBILITY_CHECKER + "-apply-fixes")) {
+            JsonArray fixesArray = data.getArray("fixes");
+            List<AccessibilityFix> fixes = new ArrayList<>();
+            for (int i = 0; i < fixesArray.length(); i++) {
+                JsonObject fix = fixesArray.getObject(i);
+                fixes.add(new AccessibilityFix((int) fix.getNumber(UI_ID), (int) fix.getNumber(NODE_ID),
+                        AccessibilityFix.Type.fromValue(fix.getString("type")), fix.getString("value")));
+            }
+            getAccessibilityJavaSourceModifier().applyFixes(devToolsInterface, fixes);
+            return true;
         } else if (command.equals(ACCESSIBILITY_CHECKER + "-update-page-title")) {
             int uiId = (int) data.getNumber(UI_ID);
             String label = data.getString("label");
@@ -113,14 +258,170 @@ public class AccessibilityCheckerPlugin implements DevToolsMessageHandler {
             int uiId = (int) data.getNumber(UI_ID);
             getAccessibilityJavaSourceModifier().updateRouteExtends(devToolsInterface,uiId);
             return true;
+        } else if (command.equals(ACCESSIBILITY_CHECKER + "-check-components")) {
+            int uiId = (int) data.getNumber(UI_ID);
+            VaadinSession session = VaadinSession.getCurrent();
+            metrics.access(session, "check-components", () -> {
+                long start = System.nanoTime();
+                List<ComponentIssue> issues = componentRuleEngine.check(session.getUIById(uiId));
+                getLogger().debug("Checked the components of the UI {} in {} µs", uiId,
+                        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                JsonArray array = Json.createArray();
+                for (ComponentIssue issue : issues) {
+                    JsonObject issueObject = Json.createObject();
+                    issueObject.put(NODE_ID, issue.nodeId());
+                    issueObject.put("ruleId", issue.rule().getId());
+                    issueObject.put("message", issue.rule().getMessage());
+                    array.set(array.length(), issueObject);
+                }
+                JsonObject object = Json.createObject();
+                object.put(UI_ID, uiId);
+                object.put("issues", array);
+                devToolsInterface.send(ACCESSIBILITY_CHECKER + "-component-issues", object);
+            });
+            return true;
+        } else if (command.equals(ACCESSIBILITY_CHECKER + "-store-issues")) {
+            int uiId = (int) data.getNumber(UI_ID);
+            String runKey = data.getString("runId");
+            ReportStore store = getReportStore();
+            VaadinSession session = VaadinSession.getCurrent();
+            if (data.hasKey("cancelled") && data.getBoolean("cancelled")) {
+                // queued after the issues of the run
+                metrics.access(session, "store-issues", () -> abortStoreRun(store, devToolsInterface, runKey));
+                return true;
+            }
+            boolean done = data.hasKey("done") && data.getBoolean("done");
+            JsonArray issuesArray = data.getArray("issues");
+            metrics.access(session, "store-issues", () -> {
+                UI ui = session.getUIById(uiId);
+                if (ui == null) {
+                    // the UI was closed, the run can't be completed
+                    abortStoreRun(store, devToolsInterface, runKey);
+                    return;
+                }
+                String route = ComponentRuleEngine.getRoute(ui);
+                List<StoredIssue> issues = new ArrayList<>();
+                for (int i = 0; i < issuesArray.length(); i++) {
+                    JsonObject issue = issuesArray.getObject(i);
+                    SourceLocation location = issue.hasKey(NODE_ID)
+                            ? getAccessibilityJavaSourceModifier().findSourceLocation(ui, (int) issue.getNumber(NODE_ID))
+                            : null;
+                    issues.add(new StoredIssue(issue.getString("ruleId"), issue.getString("category"),
+                            issue.getString("tagName"), issue.getString("message"),
+                            location != null ? toProjectPath(location.file().toPath()) : null,
+                            location != null ? location.lineNumber() : 0));
+                }
+                executeInReportStore(devToolsInterface, () -> {
+                    Map<String, Long> runs = storeRuns.computeIfAbsent(devToolsInterface, key -> new HashMap<>());
+                    try {
+                        Long runId = runs.computeIfAbsent(runKey, key -> store.begin(route));
+                        store.append(runId, issues);
+                        if (done) {
+                            runs.remove(runKey);
+                            store.commit(runId);
+                        }
+                    } catch (IOException | AccessibilityCheckerException e) {
+                        // the run is dropped, for example when it expired
+                        runs.remove(runKey);
+                        getLogger().warn("Unable to store the issues of the route {}", route, e);
+                    }
+                });
+            });
+            return true;
+        } else if (command.equals(ACCESSIBILITY_CHECKER + "-report-history")) {
+            int uiId = (int) data.getNumber(UI_ID);
+            ReportStore store = getReportStore();
+            VaadinSession session = VaadinSession.getCurrent();
+            metrics.access(session, "report-history", () -> {
+                UI ui = session.getUIById(uiId);
+                if (ui == null) {
+                    return;
+                }
+                String route = ComponentRuleEngine.getRoute(ui);
+                executeInReportStore(devToolsInterface, () -> devToolsInterface.send(
+                        ACCESSIBILITY_CHECKER + "-report-history", toHistoryJson(route, store.getRuns(route))));
+            });
+            return true;
+        } else if (command.equals(ACCESSIBILITY_CHECKER + "-find-issues")) {
+            ReportStore store = getReportStore();
+            // after the issues already sent
+            reportStoreExecutor.execute(() -> {
+                JsonObject object = Json.createObject();
+                Map<String, List<StoredIssue>> issuesByRoute;
+                if (data.hasKey("ruleId")) {
+                    object.put("ruleId", data.getString("ruleId"));
+                    issuesByRoute = store.findByRule(data.getString("ruleId"));
+                } else {
+                    object.put("file", data.getString("file"));
+                    issuesByRoute = store.findByFile(data.getString("file"));
+                }
+                object.put("routes", toFoundIssuesJson(issuesByRoute));
+                devToolsInterface.send(ACCESSIBILITY_CHECKER + "-find-issues", object);
+            });
+            return true;
+        } else if (command.equals(ACCESSIBILITY_CHECKER + "-export-report")) {
+            ReportExporter.Format format = ReportExporter.Format.fromValue(data.getString("format"));
+            ReportStore store = getReportStore();
+            Path output = store.getFolder().resolveSibling(
+                    ReportExportCli.DEFAULT_OUTPUT_NAME + "." + format.getExtension());
+            // after the issues already sent, the segments are not compacted during the export
+            reportStoreExecutor.execute(() -> {
+                JsonObject object = Json.createObject();
+                try {
+                    int issueCount = ReportExportCli.export(store.getFolder(), format, output);
+                    object.put("file", output.toString());
+                    object.put("issueCount", issueCount);
+                } catch (IOException e) {
+                    getLogger().warn("Unable to export the report to {}", output, e);
+                    object.put("error", "Unable to export the report to " + output + ": " + e.getMessage());
+                }
+                devToolsInterface.send(ACCESSIBILITY_CHECKER + "-export-report", object);
+            });
+            return true;
+        } else if (command.equals(ACCESSIBILITY_CHECKER + "-resolve-locations")) {
+            int uiId = (int) data.getNumber(UI_ID);
+            JsonArray nodeIds = data.getArray("nodeIds");
+            VaadinSession session = VaadinSession.getCurrent();
+            metrics.access(session, "resolve-locations", () -> {
+                UI ui = session.getUIById(uiId);
+                if (ui == null) {
+                    return;
+                }
+                // each file is sent once, the locations are [nodeId, file index, line] triples
+                Map<File, Integer> fileIndexes = new HashMap<>();
+                JsonArray files = Json.createArray();
+                JsonArray locations = Json.createArray();
+                for (int i = 0; i < nodeIds.length(); i++) {
+                    int nodeId = (int) nodeIds.getNumber(i);
+                    SourceLocation location = getAccessibilityJavaSourceModifier().findSourceLocation(ui, nodeId);
+                    if (location != null) {
+                        int fileIndex = fileIndexes.computeIfAbsent(location.file(), file -> {
+                            files.set(files.length(), toProjectPath(file.toPath()));
+                            return files.length() - 1;
+                        });
+                        locations.set(locations.length(), nodeId);
+                        locations.set(locations.length(), fileIndex);
+                        locations.set(locations.length(), location.lineNumber());
+                    }
+                }
+                JsonObject object = Json.createObject();
+                object.put(UI_ID, uiId);
+                object.put("files", files);
+                object.put("locations", locations);
+                devToolsInterface.send(ACCESSIBILITY_CHECKER + "-resolve-locations", object);
+            });
+            return true;
+        } else if (command.equals(ACCESSIBILITY_CHECKER + "-metrics")) {
+            devToolsInterface.send(ACCESSIBILITY_CHECKER + "-metrics", toMetricsJson());
+            return true;
         } else if (command.equals(ACCESSIBILITY_CHECKER + "-show-route")) {
 
             int uiId = (int) data.getNumber(UI_ID);
             VaadinSession session = VaadinSession.getCurrent();
-            session.access(() -> {
+            metrics.access(session, "show-route", () -> {
                 Component currentView = session.getUIById(uiId).getCurrentView();
                 if (currentView != null) {
-                    getIdeIntegration().showComponentCreateInIde(currentView);
+                    getAccessibilityJavaSourceModifier().showCreateLocationInIde(currentView);
                 } else {
                     System.out.println(
                             "Only component locations are tracked. The given node id refers to an element and not a component");
@@ -131,27 +432,238 @@ public class AccessibilityCheckerPlugin implements DevToolsMessageHandler {
         return false;
     }
 
-    private IdeIntegration getIdeIntegration() {
-        if (ideIntegration == null) {
-            this.ideIntegration = new IdeIntegration(
-                    ApplicationConfiguration.get(VaadinService.getCurrent().getContext()));
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(AccessibilityCheckerPlugin.class);
+    }
+
+    /**
+     * @return the percentiles and the buckets of the histogram of each phase
+     *         of each command, the durations in µs
+     */
+    private JsonObject toMetricsJson() {
+        JsonArray bounds = Json.createArray();
+        for (int i = 0; i < LatencyHistogram.BUCKETS - 1; i++) {
+            bounds.set(i, LatencyHistogram.getUpperBoundMicros(i));
+        }
+        JsonArray phases = Json.createArray();
+        metrics.forEachSnapshot((command, snapshots) -> snapshots.forEach((phase, snapshot) -> {
+            JsonObject phaseObject = Json.createObject();
+            phaseObject.put("command", command);
+            phaseObject.put("phase", phase.getId());
+            phaseObject.put("count", snapshot.count());
+            phaseObject.put("p50", snapshot.getPercentileMicros(50));
+            phaseObject.put("p90", snapshot.getPercentileMicros(90));
+            phaseObject.put("p99", snapshot.getPercentileMicros(99));
+            phaseObject.put("max", TimeUnit.NANOSECONDS.toMicros(snapshot.maxNanos()));
+            JsonArray counts = Json.createArray();
+            for (long count : snapshot.counts()) {
+                counts.set(counts.length(), count);
+            }
+            phaseObject.put("buckets", counts);
+            phases.set(phases.length(), phaseObject);
+        }));
+        JsonObject object = Json.createObject();
+        // the last bucket has no upper bound
+        object.put("bucketBounds", bounds);
+        object.put("phases", phases);
+        return object;
+    }
+
+    /**
+     * Forgets the run of the client, the issues already stored are skipped.
+     */
+    private void abortStoreRun(ReportStore store, DevToolsInterface devToolsInterface, String runKey) {
+        // queued after the issues of the run
+        executeInReportStore(devToolsInterface, () -> {
+            Map<String, Long> runs = storeRuns.get(devToolsInterface);
+            Long runId = runs != null ? runs.remove(runKey) : null;
+            if (runId != null) {
+                store.abort(runId);
+            }
+        });
+    }
+
+    /**
+     * Runs the task in the report store thread from the session lock, where
+     * the exceptions don't reach {@link #handleMessage}. If the plugin is
+     * closed, the task is dropped and an error is sent.
+     */
+    private void executeInReportStore(DevToolsInterface devToolsInterface, Runnable task) {
+        try {
+            reportStoreExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            sendError(devToolsInterface, CLOSED_MESSAGE);
+        }
+    }
+
+    private static void sendError(DevToolsInterface devToolsInterface, String message) {
+        JsonObject object = Json.createObject();
+        object.put("message", message);
+        devToolsInterface.send(ACCESSIBILITY_CHECKER + "-error", object);
+    }
+
+    /**
+     * @return the routes with their issues in the last run, sorted by route
+     */
+    private static JsonArray toFoundIssuesJson(Map<String, List<StoredIssue>> issuesByRoute) {
+        JsonArray routes = Json.createArray();
+        issuesByRoute.forEach((route, issues) -> {
+            JsonArray issuesArray = Json.createArray();
+            for (StoredIssue issue : issues) {
+                JsonObject issueObject = Json.createObject();
+                issueObject.put("ruleId", issue.ruleId());
+                issueObject.put("category", issue.category());
+                issueObject.put("tagName", issue.tagName());
+                if (issue.file() != null) {
+                    issueObject.put("file", issue.file());
+                    issueObject.put("line", issue.line());
+                }
+                issuesArray.set(issuesArray.length(), issueObject);
+            }
+            JsonObject routeObject = Json.createObject();
+            routeObject.put("route", route);
+            routeObject.put("issues", issuesArray);
+            routes.set(routes.length(), routeObject);
+        });
+        return routes;
+    }
+
+    private static JsonObject toHistoryJson(String route, List<RunSummary> runs) {
+        JsonArray runsArray = Json.createArray();
+        for (RunSummary run : runs.subList(Math.max(0, runs.size() - HISTORY_RUNS), runs.size())) {
+            JsonObject runObject = Json.createObject();
+            runObject.put("runId", run.runId());
+            runObject.put("timestamp", run.timestamp());
+            runObject.put("issueCount", run.issueCount());
+            JsonObject categories = Json.createObject();
+            run.categoryCounts().forEach(categories::put);
+            runObject.put("categories", categories);
+            runsArray.set(runsArray.length(), runObject);
+        }
+        // the most frequent rules of the last run
+        JsonArray rulesArray = Json.createArray();
+        if (!runs.isEmpty()) {
+            runs.get(runs.size() - 1).ruleCounts().entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .forEach(rule -> {
+                        JsonObject ruleObject = Json.createObject();
+                        ruleObject.put("ruleId", rule.getKey());
+                        ruleObject.put("count", rule.getValue());
+                        rulesArray.set(rulesArray.length(), ruleObject);
+                    });
+        }
+        JsonObject object = Json.createObject();
+        object.put("route", route);
+        object.put("runs", runsArray);
+        object.put("rules", rulesArray);
+        return object;
+    }
+
+    /**
+     * @return the service of the current request, the initialized service
+     *         outside a request, null if there is none yet
+     */
+    private static VaadinService getService() {
+        VaadinService current = VaadinService.getCurrent();
+        return current != null ? current : service;
+    }
+
+    /**
+     * @return the project folder of the application, null if the service is
+     *         not initialized yet
+     */
+    private static Path getProjectFolder() {
+        VaadinService service = getService();
+        return service != null
+                ? ApplicationConfiguration.get(service.getContext()).getProjectFolder().toPath()
+                : null;
+    }
+
+    /**
+     * @return the path of the file relative to the project folder if it's in
+     *         it, the absolute path otherwise, with forward slashes
+     */
+    private static String toProjectPath(Path file) {
+        Path path = file.toAbsolutePath().normalize();
+        Path projectFolder = getProjectFolder();
+        if (projectFolder != null) {
+            projectFolder = projectFolder.toAbsolutePath().normalize();
+            if (path.startsWith(projectFolder)) {
+                path = projectFolder.relativize(path);
+            }
+        }
+        return path.toString().replace('\\', '/');
+    }
+
+    private synchronized ReportStore getReportStore() {
+        if (reportStore == null) {
+            VaadinService service = getService();
+            if (service == null) {
+                // not kept, opened again by the next command
+                throw new AccessibilityCheckerException("The report store is not available before the service is initialized");
+            }
+            ApplicationConfiguration configuration = ApplicationConfiguration.get(service.getContext());
+            Path buildFolder = configuration.getProjectFolder().toPath().resolve(configuration.getBuildFolder());
+            try {
+                reportStore = new ReportStore(buildFolder.resolve(ACCESSIBILITY_CHECKER).resolve("reports"));
+            } catch (IOException e) {
+                throw new AccessibilityCheckerException("Unable to open the report store in " + buildFolder, e);
+            }
+        }
+        return reportStore;
+    }
+
+    private synchronized ReportStore getOpenedReportStore() {
+        return reportStore;
+    }
+
+    /**
+     * @return the configuration of the project, null until the service is
+     *         initialized
+     */
+    private synchronized IgnoredRulesConfiguration getIgnoredRulesConfiguration() {
+        Path projectFolder = getProjectFolder();
+        if (ignoredRulesConfiguration == null && projectFolder != null) {
+            ignoredRulesConfiguration = new IgnoredRulesConfiguration(projectFolder, ignoredRules -> {
+                JsonObject object = Json.createObject();
+                object.put("ignoredRules", ignoredRules);
+                connections.forEach(connection -> connection.send(ACCESSIBILITY_CHECKER + "-ignored-rules", object));
+            });
+            ignoredRulesConfiguration.start();
         }
-        return ideIntegration;
+        return ignoredRulesConfiguration;
     }
 
-    private AccessibilityJavaSourceModifier getAccessibilityJavaSourceModifier() {
+    private synchronized AccessibilityJavaSourceModifier getAccessibilityJavaSourceModifier() {
         if (accessibilityJavaSourceModifier == null) {
             this.accessibilityJavaSourceModifier = new AccessibilityJavaSourceModifier(
-                    VaadinService.getCurrent().getContext(),
-                    (devToolsInterface, errorMessage) -> {
-                        JsonObject object = Json.createObject();
-                        object.put("message", errorMessage);
-                        devToolsInterface.send(ACCESSIBILITY_CHECKER + "-error", object);
-                    },
+                    getService().getContext(),
+                    AccessibilityCheckerPlugin::sendError,
                     (devToolsInterface) -> {
                         JsonObject object = Json.createObject();
                         devToolsInterface.send(ACCESSIBILITY_CHECKER + "-success", object);
-                    }
+                    },
+                    (devToolsInterface, results) -> {
+                        JsonArray array = Json.createArray();
+                        for (AccessibilityFix.Result result : results) {
+                            JsonObject resultObject = Json.createObject();
+                            resultObject.put("index", result.index());
+                            resultObject.put(UI_ID, result.fix().uiId());
+                            resultObject.put(NODE_ID, result.fix().nodeId());
+                            resultObject.put("success", result.success());
+                            if (result.message() != null) {
+                                resultObject.put("message", result.message());
+                            }
+                            JsonArray nodeIds = Json.createArray();
+                            result.nodeIds().forEach(nodeId -> nodeIds.set(nodeIds.length(), nodeId));
+                            resultObject.put("nodeIds", nodeIds);
+                            array.set(array.length(), resultObject);
+                        }
+                        JsonObject object = Json.createObject();
+                        object.put("results", array);
+                        devToolsInterface.send(ACCESSIBILITY_CHECKER + "-apply-fixes-result", object);
+                    },
+                    metrics
             );
         }
         return accessibilityJavaSourceModifier;
@@ -0,0 +1,44 @@
+package org.vaadin.addons.accessibility;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+
+/**
+ * Gives the service to the {@link AccessibilityCheckerPlugin}, so it can
+ * resolve the project folder when a dev tools message is handled outside a
+ * request, and closes its threads and files when the service is destroyed,
+ * for example when the application is redeployed.
+ */
+public class AccessibilityCheckerServiceInitListener implements VaadinServiceInitListener {
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        VaadinService service = event.getSource();
+        if (service.getDeploymentConfiguration().isProductionMode()) {
+            return;
+        }
+        AccessibilityCheckerPlugin.serviceInit(service);
+        service.addServiceDestroyListener(serviceDestroyEvent -> AccessibilityCheckerPlugin.closeAll());
+    }
+}
@@ -0,0 +1,118 @@
+package org.vaadin.addons.accessibility;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.HasAriaLabel;
+import com.vaadin.flow.component.HasLabel;
+import com.vaadin.flow.component.HtmlComponent;
+import com.vaadin.flow.component.html.Image;
+import org.vaadin.addons.accessibility.visitors.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A single text fix sent by the client in a batch.
+ *
+ * @param uiId uiId of target component's UI
+ * @param nodeId nodeId of target component
+ * @param type type of the fix, null if the client sent an unknown type
+ * @param value text to set
+ */
+public record AccessibilityFix(int uiId, int nodeId, Type type, String value) {
+
+    public enum Type {
+        LABEL("label", HasLabel.class::isInstance, LabelVisitor::new,
+                "The component does not implement HasLabel"),
+        ARIA_LABEL("aria-label", HasAriaLabel.class::isInstance, AriaLabelVisitor::new,
+                "The component does not implement HasAriaLabel"),
+        TITLE("title", HtmlComponent.class::isInstance, TitleVisitor::new,
+                "The component is not an HtmlComponent"),
+        ALT_TEXT("alt-text", Image.class::isInstance, AltTextVisitor::new,
+                "The component is not an image");
+
+        private final String value;
+        private final Predicate<Component> applicable;
+        private final Supplier<GenericStringVisitor> visitorSupplier;
+        private final String notApplicableMessage;
+
+        Type(String value, Predicate<Component> applicable,
+             Supplier<GenericStringVisitor> visitorSupplier, String notApplicableMessage) {
+            this.value = value;
+            this.applicable = applicable;
+            this.visitorSupplier = visitorSupplier;
+            this.notApplicableMessage = notApplicableMessage;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public boolean isApplicable(Component component) {
+            return applicable.test(component);
+        }
+
+        public GenericStringVisitor createVisitor() {
+            return visitorSupplier.get();
+        }
+
+        public String getNotApplicableMessage() {
+            return notApplicableMessage;
+        }
+
+        /**
+         * @param value type sent by the client
+         * @return the matching type or null if there is none
+         */
+        public static Type fromValue(String value) {
+            for (Type type : values()) {
+                if (type.value.equals(value)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Outcome of a fix sent back to the client.
+     *
+     * @param index position of the fix in the batch
+     * @param fix the fix
+     * @param success true if the source has been updated
+     * @param message error message if the fix failed
+     * @param nodeIds nodes of the fix's UI created at the same location, fixed
+     *            by the same edit
+     */
+    public record Result(int index, AccessibilityFix fix, boolean success, String message, List<Integer> nodeIds) {
+
+        public static Result success(int index, AccessibilityFix fix, List<Integer> nodeIds) {
+            return new Result(index, fix, true, null, nodeIds);
+        }
+
+        public static Result failure(int index, AccessibilityFix fix, String message) {
+            return new Result(index, fix, false, message, Collections.emptyList());
+        }
+    }
+}
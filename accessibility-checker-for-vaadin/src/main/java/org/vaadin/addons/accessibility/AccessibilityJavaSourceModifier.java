@@ -22,29 +22,35 @@ package org.vaadin.addons.accessibility;
 
 import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
 import com.github.javaparser.ast.ImportDeclaration;
 import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.ast.expr.*;
 import com.github.javaparser.ast.nodeTypes.NodeWithBlockStmt;
 import com.github.javaparser.ast.nodeTypes.NodeWithExpression;
 import com.github.javaparser.ast.stmt.ExpressionStmt;
 import com.github.javaparser.ast.stmt.Statement;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
 import com.vaadin.base.devserver.DevToolsInterface;
+import com.vaadin.base.devserver.OpenInCurrentIde;
 import com.vaadin.base.devserver.editor.Editor;
 import com.vaadin.base.devserver.editor.Where;
-import com.vaadin.base.devserver.themeeditor.utils.LineNumberVisitor;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.HasAriaLabel;
 import com.vaadin.flow.component.HasLabel;
 import com.vaadin.flow.component.HtmlComponent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.html.Image;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.Main;
 import com.vaadin.flow.component.internal.ComponentTracker;
 import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.server.VaadinContext;
 import com.vaadin.flow.server.VaadinSession;
@@ -53,22 +59,84 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.vaadin.addons.accessibility.visitors.*;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.function.Consumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import static com.github.javaparser.StaticJavaParser.*;
 
-public class AccessibilityJavaSourceModifier extends Editor {
+/**
+ * Updates the Java source of the components and views.
+ * <p>
+ * Only the components and their create locations are resolved while holding
+ * the session lock. Parsing, modifying and writing the source files is done by
+ * the {@link SourceEditQueue} and the lock is taken again to send the result.
+ * <p>
+ * The lines changed by each write are recorded in the {@link LineOffsetIndex}
+ * of the file. A location resolved before a write is mapped to the lines of
+ * the parsed unit with that index, a cached unit parsed before the oldest
+ * revision kept by the index is parsed again. The locations tracked by the
+ * {@link ComponentTracker} are moved with the same changes the next time the
+ * session lock is held, since the tracker is not safe to update while the
+ * components are created.
+ */
+public class AccessibilityJavaSourceModifier extends Editor implements Closeable {
+
+    /**
+     * Additional source folders, separated with the path separator.
+     */
+    public static final String SOURCE_ROOTS_PROPERTY = "accessibility.checker.sourceRoots";
+
+    /** revision the unit was parsed at, the positions of the unit are the lines of that revision **/
+    private static final DataKey<Long> PARSED_REVISION = new DataKey<>() {
+    };
 
     private final VaadinContext context;
     private final ErrorHandler errorHandler;
     private final SuccessHandler successHandler;
+    private final FixResultHandler fixResultHandler;
+    private final CompilationUnitCache compilationUnitCache;
+    private final SourceEditQueue sourceEditQueue;
+    /** lines changed by each write of the files, also the lock of the revision **/
+    private final Map<File, LineOffsetIndex> lineOffsets = new ConcurrentHashMap<>();
+    /** incremented by each write **/
+    private long revision;
+    /** writes not applied to the tracked locations yet, the oldest first, also the lock of the tracked revision **/
+    private final Deque<TrackerRefresh> pendingRefreshes = new ArrayDeque<>();
+    /** revision of the lines of the locations tracked by the {@link ComponentTracker} **/
+    private long trackedRevision;
+    private SourceFileIndex sourceFileIndex;
+    private final CommandMetrics metrics;
+    /** commands of the edits applied by the current read-modify-write cycle of the thread **/
+    private final ThreadLocal<Set<String>> editCommands = new ThreadLocal<>();
+
     public AccessibilityJavaSourceModifier(VaadinContext context, ErrorHandler errorHandler, SuccessHandler successHandler) {
+        this(context, errorHandler, successHandler, (devToolsInterface, results) -> {
+        });
+    }
+
+    public AccessibilityJavaSourceModifier(VaadinContext context, ErrorHandler errorHandler, SuccessHandler successHandler,
+                                           FixResultHandler fixResultHandler) {
+        this(context, errorHandler, successHandler, fixResultHandler, new CommandMetrics());
+    }
+
+    public AccessibilityJavaSourceModifier(VaadinContext context, ErrorHandler errorHandler, SuccessHandler successHandler,
+                                           FixResultHandler fixResultHandler, CommandMetrics metrics) {
         this.context = context;
+        this.metrics = metrics;
         this.errorHandler = errorHandler;
         this.successHandler = successHandler;
+        this.fixResultHandler = fixResultHandler;
+        this.compilationUnitCache = new CompilationUnitCache(this::parseSource);
+        this.sourceEditQueue = new SourceEditQueue(this::modifyClass);
     }
 
     /**
@@ -85,10 +153,10 @@ public class AccessibilityJavaSourceModifier extends Editor {
     public void setLabel(DevToolsInterface devToolsInterface, Integer uiId, Integer nodeId,
                          String label) {
         assert uiId != null && nodeId != null && label != null;
-        runAsAccess(devToolsInterface, (session) -> {
+        runInBackground(devToolsInterface, "set-label", (session) -> {
             Component component = getComponent(session, uiId, nodeId);
             if (component instanceof HasLabel) {
-                setText(component, label, new LabelVisitor());
+                return createSetTextEdit(component, label, new LabelVisitor());
             } else {
                 throw new AccessibilityCheckerException( "The component does not implement HasLabel");
             }
@@ -98,10 +166,10 @@ public class AccessibilityJavaSourceModifier extends Editor {
     public void setAriaLabel(DevToolsInterface devToolsInterface, Integer uiId, Integer nodeId,
             String label) {
         assert uiId != null && nodeId != null && label != null;
-        runAsAccess(devToolsInterface, (session) -> {
+        runInBackground(devToolsInterface, "set-aria-label", (session) -> {
             Component component = getComponent(session, uiId, nodeId);
             if (component instanceof HasAriaLabel) {
-                setText(component, label, new AriaLabelVisitor());
+                return createSetTextEdit(component, label, new AriaLabelVisitor());
             } /*else if (component instanceof Grid<?>) {
                 // todo
                 // grid.getElement().executeJs("this.shadowRoot.querySelector('table').ariaLabel = $0", label);
@@ -114,10 +182,10 @@ public class AccessibilityJavaSourceModifier extends Editor {
     public void setTitle(DevToolsInterface devToolsInterface, Integer uiId, Integer nodeId,
                            String title) {
         assert uiId != null && nodeId != null && title != null;
-        runAsAccess(devToolsInterface, (session) -> {
+        runInBackground(devToolsInterface, "set-title", (session) -> {
             Component component = getComponent(session, uiId, nodeId);
             if (component instanceof HtmlComponent) {
-                setText(component, title, new TitleVisitor());
+                return createSetTextEdit(component, title, new TitleVisitor());
             } else {
                 throw new AccessibilityCheckerException("The component is not an HtmlComponent");
             }
@@ -126,10 +194,10 @@ public class AccessibilityJavaSourceModifier extends Editor {
     public void setAltText(DevToolsInterface devToolsInterface, Integer uiId, Integer nodeId,
                              String altText) {
         assert uiId != null && nodeId != null && altText != null;
-        runAsAccess(devToolsInterface, (session) -> {
+        runInBackground(devToolsInterface, "set-alt-text", (session) -> {
             Component component = getComponent(session, uiId, nodeId);
             if (component instanceof Image) {
-                setText(component, altText, new AltTextVisitor());
+                return createSetTextEdit(component, altText, new AltTextVisitor());
             } else {
                 throw new AccessibilityCheckerException("The component is not an image");
             }
@@ -162,127 +230,517 @@ public class AccessibilityJavaSourceModifier extends Editor {
 
     public void setPageTitle(DevToolsInterface devToolsInterface, Integer uiId, String pageTitle) {
         assert uiId != null && pageTitle != null;
-        runAsAccess(devToolsInterface, (session) -> {
-            Component currentView = session.getUIById(uiId).getCurrentView();
+        runInBackground(devToolsInterface, "update-page-title",
+                (session) -> createPageTitleEdit(session.getUIById(uiId).getCurrentView(), pageTitle));
+    }
+
+    protected SourceEdit createPageTitleEdit(Component currentView, String pageTitle) {
+        String viewClassName = currentView.getClass().getSimpleName();
+        ComponentTracker.Location createLocation = getCreateLocation(
+                currentView);
+        return new SourceEdit(getSourceFile(createLocation), cu -> {
             List<Modification> modifications = new ArrayList<>();
-            ComponentTracker.Location createLocation = getCreateLocation(
-                    currentView);
-            File sourceFile = getSourceFile(createLocation);
-            int sourceOffset = modifyClass(sourceFile, cu -> {
-
-                Optional<ClassOrInterfaceDeclaration> classOrInterfaceDeclaration = cu.getClassByName(currentView.getClass().getSimpleName());
-                classOrInterfaceDeclaration.ifPresent(node -> {
-                    Name name = parseName(PageTitle.class.getSimpleName());
-                    Optional<AnnotationExpr> pageTitleAnnotationOptional = node.getAnnotations().stream().filter(expr -> name.equals(expr.getName())).findFirst();
-                    SingleMemberAnnotationExpr normalAnnotationExpr = new SingleMemberAnnotationExpr(
-                            name,
-                            parseExpression(escapeForJava(pageTitle, true))
-                    );
-                    if (pageTitleAnnotationOptional.isPresent()) {
-                        getLogger().debug("update the page title {}", pageTitle);
-                        modifications.add(Modification.remove(pageTitleAnnotationOptional.get()));
-                        node.addAnnotation(normalAnnotationExpr);
-                        modifications.add(Modification.insertLineBefore(node, normalAnnotationExpr));
-                    } else {
-                        getLogger().debug("insert the page title {}", pageTitle);
-
-                        node.addAnnotation(normalAnnotationExpr);
-                        modifications.add(Modification.addImport(cu, new ImportDeclaration(PageTitle.class.getName(), false, false)));
-                        modifications.add(Modification.insertLineBefore(node, normalAnnotationExpr));
-                    }
-                });
-                return modifications;
+            Optional<ClassOrInterfaceDeclaration> classOrInterfaceDeclaration = cu.getClassByName(viewClassName);
+            classOrInterfaceDeclaration.ifPresent(node -> {
+                Name name = parseName(PageTitle.class.getSimpleName());
+                Optional<AnnotationExpr> pageTitleAnnotationOptional = node.getAnnotations().stream().filter(expr -> name.equals(expr.getName())).findFirst();
+                SingleMemberAnnotationExpr normalAnnotationExpr = new SingleMemberAnnotationExpr(
+                        name,
+                        parseExpression(escapeForJava(pageTitle, true))
+                );
+                if (pageTitleAnnotationOptional.isPresent()) {
+                    getLogger().debug("update the page title {}", pageTitle);
+                    modifications.add(Modification.remove(pageTitleAnnotationOptional.get()));
+                    node.addAnnotation(normalAnnotationExpr);
+                    modifications.add(Modification.insertLineBefore(node, normalAnnotationExpr));
+                } else {
+                    getLogger().debug("insert the page title {}", pageTitle);
+
+                    node.addAnnotation(normalAnnotationExpr);
+                    modifications.add(Modification.addImport(cu, new ImportDeclaration(PageTitle.class.getName(), false, false)));
+                    modifications.add(Modification.insertLineBefore(node, normalAnnotationExpr));
+                }
             });
-
-            if (sourceOffset != 0) {
-                ComponentTracker.refreshLocation(createLocation, sourceOffset);
-            }
+            return modifications;
         });
     }
 
     public void updateRouteExtends(DevToolsInterface devToolsInterface, Integer uiId) {
         assert uiId != null;
-        runAsAccess(devToolsInterface, (session) -> {
-            Component currentView = session.getUIById(uiId).getCurrentView();
+        runInBackground(devToolsInterface, "update-route-extends",
+                (session) -> createRouteExtendsEdit(session.getUIById(uiId).getCurrentView()));
+    }
+
+    protected SourceEdit createRouteExtendsEdit(Component currentView) {
+        String viewClassName = currentView.getClass().getSimpleName();
+        ComponentTracker.Location createLocation = getCreateLocation(
+                currentView);
+        return new SourceEdit(getSourceFile(createLocation), cu -> {
             List<Modification> modifications = new ArrayList<>();
-            ComponentTracker.Location createLocation = getCreateLocation(
-                    currentView);
-            File sourceFile = getSourceFile(createLocation);
-            int sourceOffset = modifyClass(sourceFile, cu -> {
-
-                Optional<ClassOrInterfaceDeclaration> classOrInterfaceDeclaration = cu.getClassByName(currentView.getClass().getSimpleName());
-                classOrInterfaceDeclaration.ifPresent(node -> {
-                    Optional<ClassOrInterfaceType> optionalClassOrInterfaceType = node.getExtendedTypes().stream()
-                            .filter(t -> {
-                                String simpleName = t.getNameAsString();
-                                return simpleName.equals(Div.class.getSimpleName());
-                            }).findFirst();
-                    if (optionalClassOrInterfaceType.isPresent()) {
-                        ClassOrInterfaceType extendedTypes = optionalClassOrInterfaceType.get();
-                        ClassOrInterfaceType newNode = parseClassOrInterfaceType(Main.class.getSimpleName());
-                        modifications.add(Modification.addImport(cu, new ImportDeclaration(Main.class.getName(), false, false)));
-                        modifications.add(Modification.replace(extendedTypes, newNode));
-                    } else {
-                        // add role main in the constructor getElement().setAttribute("role", "main");
-                        ConstructorDeclaration constructorDeclaration = cu.accept(new ConstructorVisitor(), null);
-                        Statement staticStatement = StaticJavaParser.parseStatement("getElement().setAttribute(\"role\", \"main\");");
-                        modifications.add(Modification.insertAtEndOfBlock(constructorDeclaration, staticStatement));
-                    }
-                });
-                return modifications;
+            Optional<ClassOrInterfaceDeclaration> classOrInterfaceDeclaration = cu.getClassByName(viewClassName);
+            classOrInterfaceDeclaration.ifPresent(node -> {
+                Optional<ClassOrInterfaceType> optionalClassOrInterfaceType = node.getExtendedTypes().stream()
+                        .filter(t -> {
+                            String simpleName = t.getNameAsString();
+                            return simpleName.equals(Div.class.getSimpleName());
+                        }).findFirst();
+                if (optionalClassOrInterfaceType.isPresent()) {
+                    ClassOrInterfaceType extendedTypes = optionalClassOrInterfaceType.get();
+                    ClassOrInterfaceType newNode = parseClassOrInterfaceType(Main.class.getSimpleName());
+                    modifications.add(Modification.addImport(cu, new ImportDeclaration(Main.class.getName(), false, false)));
+                    modifications.add(Modification.replace(extendedTypes, newNode));
+                } else {
+                    // add role main in the constructor getElement().setAttribute("role", "main");
+                    ConstructorDeclaration constructorDeclaration = cu.accept(new ConstructorVisitor(), null);
+                    Statement staticStatement = StaticJavaParser.parseStatement("getElement().setAttribute(\"role\", \"main\");");
+                    modifications.add(Modification.insertAtEndOfBlock(constructorDeclaration, staticStatement));
+                }
             });
+            return modifications;
+        });
+    }
 
-            if (sourceOffset != 0) {
-                ComponentTracker.refreshLocation(createLocation, sourceOffset);
+    /**
+     * Resolves the edit while holding the session lock, queues it and then
+     * sends the result while holding the lock again. The file is parsed,
+     * modified and written by the {@link SourceEditQueue} without the lock,
+     * the locations of the {@link ComponentTracker} are moved with the
+     * written lines in the same callback as the result. The time of both
+     * locks is recorded by the {@link CommandMetrics}.
+     *
+     * @param operation name of the operation used in the logs
+     * @param resolver resolves the edit from the session
+     */
+    private void runInBackground(DevToolsInterface devToolsInterface, String operation,
+                                 Function<VaadinSession, SourceEdit> resolver) {
+        VaadinSession session = getSession();
+        metrics.access(session, operation, () -> {
+            SourceEdit edit;
+            try {
+                edit = resolver.apply(session);
+            } catch (Exception ex) {
+                getLogger().error("Error during the execution", ex);
+                errorHandler.sendError(devToolsInterface, ex.getMessage());
+                return;
             }
+            sourceEditQueue.submit(edit.sourceFile(), measureTraversal(operation, edit.modifier()))
+                    .whenComplete((sourceOffset, ex) -> {
+                if (ex != null) {
+                    getLogger().error("Error during the execution", ex);
+                    metrics.access(session, operation, () -> {
+                        // the other edits of the cycle might have been written
+                        refreshTrackedLocations();
+                        errorHandler.sendError(devToolsInterface, ex.getMessage());
+                    });
+                    return;
+                }
+                metrics.access(session, operation, () -> {
+                    refreshTrackedLocations();
+                    successHandler.sendSuccess(devToolsInterface);
+                });
+            });
         });
     }
 
-private void runAsAccess(DevToolsInterface devToolsInterface, Consumer<VaadinSession> runnable) {
-    VaadinSession session = getSession();
-    session.access(() -> {
+    /**
+     * Records the traversal of the modifier for the command. The command is
+     * added to the edit cycle of the thread, so the parse and the write of the
+     * file are recorded for all the commands of the cycle.
+     */
+    private Function<CompilationUnit, List<Modification>> measureTraversal(String command,
+            Function<CompilationUnit, List<Modification>> modifier) {
+        return cu -> {
+            Set<String> commands = editCommands.get();
+            if (commands != null) {
+                commands.add(command);
+            }
+            long start = System.nanoTime();
+            try {
+                return modifier.apply(cu);
+            } finally {
+                metrics.record(command, CommandMetrics.Phase.TRAVERSAL, System.nanoTime() - start);
+            }
+        };
+    }
+
+    protected SourceEdit createSetTextEdit(Component component, String text, GenericStringVisitor visitor) {
+        TrackedLocation createLocation = getTrackedLocation(component);
+        File sourceFile = getSourceFile(createLocation.location());
+        return new SourceEdit(sourceFile,
+                cu -> Collections.singletonList(createSetTextModification(cu,
+                        rebase(cu, sourceFile, createLocation), text, visitor)));
+    }
+
+    /**
+     * Adds or replaces the statement setting the text of the component and
+     * waits for the file to be written. Must be called while holding the
+     * session lock.
+     *
+     * @deprecated blocks the session lock during the write, use
+     *             {@link #createSetTextEdit(Component, String, GenericStringVisitor)}
+     *             with the {@link SourceEditQueue}
+     */
+    @Deprecated
+    protected void setText(Component component, String text, GenericStringVisitor visitor) {
+        SourceEdit edit = createSetTextEdit(component, text, visitor);
         try {
-            runnable.accept(session);
-            successHandler.sendSuccess(devToolsInterface);
-        } catch (Exception ex) {
-            getLogger().error("Error during the execution", ex);
-            errorHandler.sendError(devToolsInterface, ex.getMessage());
+            sourceEditQueue.submit(edit.sourceFile(), edit.modifier()).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new AccessibilityCheckerException(ex.getCause().getMessage(), ex.getCause());
+        } finally {
+            refreshTrackedLocations();
         }
-    });
-}
+    }
 
-    protected void setText(Component component, String text, GenericStringVisitor visitor) {
-        ComponentTracker.Location createLocation = getCreateLocation(
-                component);
+    /**
+     * Opens the line where the component was created. Must be called while
+     * holding the session lock.
+     */
+    public void showCreateLocationInIde(Component component) {
+        ComponentTracker.Location createLocation = getTrackedLocation(component).location();
         File sourceFile = getSourceFile(createLocation);
-        int sourceOffset = modifyClass(sourceFile, cu -> {
-            SimpleName scope = findLocalVariableOrField(cu,
-                    createLocation.lineNumber());
-            Node newNode = createAddStatement(scope, text, visitor);
-            Modification mod;
-            ExpressionStmt stmt = findStmt(cu, component, visitor);
-            if (stmt == null) {
-                Node node = findNode(cu, component);
-                Where where = findModificationWhere(cu, component);
-                mod = switch (where) {
-                case AFTER -> Modification.insertLineAfter(node, newNode);
-                case INSIDE ->
-                    Modification.insertAtEndOfBlock(node, newNode);
-                case BEFORE -> Modification.insertLineBefore(node, newNode);
-                };
-            } else {
-                mod = Modification.replace(stmt, newNode);
+        if (!OpenInCurrentIde.openFile(sourceFile, createLocation.lineNumber())) {
+            getLogger().error("Unable to open {} in the IDE", sourceFile);
+        }
+    }
+
+    /**
+     * Finds where the component of the node was created. Must be called while
+     * holding the session lock.
+     *
+     * @return the location, null if the node is not a component or if its
+     *         creation was not tracked
+     */
+    public SourceLocation findSourceLocation(UI ui, int nodeId) {
+        Optional<Component> component = metrics.measure(CommandMetrics.Phase.COMPONENT_LOOKUP, () -> {
+            StateNode node = ui.getInternals().getStateTree().getNodeById(nodeId);
+            return node != null ? Element.get(node).getComponent() : Optional.<Component>empty();
+        });
+        if (component.isEmpty()) {
+            return null;
+        }
+        ComponentTracker.Location createLocation = metrics.measure(CommandMetrics.Phase.TRACKER_RESOLUTION,
+                () -> findCreateLocation(component.get()));
+        if (createLocation == null) {
+            return null;
+        }
+        return new SourceLocation(getSourceFile(createLocation), createLocation.lineNumber());
+    }
+
+    /**
+     * Applies a batch of fixes. The fixes are queued in the {@link SourceEditQueue}
+     * so each file is parsed and written once and the files are processed in
+     * parallel. The result of each fix is sent with the {@link FixResultHandler}.
+     * <p>
+     * The components created at the same location share the same source, so
+     * only one edit is done per location and the result of a fix lists all the
+     * nodes of its UI created at that location. If the fixes of a location set
+     * different values, the last one is applied and the others fail.
+     *
+     * @param fixes the fixes to apply
+     */
+    public void applyFixes(DevToolsInterface devToolsInterface, List<AccessibilityFix> fixes) {
+        assert fixes != null;
+        VaadinSession session = getSession();
+        metrics.access(session, "apply-fixes", () -> {
+            AccessibilityFix.Result[] results = new AccessibilityFix.Result[fixes.size()];
+            Map<FixKey, List<LocatedFix>> fixesByKey = new LinkedHashMap<>();
+            Map<Integer, Map<ComponentTracker.Location, List<Integer>>> nodeIdsByUi = new HashMap<>();
+            for (int i = 0; i < fixes.size(); i++) {
+                AccessibilityFix fix = fixes.get(i);
+                try {
+                    if (fix.type() == null) {
+                        throw new AccessibilityCheckerException("Unknown fix type");
+                    }
+                    Component component = getComponent(session, fix.uiId(), fix.nodeId());
+                    if (!fix.type().isApplicable(component)) {
+                        throw new AccessibilityCheckerException(fix.type().getNotApplicableMessage());
+                    }
+                    TrackedLocation createLocation = getTrackedLocation(component);
+                    List<Integer> nodeIds = nodeIdsByUi.computeIfAbsent(fix.uiId(),
+                            uiId -> metrics.measure(CommandMetrics.Phase.TRACKER_RESOLUTION,
+                                    () -> getNodeIdsByCreateLocation(session.getUIById(uiId))))
+                            .getOrDefault(createLocation.location(), Collections.singletonList(fix.nodeId()));
+                    fixesByKey.computeIfAbsent(new FixKey(getSourceFile(createLocation.location()), createLocation,
+                                    fix.type()),
+                            k -> new ArrayList<>()).add(new LocatedFix(i, fix, nodeIds));
+                } catch (Exception ex) {
+                    results[i] = AccessibilityFix.Result.failure(i, fix, ex.getMessage());
+                }
             }
-            return Collections.singletonList(mod);
+
+            Map<FixKey, CompletableFuture<Integer>> sourceOffsets = new LinkedHashMap<>();
+            fixesByKey.forEach((key, sameKeyFixes) -> {
+                // the last fix wins, the ones setting another value are not applied
+                AccessibilityFix fix = sameKeyFixes.get(sameKeyFixes.size() - 1).fix();
+                sameKeyFixes.removeIf(f -> {
+                    if (Objects.equals(f.fix().value(), fix.value())) {
+                        return false;
+                    }
+                    results[f.index()] = AccessibilityFix.Result.failure(f.index(), f.fix(),
+                            "Overridden by another fix of the same component with a different value");
+                    return true;
+                });
+                sourceOffsets.put(key, sourceEditQueue.submit(key.sourceFile(),
+                        measureTraversal("apply-fixes", cu -> Collections.singletonList(createSetTextModification(cu,
+                                rebase(cu, key.sourceFile(), key.createLocation()), fix.value(),
+                                fix.type().createVisitor())))));
+            });
+
+            CompletableFuture.allOf(sourceOffsets.values().toArray(CompletableFuture[]::new))
+                    .whenComplete((ignored, ignoredEx) -> metrics.access(session, "apply-fixes", () -> {
+                refreshTrackedLocations();
+                sourceOffsets.forEach((key, sourceOffset) -> {
+                    try {
+                        sourceOffset.join();
+                        fixesByKey.get(key).forEach(f -> results[f.index()] =
+                                AccessibilityFix.Result.success(f.index(), f.fix(), f.nodeIds()));
+                    } catch (CompletionException ex) {
+                        getLogger().error("Error during the execution", ex.getCause());
+                        fixesByKey.get(key).forEach(f -> results[f.index()] =
+                                AccessibilityFix.Result.failure(f.index(), f.fix(), ex.getCause().getMessage()));
+                    }
+                });
+                fixResultHandler.sendResults(devToolsInterface, Arrays.asList(results));
+            }));
         });
+    }
+
+    /**
+     * Groups the node ids of all the components of the UI by the location where
+     * they were created.
+     */
+    private Map<ComponentTracker.Location, List<Integer>> getNodeIdsByCreateLocation(UI ui) {
+        Map<ComponentTracker.Location, List<Integer>> nodeIds = new HashMap<>();
+        Deque<Component> components = new ArrayDeque<>();
+        components.push(ui);
+        while (!components.isEmpty()) {
+            Component component = components.pop();
+            ComponentTracker.Location location = findCreateLocation(component);
+            if (location != null) {
+                nodeIds.computeIfAbsent(location, l -> new ArrayList<>())
+                        .add(component.getElement().getNode().getId());
+            }
+            component.getChildren().forEach(components::push);
+        }
+        return nodeIds;
+    }
+
+    /**
+     * Creates the modification that adds or replaces the generated statement
+     * for the component created at the given location.
+     */
+    protected Modification createSetTextModification(CompilationUnit cu,
+            ComponentTracker.Location createLocation, String text, GenericStringVisitor visitor) {
+        SimpleName scope = findLocalVariableOrField(cu,
+                createLocation.lineNumber());
+        Statement newNode = createAddStatement(scope, text, visitor);
+        ExpressionStmt stmt = findStmt(cu, createLocation, visitor);
+        Modification mod;
+        if (stmt == null) {
+            Node node = findNode(cu, createLocation);
+            Where where = findModificationWhere(cu, createLocation);
+            mod = switch (where) {
+            case AFTER -> Modification.insertLineAfter(node, newNode);
+            case INSIDE ->
+                Modification.insertAtEndOfBlock(node, newNode);
+            case BEFORE -> Modification.insertLineBefore(node, newNode);
+            };
+        } else {
+            mod = Modification.replace(stmt, newNode);
+        }
+        MarkerIndex.of(cu).update(stmt, newNode.asExpressionStmt());
+        return mod;
+    }
+
+    /**
+     * Same as {@link Editor#modifyClass(File, Function)} but the parsed unit is
+     * taken from the {@link CompilationUnitCache} and the modified unit is
+     * stored back in the cache once written.
+     */
+    @Override
+    public int modifyClass(File f, Function<CompilationUnit, List<Modification>> modifier) {
+        Set<String> commands = new LinkedHashSet<>();
+        editCommands.set(commands);
+        try {
+            long start = System.nanoTime();
+            CompilationUnitCache.Snapshot snapshot = compilationUnitCache.get(f);
+            LineOffsetIndex offsets = lineOffsets.get(f);
+            if (offsets != null && snapshot.compilationUnit().containsData(PARSED_REVISION)
+                    && !offsets.isKept(snapshot.compilationUnit().getData(PARSED_REVISION))) {
+                // the lines of the unit can no longer be mapped to the tracked locations
+                compilationUnitCache.invalidate(f);
+                snapshot = compilationUnitCache.get(f);
+            }
+            long parseNanos = System.nanoTime() - start;
+            CompilationUnit cu = snapshot.compilationUnit();
+            if (!cu.containsData(PARSED_REVISION)) {
+                synchronized (lineOffsets) {
+                    cu.setData(PARSED_REVISION, revision);
+                }
+            }
+            try {
+                List<Modification> mods = modifier.apply(cu);
+                start = System.nanoTime();
+                // applied in the order they were created and not sorted by
+                // their position: an edit of the cycle can replace a statement
+                // inserted by an earlier edit, which has no range yet
+                int sourceOffset = 0;
+                for (Modification mod : mods) {
+                    mod.apply();
+                    sourceOffset += mod.sourceOffset();
+                }
+                String newSource = LexicalPreservingPrinter.print(cu);
+                if (newSource.equals(snapshot.source())) {
+                    throw new AccessibilityCheckerException("Unable to edit file");
+                }
+                Files.writeString(f.toPath(), newSource, StandardCharsets.UTF_8);
+                compilationUnitCache.update(f, newSource, cu);
+                addRevision(f, cu, snapshot.source(), newSource);
+                long writeNanos = System.nanoTime() - start;
+                if (commands.isEmpty()) {
+                    commands.add(metrics.getCurrentCommand());
+                }
+                for (String command : commands) {
+                    metrics.record(command, CommandMetrics.Phase.PARSE, parseNanos);
+                    metrics.record(command, CommandMetrics.Phase.WRITE, writeNanos);
+                }
+                return sourceOffset;
+            } catch (RuntimeException | IOException e) {
+                // the unit might have been partially modified
+                compilationUnitCache.invalidate(f);
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new AccessibilityCheckerException(e);
+        } finally {
+            editCommands.remove();
+        }
+    }
+
+    /**
+     * Uses the {@link LineNumberIndex} of the unit instead of a full traversal.
+     * It's also used by {@link #findLocalVariableOrField(CompilationUnit, int)}.
+     */
+    @Override
+    protected Statement findStatement(CompilationUnit cu, int lineNumber) {
+        return LineNumberIndex.of(cu).findStatement(lineNumber);
+    }
+
+    /**
+     * Finds where the component was created and the revision of the source
+     * files its line refers to. Must be called while holding the session lock.
+     */
+    protected TrackedLocation getTrackedLocation(Component c) {
+        synchronized (pendingRefreshes) {
+            refreshTrackedLocations();
+            return new TrackedLocation(getCreateLocation(c), trackedRevision);
+        }
+    }
+
+    /**
+     * Maps a tracked location to the line of the parsed unit. A unit kept in
+     * the {@link CompilationUnitCache} after an edit has the positions of the
+     * source it was parsed from, not the ones of the current source.
+     *
+     * @param cu the unit parsed by {@link #modifyClass(File, Function)}
+     * @param sourceFile the file of the unit
+     * @param createLocation the tracked location
+     * @return the location with the line number of the unit
+     */
+    protected ComponentTracker.Location rebase(CompilationUnit cu, File sourceFile, TrackedLocation createLocation) {
+        ComponentTracker.Location location = createLocation.location();
+        LineOffsetIndex offsets = lineOffsets.get(sourceFile);
+        if (offsets == null || !cu.containsData(PARSED_REVISION)) {
+            return location;
+        }
+        int lineNumber = offsets.rebase(location.lineNumber(), createLocation.revision(),
+                cu.getData(PARSED_REVISION));
+        if (lineNumber == location.lineNumber()) {
+            return location;
+        }
+        return new ComponentTracker.Location(location.className(), location.filename(),
+                location.methodName(), lineNumber);
+    }
+
+    /**
+     * Records the lines changed by a write in a new revision. The locations of
+     * the {@link ComponentTracker} are moved by
+     * {@link #refreshTrackedLocations()}.
+     */
+    private void addRevision(File sourceFile, CompilationUnit cu, String before, String after) {
+        List<LineOffsetIndex.Change> changes = LineOffsetIndex.diff(before, after);
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<String> classNames = getClassNames(cu);
+        synchronized (lineOffsets) {
+            revision++;
+            lineOffsets.computeIfAbsent(sourceFile, f -> new LineOffsetIndex()).add(revision, changes);
+            synchronized (pendingRefreshes) {
+                pendingRefreshes.addLast(new TrackerRefresh(revision, sourceFile.getName(), classNames, changes));
+            }
+        }
+    }
+
+    /**
+     * Moves the locations tracked in the files written since the last refresh,
+     * one refresh per write. Must be called while holding the session lock:
+     * the tracker iterates its locations without locking them, so no component
+     * may be created meanwhile.
+     */
+    protected void refreshTrackedLocations() {
+        synchronized (pendingRefreshes) {
+            TrackerRefresh refresh;
+            while ((refresh = pendingRefreshes.pollFirst()) != null) {
+                // from the last change, so the lines of the previous changes are not moved yet
+                for (int i = refresh.changes().size() - 1; i >= 0; i--) {
+                    LineOffsetIndex.Change change = refresh.changes().get(i);
+                    for (String className : refresh.classNames()) {
+                        ComponentTracker.refreshLocation(new ComponentTracker.Location(className,
+                                refresh.fileName(), null, change.lineNumber()), change.delta());
+                    }
+                }
+                trackedRevision = refresh.revision();
+            }
+        }
+    }
+
+    /**
+     * @return the binary names of the classes declared in the unit
+     */
+    private static List<String> getClassNames(CompilationUnit cu) {
+        String packagePrefix = cu.getPackageDeclaration().map(p -> p.getNameAsString() + ".").orElse("");
+        List<String> classNames = new ArrayList<>();
+        for (TypeDeclaration<?> type : cu.getTypes()) {
+            addClassNames(type, packagePrefix + type.getNameAsString(), classNames);
+        }
+        return classNames;
+    }
 
-        if (sourceOffset != 0) {
-            ComponentTracker.refreshLocation(createLocation, sourceOffset);
+    private static void addClassNames(TypeDeclaration<?> type, String className, List<String> classNames) {
+        classNames.add(className);
+        for (BodyDeclaration<?> member : type.getMembers()) {
+            if (member instanceof TypeDeclaration<?> nested) {
+                addClassNames(nested, className + "$" + nested.getNameAsString(), classNames);
+            }
         }
     }
 
+    public CommandMetrics getMetrics() {
+        return metrics;
+    }
+
+    protected CompilationUnitCache getCompilationUnitCache() {
+        return compilationUnitCache;
+    }
+
     protected ComponentTracker.Location getCreateLocation(Component c) {
-        ComponentTracker.Location location = ComponentTracker.findCreate(c);
+        ComponentTracker.Location location = metrics.measure(CommandMetrics.Phase.TRACKER_RESOLUTION,
+                () -> findCreateLocation(c));
         if (location == null) {
             throw new AccessibilityCheckerException(
                     "Unable to find the location where the component "
@@ -291,16 +749,56 @@ private void runAsAccess(DevToolsInterface devToolsInterface, Consumer<VaadinSes
         return location;
     }
 
+    /**
+     * @return the location where the component was created, null if it was
+     *         not tracked
+     */
+    protected ComponentTracker.Location findCreateLocation(Component c) {
+        return ComponentTracker.findCreate(c);
+    }
+
     protected VaadinSession getSession() {
         return VaadinSession.getCurrent();
     }
 
-    protected File getSourceFolder(ComponentTracker.Location location) {
-        Path javaSourceFolder = ApplicationConfiguration.get(context)
-                .getJavaSourceFolder().toPath();
-        String[] splitted = location.className().split("\\.");
-        return Path.of(javaSourceFolder.toString(),
-                Arrays.copyOf(splitted, splitted.length - 1)).toFile();
+    protected synchronized SourceFileIndex getSourceFileIndex() {
+        if (sourceFileIndex == null) {
+            sourceFileIndex = new SourceFileIndex(getSourceRoots());
+            sourceFileIndex.start();
+        }
+        return sourceFileIndex;
+    }
+
+    /**
+     * Stops the source edit queue and the watcher of the source files.
+     */
+    @Override
+    public void close() throws IOException {
+        sourceEditQueue.close();
+        synchronized (this) {
+            if (sourceFileIndex != null) {
+                sourceFileIndex.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the Java source folder of the application, the source folders of
+     * the other modules of the build and the folders set with the
+     * {@value #SOURCE_ROOTS_PROPERTY} property.
+     */
+    protected List<Path> getSourceRoots() {
+        ApplicationConfiguration configuration = ApplicationConfiguration.get(context);
+        Set<Path> roots = new LinkedHashSet<>();
+        roots.add(configuration.getJavaSourceFolder().toPath());
+        roots.addAll(SourceFileIndex.findModuleSourceRoots(configuration.getProjectFolder().toPath()));
+        String sourceRoots = configuration.getStringProperty(SOURCE_ROOTS_PROPERTY, "");
+        for (String sourceRoot : sourceRoots.split(File.pathSeparator)) {
+            if (!sourceRoot.isBlank()) {
+                roots.add(Path.of(sourceRoot.trim()));
+            }
+        }
+        return new ArrayList<>(roots);
     }
 
     protected Statement createAddStatement(SimpleName scope,
@@ -325,14 +823,22 @@ private void runAsAccess(DevToolsInterface devToolsInterface, Consumer<VaadinSes
     }
 
     protected File getSourceFile(ComponentTracker.Location createLocation) {
-        File sourceFolder = getSourceFolder(createLocation);
-        return new File(sourceFolder, createLocation.filename());
+        return getSourceFileIndex().find(createLocation.className(), createLocation.filename());
+    }
+
+    /**
+     * @deprecated the file may be in another source root than the one of its
+     *             package, use {@link #getSourceFile(ComponentTracker.Location)}
+     */
+    @Deprecated
+    protected File getSourceFolder(ComponentTracker.Location location) {
+        return getSourceFile(location).getParentFile();
     }
 
     protected Component getComponent(VaadinSession session, int uiId,
                                      int nodeId) {
-        Element element = session.findElement(uiId, nodeId);
-        Optional<Component> c = element.getComponent();
+        Optional<Component> c = metrics.measure(CommandMetrics.Phase.COMPONENT_LOOKUP,
+                () -> session.findElement(uiId, nodeId).getComponent());
         if (!c.isPresent()) {
             throw new AccessibilityCheckerException(
                     "Only component locations are tracked. The given node id refers to an element and not a component.");
@@ -342,16 +848,25 @@ private void runAsAccess(DevToolsInterface devToolsInterface, Consumer<VaadinSes
 
     protected ExpressionStmt findStmt(CompilationUnit cu,
                                       Component component, GenericStringVisitor visitor) {
-        ComponentTracker.Location createLocation = getCreateLocation(component);
+        return findStmt(cu, getCreateLocation(component), visitor);
+    }
+
+    protected ExpressionStmt findStmt(CompilationUnit cu,
+            ComponentTracker.Location createLocation, GenericStringVisitor visitor) {
         SimpleName scope = findLocalVariableOrField(cu,
                 createLocation.lineNumber());
-        return cu.accept(visitor,
+        return MarkerIndex.of(cu).find(visitor,
                 scope != null ? scope.getIdentifier() : null);
     }
 
     protected Where findModificationWhere(CompilationUnit cu,
             Component component) {
-        Node node = findNode(cu, component);
+        return findModificationWhere(cu, getCreateLocation(component));
+    }
+
+    protected Where findModificationWhere(CompilationUnit cu,
+            ComponentTracker.Location createLocation) {
+        Node node = findNode(cu, createLocation);
         if (node instanceof NodeWithBlockStmt<?>) {
             return Where.INSIDE;
         }
@@ -364,9 +879,11 @@ private void runAsAccess(DevToolsInterface devToolsInterface, Consumer<VaadinSes
     }
 
     protected Node findNode(CompilationUnit cu, Component component) {
-        ComponentTracker.Location createLocation = getCreateLocation(component);
-        Node node = cu.accept(new LineNumberVisitor(),
-                createLocation.lineNumber());
+        return findNode(cu, getCreateLocation(component));
+    }
+
+    protected Node findNode(CompilationUnit cu, ComponentTracker.Location createLocation) {
+        Node node = LineNumberIndex.of(cu).findNode(createLocation.lineNumber());
         if (node == null) {
             throw new AccessibilityCheckerException("Cannot find component.");
         }
@@ -385,4 +902,43 @@ private void runAsAccess(DevToolsInterface devToolsInterface, Consumer<VaadinSes
     public static interface SuccessHandler {
         void sendSuccess(DevToolsInterface devToolsInterface);
     }
+
+    public static interface FixResultHandler {
+        void sendResults(DevToolsInterface devToolsInterface, List<AccessibilityFix.Result> results);
+    }
+
+    /**
+     * Edit of a source file resolved while holding the session lock.
+     *
+     * @param sourceFile the file to modify
+     * @param modifier creates the modifications of the parsed file
+     */
+    protected record SourceEdit(File sourceFile, Function<CompilationUnit, List<Modification>> modifier) {
+    }
+
+    /**
+     * Location tracked by the {@link ComponentTracker}.
+     *
+     * @param location the tracked location
+     * @param revision revision of the source files when the location was
+     *            resolved, the line of the location is the line of that
+     *            revision
+     */
+    protected record TrackedLocation(ComponentTracker.Location location, long revision) {
+    }
+
+    /**
+     * Lines changed by a write, to apply to the locations tracked in the file.
+     *
+     * @param fileName the name of the written file
+     * @param classNames the classes declared in the file
+     */
+    private record TrackerRefresh(long revision, String fileName, List<String> classNames, List<LineOffsetIndex.Change> changes) {
+    }
+
+    private record LocatedFix(int index, AccessibilityFix fix, List<Integer> nodeIds) {
+    }
+
+    private record FixKey(File sourceFile, TrackedLocation createLocation, AccessibilityFix.Type type) {
+    }
 }
@@ -0,0 +1,256 @@
+package org.vaadin.addons.accessibility;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Histograms of the durations of the phases of each command of the dev tools,
+ * to find where the time of a slow fix goes.
+ * <p>
+ * The commands running with {@link #access(VaadinSession, String, Command)}
+ * are the current command of the thread, so the phases measured inside them
+ * are recorded for that command without passing it down.
+ */
+public class CommandMetrics implements CommandMetricsMXBean {
+
+    public static final String OBJECT_NAME = "org.vaadin.addons.accessibility:type=CommandMetrics";
+    /** command of the phases measured outside a command **/
+    public static final String NO_COMMAND = "other";
+    /** holding the session lock longer freezes the UI, it's logged as a warning **/
+    public static final long SLOW_LOCK_MILLIS = 100;
+
+    public enum Phase {
+        /** finding the component of a node **/
+        COMPONENT_LOOKUP("component-lookup"),
+        /** finding where a component was created and its source file **/
+        TRACKER_RESOLUTION("tracker-resolution"),
+        /** reading and parsing the source file, or taking it from the cache **/
+        PARSE("parse"),
+        /** finding the statements to modify in the parsed file **/
+        TRAVERSAL("traversal"),
+        /** printing and writing the modified source **/
+        WRITE("write"),
+        /** holding the session lock **/
+        SESSION_LOCK("session-lock");
+
+        private final String id;
+
+        Phase(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+    }
+
+    /** the metrics registered as {@value #OBJECT_NAME}, the last plugin created replaces the previous one **/
+    private static CommandMetrics registered;
+
+    private final Map<String, LatencyHistogram[]> histograms = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> currentCommand = new ThreadLocal<>();
+
+    public void record(String command, Phase phase, long nanos) {
+        LatencyHistogram[] phases = histograms.computeIfAbsent(command, key -> {
+            LatencyHistogram[] created = new LatencyHistogram[Phase.values().length];
+            for (int i = 0; i < created.length; i++) {
+                created[i] = new LatencyHistogram();
+            }
+            return created;
+        });
+        phases[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Records the phase for the current command of the thread.
+     */
+    public void record(Phase phase, long nanos) {
+        record(getCurrentCommand(), phase, nanos);
+    }
+
+    /**
+     * Measures the phase for the current command of the thread.
+     */
+    public <T> T measure(Phase phase, Supplier<T> supplier) {
+        long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @return the command running in the thread, {@value #NO_COMMAND} if none
+     */
+    public String getCurrentCommand() {
+        String command = currentCommand.get();
+        return command != null ? command : NO_COMMAND;
+    }
+
+    /**
+     * Runs the command with {@link VaadinSession#access(Command)} as the
+     * current command of the thread and records how long the session lock
+     * was held in the {@link Phase#SESSION_LOCK} histogram of the command. A
+     * lock held for more than {@value #SLOW_LOCK_MILLIS} ms is also logged as
+     * a warning.
+     */
+    public Future<Void> access(VaadinSession session, String command, Command task) {
+        return session.access(() -> {
+            String previous = currentCommand.get();
+            currentCommand.set(command);
+            long start = System.nanoTime();
+            try {
+                task.execute();
+            } finally {
+                long nanos = System.nanoTime() - start;
+                record(command, Phase.SESSION_LOCK, nanos);
+                currentCommand.set(previous);
+                if (nanos > TimeUnit.MILLISECONDS.toNanos(SLOW_LOCK_MILLIS)) {
+                    getLogger().warn("{} held the session lock for {} ms", command,
+                            TimeUnit.NANOSECONDS.toMillis(nanos));
+                } else {
+                    getLogger().debug("{} held the session lock for {} µs", command,
+                            TimeUnit.NANOSECONDS.toMicros(nanos));
+                }
+            }
+        });
+    }
+
+    /**
+     * Calls the consumer with the snapshot of each phase measured at least
+     * once, sorted by command and phase.
+     */
+    public void forEachSnapshot(BiConsumer<String, Map<Phase, LatencyHistogram.Snapshot>> consumer) {
+        new TreeMap<>(histograms).forEach((command, phases) -> {
+            Map<Phase, LatencyHistogram.Snapshot> snapshots = new LinkedHashMap<>();
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram.Snapshot snapshot = phases[phase.ordinal()].snapshot();
+                if (snapshot.count() > 0) {
+                    snapshots.put(phase, snapshot);
+                }
+            }
+            consumer.accept(command, snapshots);
+        });
+    }
+
+    @Override
+    public Map<String, Map<String, Long>> getSummaries() {
+        Map<String, Map<String, Long>> summaries = new TreeMap<>();
+        forEachSnapshot((command, snapshots) -> snapshots.forEach((phase, snapshot) -> {
+            Map<String, Long> summary = new LinkedHashMap<>();
+            summary.put("count", snapshot.count());
+            summary.put("totalMicros", TimeUnit.NANOSECONDS.toMicros(snapshot.totalNanos()));
+            summary.put("p50Micros", snapshot.getPercentileMicros(50));
+            summary.put("p90Micros", snapshot.getPercentileMicros(90));
+            summary.put("p99Micros", snapshot.getPercentileMicros(99));
+            summary.put("maxMicros", TimeUnit.NANOSECONDS.toMicros(snapshot.maxNanos()));
+            summaries.put(command + "/" + phase.getId(), summary);
+        }));
+        return summaries;
+    }
+
+    @Override
+    public Map<String, long[]> getHistograms() {
+        Map<String, long[]> counts = new TreeMap<>();
+        forEachSnapshot((command, snapshots) -> snapshots.forEach(
+                (phase, snapshot) -> counts.put(command + "/" + phase.getId(), snapshot.counts())));
+        return counts;
+    }
+
+    @Override
+    public long[] getBucketUpperBoundsMicros() {
+        long[] bounds = new long[LatencyHistogram.BUCKETS];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = LatencyHistogram.getUpperBoundMicros(i);
+        }
+        return bounds;
+    }
+
+    @Override
+    public void reset() {
+        histograms.clear();
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server as
+     * {@value #OBJECT_NAME}, replacing the ones of a previous instance of the
+     * plugin.
+     */
+    public void registerMBean() {
+        synchronized (CommandMetrics.class) {
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = new ObjectName(OBJECT_NAME);
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+                server.registerMBean(this, name);
+                registered = this;
+            } catch (JMException e) {
+                getLogger().warn("Unable to register {}", OBJECT_NAME, e);
+            }
+        }
+    }
+
+    /**
+     * Unregisters the metrics from the platform MBean server, unless they
+     * were already replaced by the ones of another instance of the plugin.
+     */
+    public void unregisterMBean() {
+        synchronized (CommandMetrics.class) {
+            if (registered != this) {
+                return;
+            }
+            registered = null;
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = new ObjectName(OBJECT_NAME);
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+            } catch (JMException e) {
+                getLogger().warn("Unable to unregister {}", OBJECT_NAME, e);
+            }
+        }
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(CommandMetrics.class);
+    }
+}
@@ -0,0 +1,51 @@
+package org.vaadin.addons.accessibility;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Map;
+
+/**
+ * Durations of the phases of the commands of the dev tools, see
+ * {@link CommandMetrics}. The keys are {@code <command>/<phase>}.
+ */
+public interface CommandMetricsMXBean {
+
+    /**
+     * @return count, total, percentiles and maximum in µs of each phase
+     */
+    Map<String, Map<String, Long>> getSummaries();
+
+    /**
+     * @return the counts of the buckets of each phase, see
+     *         {@link #getBucketUpperBoundsMicros()}
+     */
+    Map<String, long[]> getHistograms();
+
+    /**
+     * @return the upper bounds in µs of the buckets of the histograms
+     */
+    long[] getBucketUpperBoundsMicros();
+
+    /**
+     * Clears all the histograms.
+     */
+    void reset();
+}
@@ -0,0 +1,176 @@
+package org.vaadin.addons.accessibility;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.javaparser.ast.CompilationUnit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of parsed source files.
+ * <p>
+ * An entry is reused as long as the file on disk has the same modification
+ * time and size, or the same content hash if only the timestamp changed.
+ * The unit modified and written by the plugin itself is stored with
+ * {@link #update(File, String, CompilationUnit)} so the file is neither read
+ * back nor parsed again.
+ */
+public class CompilationUnitCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 32;
+
+    private final Function<String, CompilationUnit> parser;
+    private final Map<Path, Entry> entries;
+
+    public CompilationUnitCache(Function<String, CompilationUnit> parser) {
+        this(DEFAULT_MAX_ENTRIES, parser);
+    }
+
+    public CompilationUnitCache(int maxEntries, Function<String, CompilationUnit> parser) {
+        this.parser = parser;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the source and the parsed unit of the file, parsing it only if it
+     * changed since the last call.
+     * <p>
+     * The returned unit is owned by the caller until {@link #update(File, String, CompilationUnit)}
+     * or {@link #invalidate(File)} is called for the same file.
+     *
+     * @param file the Java source file
+     * @return the current source and its compilation unit
+     * @throws IOException if the file cannot be read
+     */
+    public Snapshot get(File file) throws IOException {
+        Path path = toKey(file);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        long size = Files.size(path);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(path);
+        }
+        if (entry != null && entry.lastModified == lastModified && entry.size == size) {
+            return entry.snapshot(parser);
+        }
+        String source = Files.readString(path, StandardCharsets.UTF_8);
+        byte[] hash = hash(source);
+        if (entry != null && Arrays.equals(entry.hash, hash)) {
+            // only the timestamp changed
+            entry.lastModified = lastModified;
+            entry.size = size;
+            return entry.snapshot(parser);
+        }
+        Entry newEntry = new Entry(source, hash, lastModified, size);
+        synchronized (entries) {
+            entries.put(path, newEntry);
+        }
+        return newEntry.snapshot(parser);
+    }
+
+    /**
+     * Stores the unit that has just been modified and written to the file.
+     * <p>
+     * The unit keeps the positions of the source it was parsed from, the nodes
+     * added since have no range. Its lexical preserving printer state is kept
+     * so the unit can be modified and printed again.
+     *
+     * @param file the Java source file
+     * @param source the source written to the file
+     * @param compilationUnit the modified unit the source was printed from
+     * @throws IOException if the file attributes cannot be read
+     */
+    public void update(File file, String source, CompilationUnit compilationUnit) throws IOException {
+        Path path = toKey(file);
+        Entry entry = new Entry(source, hash(source),
+                Files.getLastModifiedTime(path).toMillis(), Files.size(path));
+        entry.compilationUnit = compilationUnit;
+        synchronized (entries) {
+            entries.put(path, entry);
+        }
+    }
+
+    public void invalidate(File file) {
+        Path path = toKey(file);
+        synchronized (entries) {
+            entries.remove(path);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private static Path toKey(File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    private static byte[] hash(String source) {
+        try {
+            return MessageDigest.getInstance("SHA-256")
+                    .digest(source.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new AccessibilityCheckerException(e);
+        }
+    }
+
+    public record Snapshot(String source, CompilationUnit compilationUnit) {
+    }
+
+    private static class Entry {
+        private final String source;
+        private final byte[] hash;
+        private volatile long lastModified;
+        private volatile long size;
+        private CompilationUnit compilationUnit;
+
+        private Entry(String source, byte[] hash, long lastModified, long size) {
+            this.source = source;
+            this.hash = hash;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        private synchronized Snapshot snapshot(Function<String, CompilationUnit> parser) {
+            if (compilationUnit == null) {
+                compilationUnit = parser.apply(source);
+            }
+            return new Snapshot(source, compilationUnit);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.vaadin.addons.accessibility;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonException;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+import elemental.json.JsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Rules ignored by the checker in the project, read from the
+ * {@value #FILE_NAME} file of the project folder:
+ * <pre>
+ * {
+ *   "ignoredRules": [
+ *     {"ruleId": "aria_child_valid", "htmlTag": "my-list"},
+ *     {"htmlTag": "my-legacy-widget", "lastTag": false}
+ *   ]
+ * }
+ * </pre>
+ * The fields of a rule are the same as the rules ignored by default in the
+ * client. A {@link WatchService} reloads the file when it changes.
+ */
+public class IgnoredRulesConfiguration implements Closeable {
+
+    public static final String FILE_NAME = "accessibility-checker.json";
+
+    private final Path file;
+    private final Consumer<JsonArray> changeListener;
+    private volatile JsonArray ignoredRules = Json.createArray();
+    private volatile WatchService watchService;
+
+    /**
+     * @param projectFolder the project folder of the application
+     * @param changeListener called with the new rules when the file changes
+     */
+    public IgnoredRulesConfiguration(Path projectFolder, Consumer<JsonArray> changeListener) {
+        this.file = projectFolder.toAbsolutePath().normalize().resolve(FILE_NAME);
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Reads the file and watches it in a background thread.
+     */
+    public void start() {
+        ignoredRules = read();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        } catch (IOException e) {
+            getLogger().warn("Unable to watch {}", file, e);
+            return;
+        }
+        Thread thread = new Thread(this::watch, "accessibility-checker-configuration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return the ignored rules, empty if the file doesn't exist
+     */
+    public JsonArray getIgnoredRules() {
+        return ignoredRules;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = key.pollEvents().stream().anyMatch(event -> event.kind() == OVERFLOW
+                        || file.getFileName().equals(event.context()));
+                JsonArray rules = changed ? read() : ignoredRules;
+                // a single save can give several events
+                if (!rules.toJson().equals(ignoredRules.toJson())) {
+                    ignoredRules = rules;
+                    changeListener.accept(rules);
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // closed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads the valid rules of the file, the invalid ones are logged and
+     * skipped. The previous rules are kept if the file can't be parsed, for
+     * example while it's edited.
+     */
+    private JsonArray read() {
+        if (!Files.exists(file)) {
+            return Json.createArray();
+        }
+        JsonArray rules = Json.createArray();
+        try {
+            JsonObject configuration = Json.parse(Files.readString(file, StandardCharsets.UTF_8));
+            if (!configuration.hasKey("ignoredRules")) {
+                return rules;
+            }
+            JsonArray array = configuration.getArray("ignoredRules");
+            for (int i = 0; i < array.length(); i++) {
+                JsonValue rule = array.get(i);
+                if (isValid(rule)) {
+                    rules.set(rules.length(), rule);
+                } else {
+                    getLogger().warn("Invalid ignored rule {} in {}", rule.toJson(), file);
+                }
+            }
+        } catch (IOException | JsonException | ClassCastException e) {
+            getLogger().warn("Unable to read the ignored rules of {}", file, e);
+            return ignoredRules;
+        }
+        getLogger().debug("{} ignored rules read from {}", rules.length(), file);
+        return rules;
+    }
+
+    private static boolean isValid(JsonValue value) {
+        if (value.getType() != JsonType.OBJECT) {
+            return false;
+        }
+        JsonObject rule = (JsonObject) value;
+        return (rule.hasKey("ruleId") || rule.hasKey("htmlTag"))
+                && hasType(rule, "ruleId", JsonType.STRING)
+                && hasType(rule, "htmlTag", JsonType.STRING)
+                && hasType(rule, "lastTag", JsonType.BOOLEAN)
+                && (!rule.hasKey("lastTag") || rule.hasKey("htmlTag"));
+    }
+
+    private static boolean hasType(JsonObject rule, String key, JsonType type) {
+        return !rule.hasKey(key) || rule.get(key).getType() == type;
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(IgnoredRulesConfiguration.class);
+    }
+}
@@ -0,0 +1,99 @@
+package org.vaadin.addons.accessibility;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram of durations with exponential buckets: the bucket
+ * {@code i} counts the durations below {@code 2^i} µs, the last one all the
+ * longer durations.
+ */
+public class LatencyHistogram {
+
+    public static final int BUCKETS = 24;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos));
+        // the number of bits of the duration is the first bucket whose bound is above it
+        counts.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public Snapshot snapshot() {
+        long[] snapshotCounts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshotCounts[i] = counts.get(i);
+        }
+        return new Snapshot(snapshotCounts, totalNanos.sum(), maxNanos.get());
+    }
+
+    /**
+     * @return the upper bound of the bucket in µs, {@link Long#MAX_VALUE} for
+     *         the last one
+     */
+    public static long getUpperBoundMicros(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    /**
+     * Counts of a histogram at a point in time. The counts of the buckets and
+     * the totals are read one after the other, they can be slightly out of
+     * sync while durations are recorded.
+     */
+    public record Snapshot(long[] counts, long totalNanos, long maxNanos) {
+
+        public long count() {
+            long count = 0;
+            for (long bucketCount : counts) {
+                count += bucketCount;
+            }
+            return count;
+        }
+
+        /**
+         * @param percentile between 0 and 100
+         * @return the upper bound in µs of the bucket of the percentile, at
+         *         most the maximum duration, 0 if nothing was recorded
+         */
+        public long getPercentileMicros(double percentile) {
+            long count = count();
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(count * percentile / 100);
+            long seen = 0;
+            int bucket = 0;
+            while (bucket < counts.length - 1 && (seen += counts[bucket]) < rank) {
+                bucket++;
+            }
+            return Math.min(getUpperBoundMicros(bucket), TimeUnit.NANOSECONDS.toMicros(maxNanos));
+        }
+    }
+}
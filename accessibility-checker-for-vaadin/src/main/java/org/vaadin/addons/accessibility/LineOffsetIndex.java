@@ -0,0 +1,294 @@
+package org.vaadin.addons.accessibility;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lines inserted and removed in a source file by the plugin, by revision.
+ * <p>
+ * Each write of the file is a revision. The lines of a revision are found by
+ * comparing the written source with the previous one, so they are the real
+ * lines of the modifications, including the added imports. A line of the file
+ * at one revision is mapped to the same line at another revision, for example
+ * from the revision a component location was resolved at to the revision a
+ * cached compilation unit was parsed at.
+ * <p>
+ * The changes of a revision are kept sorted with the sums of their deltas, so
+ * a line is mapped through a revision with a binary search, in O(log c) for c
+ * changed lines, and through r revisions in O(r log c). The revisions can't
+ * be merged into a single tree of deltas since the lines of each revision are
+ * numbered in the source written by the previous one. Only the last
+ * {@value #MAX_REVISIONS} revisions are kept.
+ */
+public class LineOffsetIndex {
+
+    public static final int MAX_REVISIONS = 64;
+    /** above this number of changed lines, the changed block is recorded as one change **/
+    private static final int MAX_DIFF_EDITS = 512;
+
+    /** the oldest first **/
+    private final List<Revision> revisions = new ArrayList<>();
+    /** revisions up to this one are no longer kept **/
+    private long removedRevision = -1;
+
+    /**
+     * Records the lines changed by a write of the file.
+     *
+     * @param revision revision of the write, greater than the previous ones
+     * @param changes the changes of the write, see {@link #diff(String, String)}
+     */
+    public synchronized void add(long revision, List<Change> changes) {
+        if (!revisions.isEmpty() && revisions.get(revisions.size() - 1).revision() >= revision) {
+            throw new IllegalArgumentException("Revision " + revision + " is not after the last revision");
+        }
+        revisions.add(Revision.of(revision, changes));
+        if (revisions.size() > MAX_REVISIONS) {
+            removedRevision = revisions.remove(0).revision();
+        }
+    }
+
+    /**
+     * @return whether a line of the file at the revision can still be mapped
+     *         to the other revisions
+     */
+    public synchronized boolean isKept(long revision) {
+        return revision >= removedRevision;
+    }
+
+    /**
+     * Maps a line of the file at a revision to the same line at another one.
+     * A line inserted after the first revision is mapped to the line before
+     * it.
+     *
+     * @param lineNumber line of the file at the first revision
+     * @param fromRevision revision of the line
+     * @param toRevision revision to map the line to
+     * @return the line at the second revision
+     * @throws AccessibilityCheckerException if the revisions in between are
+     *             no longer kept
+     */
+    public synchronized int rebase(int lineNumber, long fromRevision, long toRevision) {
+        if (Math.min(fromRevision, toRevision) < removedRevision) {
+            throw new AccessibilityCheckerException(
+                    "The source file has been modified too many times since the component was created, reload the view");
+        }
+        int line = lineNumber;
+        if (fromRevision < toRevision) {
+            for (int i = firstAfter(fromRevision); i < revisions.size()
+                    && revisions.get(i).revision() <= toRevision; i++) {
+                line = revisions.get(i).forward(line);
+            }
+        } else if (fromRevision > toRevision) {
+            for (int i = firstAfter(fromRevision) - 1; i >= 0 && revisions.get(i).revision() > toRevision; i--) {
+                line = revisions.get(i).backward(line);
+            }
+        }
+        return line;
+    }
+
+    /**
+     * @return the index of the first kept revision after the given one
+     */
+    private int firstAfter(long revision) {
+        int low = 0;
+        int high = revisions.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (revisions.get(middle).revision() <= revision) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares two versions of a source file line by line.
+     *
+     * @param before the source before the write
+     * @param after the written source
+     * @return the changes sorted by line: the lines after
+     *         {@link Change#lineNumber()} in the first version are moved by
+     *         {@link Change#delta()} lines in the second one
+     */
+    public static List<Change> diff(String before, String after) {
+        String[] a = before.split("\n", -1);
+        String[] b = after.split("\n", -1);
+        int start = 0;
+        while (start < a.length && start < b.length && a[start].equals(b[start])) {
+            start++;
+        }
+        int endA = a.length;
+        int endB = b.length;
+        while (endA > start && endB > start && a[endA - 1].equals(b[endB - 1])) {
+            endA--;
+            endB--;
+        }
+        if (endA == start && endB == start) {
+            return List.of();
+        }
+        int[] deltas = diff(Arrays.copyOfRange(a, start, endA), Arrays.copyOfRange(b, start, endB));
+        if (deltas == null) {
+            // too many changes, the changed block is replaced as a whole
+            return List.of(new Change(endA, (endB - start) - (endA - start)));
+        }
+        List<Change> changes = new ArrayList<>();
+        for (int i = 0; i < deltas.length; i++) {
+            if (deltas[i] != 0) {
+                changes.add(new Change(start + i, deltas[i]));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Myers' diff of the lines.
+     *
+     * @return the number of lines moved after each line of the first version,
+     *         starting from the line before the first one, null if there are
+     *         more than {@value #MAX_DIFF_EDITS} inserted and removed lines
+     */
+    private static int[] diff(String[] a, String[] b) {
+        int n = a.length;
+        int m = b.length;
+        int max = Math.min(n + m, MAX_DIFF_EDITS);
+        // v[k + max] is the furthest x reached on diagonal k, one copy per edit count
+        List<int[]> trace = new ArrayList<>();
+        int[] v = new int[2 * max + 2];
+        for (int d = 0; d <= max; d++) {
+            trace.add(v.clone());
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && v[k - 1 + max] < v[k + 1 + max])
+                        ? v[k + 1 + max] : v[k - 1 + max] + 1;
+                int y = x - k;
+                while (x < n && y < m && a[x].equals(b[y])) {
+                    x++;
+                    y++;
+                }
+                v[k + max] = x;
+                if (x >= n && y >= m) {
+                    return backtrack(trace, max, n, m);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int[] backtrack(List<int[]> trace, int max, int n, int m) {
+        int[] deltas = new int[n + 1];
+        int x = n;
+        int y = m;
+        for (int d = trace.size() - 1; d > 0; d--) {
+            int[] v = trace.get(d);
+            int k = x - y;
+            int previousK = k == -d || (k != d && v[k - 1 + max] < v[k + 1 + max]) ? k + 1 : k - 1;
+            int previousX = v[previousK + max];
+            int previousY = previousX - previousK;
+            while (x > previousX && y > previousY) {
+                x--;
+                y--;
+            }
+            if (previousK == k + 1) {
+                // line b[previousY] inserted after the line x of a
+                deltas[x]++;
+            } else {
+                // line a[previousX] removed, the lines after it move up
+                deltas[previousX + 1]--;
+            }
+            x = previousX;
+            y = previousY;
+        }
+        return deltas;
+    }
+
+    /**
+     * @param lineNumber line of the source before the write, 0 for the
+     *            beginning of the file
+     * @param delta number of lines inserted after the line, negative if lines
+     *            are removed
+     */
+    public record Change(int lineNumber, int delta) {
+    }
+
+    /**
+     * @param lineNumbers the lines of the changes, sorted
+     * @param offsets the sum of the deltas of the changes before each change,
+     *            and of all the changes at the end
+     * @param ends the last line of each change in the written source, the
+     *            removed lines ending at the line of the change
+     */
+    private record Revision(long revision, int[] lineNumbers, int[] deltas, int[] offsets, int[] ends) {
+
+        private static Revision of(long revision, List<Change> changes) {
+            int size = changes.size();
+            int[] lineNumbers = new int[size];
+            int[] deltas = new int[size];
+            int[] offsets = new int[size + 1];
+            int[] ends = new int[size];
+            for (int i = 0; i < size; i++) {
+                Change change = changes.get(i);
+                lineNumbers[i] = change.lineNumber();
+                deltas[i] = change.delta();
+                offsets[i + 1] = offsets[i] + change.delta();
+                ends[i] = change.lineNumber() + offsets[i] + Math.min(change.delta(), 0);
+            }
+            return new Revision(revision, lineNumbers, deltas, offsets, ends);
+        }
+
+        /**
+         * Maps a line of the source before the write to the written source.
+         */
+        private int forward(int lineNumber) {
+            // the changes before the line move it
+            int index = Arrays.binarySearch(lineNumbers, lineNumber);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return lineNumber + offsets[index];
+        }
+
+        /**
+         * Maps a line of the written source to the source before the write.
+         */
+        private int backward(int lineNumber) {
+            // the first change ending at or after the line, the ends are not decreasing
+            int low = 0;
+            int high = ends.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (ends[middle] < lineNumber) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            if (low > 0 && lineNumber <= lineNumbers[low - 1] + offsets[low - 1] + deltas[low - 1]) {
+                // inserted line
+                return lineNumbers[low - 1];
+            }
+            return lineNumber - offsets[low];
+        }
+    }
+}
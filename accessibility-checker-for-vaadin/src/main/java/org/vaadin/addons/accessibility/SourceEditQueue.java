@@ -0,0 +1,210 @@
+package org.vaadin.addons.accessibility;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.vaadin.base.devserver.editor.Editor.Modification;
+
+import java.io.Closeable;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Queue of the source modifications waiting to be written.
+ * <p>
+ * The modifications submitted for the same file within the coalescing window
+ * are applied with a single read-modify-write cycle, in the order they were
+ * submitted, so the last edit of a statement wins. An edit that fails is
+ * dropped from the cycle, the others are applied to a unit parsed again. A
+ * file is only modified while holding its lock stripe, so two cycles never
+ * interleave on one file, while different files are modified in parallel.
+ */
+public class SourceEditQueue implements Closeable {
+
+    public static final long DEFAULT_COALESCE_MILLIS = 50;
+    private static final int STRIPES = 32;
+
+    private final ClassModifier classModifier;
+    private final long coalesceMillis;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Map<Path, List<PendingEdit>> pending = new HashMap<>();
+    private final ScheduledExecutorService executor;
+
+    public SourceEditQueue(ClassModifier classModifier) {
+        this(classModifier, DEFAULT_COALESCE_MILLIS);
+    }
+
+    public SourceEditQueue(ClassModifier classModifier, long coalesceMillis) {
+        this.classModifier = classModifier;
+        this.coalesceMillis = coalesceMillis;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(
+                Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable,
+                    "accessibility-checker-source-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.setRemoveOnCancelPolicy(true);
+        this.executor = pool;
+    }
+
+    /**
+     * Queues a modification of the file.
+     *
+     * @param file the Java source file
+     * @param modifier creates the modifications of the parsed file
+     * @return the source offset of the modifications once the file is written
+     */
+    public CompletableFuture<Integer> submit(File file,
+            Function<CompilationUnit, List<Modification>> modifier) {
+        Path path = file.toPath().toAbsolutePath().normalize();
+        PendingEdit edit = new PendingEdit(modifier, new CompletableFuture<>());
+        boolean schedule;
+        synchronized (pending) {
+            List<PendingEdit> edits = pending.computeIfAbsent(path, p -> new ArrayList<>());
+            schedule = edits.isEmpty();
+            edits.add(edit);
+        }
+        if (schedule) {
+            try {
+                executor.schedule(() -> drain(path), coalesceMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                failPending(path);
+            }
+        }
+        return edit.result();
+    }
+
+    /**
+     * Stops the threads of the queue, the edits not written yet fail.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        List<Path> paths;
+        synchronized (pending) {
+            paths = new ArrayList<>(pending.keySet());
+        }
+        paths.forEach(this::failPending);
+    }
+
+    private void failPending(Path path) {
+        List<PendingEdit> edits;
+        synchronized (pending) {
+            edits = pending.remove(path);
+        }
+        if (edits != null) {
+            edits.forEach(edit -> edit.result().completeExceptionally(
+                    new AccessibilityCheckerException("The source edit queue is closed")));
+        }
+    }
+
+    private void drain(Path path) {
+        ReentrantLock lock = stripes[Math.floorMod(path.hashCode(), STRIPES)];
+        lock.lock();
+        try {
+            List<PendingEdit> edits;
+            synchronized (pending) {
+                edits = pending.remove(path);
+            }
+            if (edits != null) {
+                write(path.toFile(), edits);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the edits in one cycle. The edits can modify the unit while
+     * creating their modifications, so if one of them fails the cycle is
+     * aborted, the unit is parsed again by the {@link ClassModifier} and the
+     * cycle is started again without the failed edit.
+     */
+    private void write(File file, List<PendingEdit> edits) {
+        List<PendingEdit> remaining = new ArrayList<>(edits);
+        while (!remaining.isEmpty()) {
+            Map<PendingEdit, List<Modification>> applied = new LinkedHashMap<>();
+            try {
+                classModifier.modifyClass(file, cu -> {
+                    List<Modification> modifications = new ArrayList<>();
+                    for (PendingEdit edit : remaining) {
+                        try {
+                            List<Modification> editModifications = edit.modifier().apply(cu);
+                            if (editModifications.isEmpty()) {
+                                throw new AccessibilityCheckerException("Unable to edit file");
+                            }
+                            applied.put(edit, editModifications);
+                            modifications.addAll(editModifications);
+                        } catch (RuntimeException e) {
+                            edit.result().completeExceptionally(e);
+                            throw new FailedEditException(edit);
+                        }
+                    }
+                    return modifications;
+                });
+            } catch (FailedEditException e) {
+                remaining.remove(e.edit);
+                continue;
+            } catch (RuntimeException e) {
+                remaining.forEach(edit -> edit.result().completeExceptionally(e));
+                return;
+            }
+            applied.forEach((edit, modifications) -> edit.result().complete(
+                    modifications.stream().mapToInt(Modification::sourceOffset).sum()));
+            return;
+        }
+    }
+
+    public interface ClassModifier {
+        int modifyClass(File file, Function<CompilationUnit, List<Modification>> modifier);
+    }
+
+    /**
+     * Aborts a cycle when one of its edits fails, the unit it was applied to
+     * must not be written.
+     */
+    private static final class FailedEditException extends RuntimeException {
+        private final transient PendingEdit edit;
+
+        private FailedEditException(PendingEdit edit) {
+            super(null, null, false, false);
+            this.edit = edit;
+        }
+    }
+
+    private record PendingEdit(Function<CompilationUnit, List<Modification>> modifier,
+                               CompletableFuture<Integer> result) {
+    }
+}
@@ -0,0 +1,337 @@
+package org.vaadin.addons.accessibility;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Index of the Java source files of all the source roots by the fully
+ * qualified name of the class named after the file. The name is read from the
+ * package declaration at the top of the file, the files are not parsed. The
+ * other top level classes of a file are found with the file name of the
+ * stack traces.
+ * <p>
+ * The index is built in parallel in the background and a {@link WatchService}
+ * keeps it up to date when files are added, changed or removed.
+ */
+public class SourceFileIndex implements Closeable {
+
+    private static final Set<String> SKIPPED_FOLDERS = Set.of("node_modules", "target", "build", "frontend");
+
+    /** Package declaration at the top of a source file **/
+    private static final Pattern PACKAGE = Pattern.compile("package\\s+([\\w.\\s]+?)\\s*;");
+
+    private final List<Path> roots;
+    private final Map<String, Path> filesByClassName = new ConcurrentHashMap<>();
+    private final Map<Path, String> classNamesByFile = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Path> watchedFolders = new ConcurrentHashMap<>();
+    private final CountDownLatch built = new CountDownLatch(1);
+    private volatile WatchService watchService;
+
+    /**
+     * @param roots the source roots, the first one is used for the classes that
+     *            are not indexed
+     */
+    public SourceFileIndex(List<Path> roots) {
+        this.roots = roots.stream().map(root -> root.toAbsolutePath().normalize()).toList();
+    }
+
+    /**
+     * Builds the index and watches the source roots in a background thread.
+     */
+    public void start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            getLogger().error("Unable to watch the source files", e);
+            built.countDown();
+            return;
+        }
+        Thread thread = new Thread(this::run, "accessibility-checker-source-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the source file of the class. Until the index is built or if the
+     * class is not indexed, the file is resolved from the package of the class
+     * and the file name.
+     *
+     * @param className the binary name of the class, nested classes are in the
+     *            file of their top level class
+     * @param filename the source file name, as in the stack traces
+     * @return the source file
+     */
+    public File find(String className, String filename) {
+        if (built.getCount() == 0) {
+            int nested = className.indexOf('$');
+            Path file = filesByClassName.get(nested < 0 ? className : className.substring(0, nested));
+            if (file == null && filename.endsWith(".java")) {
+                // another top level class of the file
+                int packageEnd = className.lastIndexOf('.');
+                file = filesByClassName.get(className.substring(0, packageEnd + 1)
+                        + filename.substring(0, filename.length() - ".java".length()));
+            }
+            if (file != null) {
+                return file.toFile();
+            }
+        }
+        String[] packagePath = className.split("\\.");
+        packagePath[packagePath.length - 1] = filename;
+        Path relativePath = Path.of("", packagePath);
+        return roots.stream().map(root -> root.resolve(relativePath))
+                .filter(Files::exists).findFirst()
+                .orElse(roots.get(0).resolve(relativePath)).toFile();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Finds the {@code src/main/java} folders of the modules next to the
+     * project folder if it's part of a multi-module build.
+     *
+     * @param projectFolder the project folder of the application
+     * @return the source roots of the sibling modules
+     */
+    public static List<Path> findModuleSourceRoots(Path projectFolder) {
+        Path parent = projectFolder.toAbsolutePath().normalize().getParent();
+        if (parent == null || !(Files.exists(parent.resolve("pom.xml"))
+                || Files.exists(parent.resolve("settings.gradle"))
+                || Files.exists(parent.resolve("settings.gradle.kts")))) {
+            return Collections.emptyList();
+        }
+        Path sourceRoot = Path.of("src", "main", "java");
+        List<Path> sourceRoots = new ArrayList<>();
+        try {
+            Files.walkFileTree(parent, EnumSet.noneOf(FileVisitOption.class), 5, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (dir.endsWith(sourceRoot)) {
+                        sourceRoots.add(dir);
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return isSkipped(dir) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            getLogger().warn("Unable to find the modules of {}", parent, e);
+        }
+        return sourceRoots;
+    }
+
+    private void run() {
+        try {
+            long start = System.nanoTime();
+            build();
+            getLogger().debug("Indexed {} source files in {} ms", classNamesByFile.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            getLogger().error("Unable to index the source files", e);
+            return;
+        } catch (ClosedWatchServiceException e) {
+            // closed while building
+            return;
+        } finally {
+            built.countDown();
+        }
+        try {
+            watch();
+        } catch (ClosedWatchServiceException e) {
+            // closed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void build() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path root : roots) {
+            if (Files.isDirectory(root)) {
+                register(root, files);
+            }
+        }
+        files.parallelStream().forEach(this::index);
+    }
+
+    private void watch() throws InterruptedException {
+        while (true) {
+            WatchKey key = watchService.take();
+            Path folder = watchedFolders.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    rebuild();
+                    break;
+                }
+                if (folder == null) {
+                    continue;
+                }
+                Path path = folder.resolve((Path) event.context());
+                if (event.kind() == ENTRY_DELETE) {
+                    remove(path);
+                } else if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                    List<Path> files = new ArrayList<>();
+                    try {
+                        register(path, files);
+                    } catch (IOException e) {
+                        getLogger().warn("Unable to watch {}", path, e);
+                    }
+                    files.forEach(this::index);
+                } else if (isJavaFile(path)) {
+                    index(path);
+                }
+            }
+            if (!key.reset()) {
+                watchedFolders.remove(key);
+            }
+        }
+    }
+
+    private void rebuild() {
+        watchedFolders.keySet().forEach(WatchKey::cancel);
+        watchedFolders.clear();
+        filesByClassName.clear();
+        classNamesByFile.clear();
+        try {
+            build();
+        } catch (IOException e) {
+            getLogger().error("Unable to index the source files", e);
+        }
+    }
+
+    private void register(Path folder, List<Path> files) throws IOException {
+        Files.walkFileTree(folder, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                watchedFolders.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (isJavaFile(file)) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void index(Path file) {
+        String packageName = readPackage(file);
+        if (packageName == null) {
+            return;
+        }
+        String fileName = file.getFileName().toString();
+        String className = (packageName.isEmpty() ? "" : packageName + ".")
+                + fileName.substring(0, fileName.length() - ".java".length());
+        String previous = classNamesByFile.put(file, className);
+        if (previous != null) {
+            filesByClassName.remove(previous, file);
+        }
+        filesByClassName.put(className, file);
+    }
+
+    private void remove(Path path) {
+        classNamesByFile.keySet().removeIf(file -> {
+            if (!file.startsWith(path)) {
+                return false;
+            }
+            filesByClassName.remove(classNamesByFile.get(file), file);
+            return true;
+        });
+    }
+
+    /**
+     * Reads the package declaration, skipping the comments before it.
+     *
+     * @return the package name, empty for the default package or null if the
+     *         file can't be read
+     */
+    static String readPackage(Path file) {
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            boolean inComment = false;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int i = 0;
+                while (i < line.length()) {
+                    if (inComment) {
+                        int end = line.indexOf("*/", i);
+                        if (end < 0) {
+                            break;
+                        }
+                        inComment = false;
+                        i = end + 2;
+                        continue;
+                    }
+                    String code = line.substring(i).strip();
+                    if (code.isEmpty() || code.startsWith("//")) {
+                        break;
+                    }
+                    if (code.startsWith("/*")) {
+                        inComment = true;
+                        i = line.indexOf("/*", i) + 2;
+                        continue;
+                    }
+                    Matcher matcher = PACKAGE.matcher(code);
+                    return matcher.lookingAt() ? matcher.group(1).replaceAll("\\s", "") : "";
+                }
+            }
+            return "";
+        } catch (IOException | UncheckedIOException e) {
+            getLogger().debug("Unable to read {}", file, e);
+            return null;
+        }
+    }
+
+    private static boolean isJavaFile(Path path) {
+        return path.getFileName().toString().endsWith(".java");
+    }
+
+    private static boolean isSkipped(Path folder) {
+        String name = folder.getFileName().toString();
+        return name.startsWith(".") || SKIPPED_FOLDERS.contains(name);
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(SourceFileIndex.class);
+    }
+}
@@ -0,0 +1,93 @@
+package org.vaadin.addons.accessibility.report;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+
+/**
+ * Writes each run as a JUnit XML test suite named after its route, with a
+ * failed test case for each issue. The test case is named after the rule id
+ * and the failure gives the source file and line of the component.
+ */
+public class JUnitXmlExporter implements ReportExporter {
+
+    private final XMLStreamWriter xml;
+
+    public JUnitXmlExporter(Writer writer) throws IOException {
+        try {
+            xml = XMLOutputFactory.newFactory().createXMLStreamWriter(writer);
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeStartElement("testsuites");
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void writeRun(RunSummary run, Iterable<StoredIssue> issues) throws IOException {
+        try {
+            xml.writeStartElement("testsuite");
+            xml.writeAttribute("name", run.route());
+            xml.writeAttribute("tests", String.valueOf(run.issueCount()));
+            xml.writeAttribute("failures", String.valueOf(run.issueCount()));
+            xml.writeAttribute("errors", "0");
+            xml.writeAttribute("timestamp", Instant.ofEpochMilli(run.timestamp()).toString());
+            for (StoredIssue issue : issues) {
+                String location = issue.file() != null ? issue.file() + ":" + issue.line() : null;
+                xml.writeStartElement("testcase");
+                xml.writeAttribute("name", issue.ruleId() + " " + (location != null ? location : issue.tagName()));
+                xml.writeAttribute("classname", issue.file() != null ? issue.file() : run.route());
+                if (issue.file() != null) {
+                    xml.writeAttribute("file", issue.file());
+                    xml.writeAttribute("line", String.valueOf(issue.line()));
+                }
+                xml.writeStartElement("failure");
+                xml.writeAttribute("message", issue.message());
+                xml.writeAttribute("type", issue.category());
+                xml.writeCharacters(issue.tagName() + (location != null ? " at " + location : "") + ": "
+                        + issue.message());
+                xml.writeEndElement();
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+            xml.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            // closes the stream writer, not the underlying writer
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.vaadin.addons.accessibility.report;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Command line entry point exporting the last check of each route of the
+ * report history, for example in CI after the end-to-end tests.
+ * <p>
+ * Usage: {@code ReportExportCli [--format sarif|junit] [--output <file>] [reports folder]}.
+ * The format defaults to SARIF, the reports folder to
+ * {@value #DEFAULT_REPORTS_FOLDER} and the output to
+ * {@code target/accessibility-checker/accessibility-report.sarif} or
+ * {@code .xml}.
+ */
+public class ReportExportCli {
+
+    public static final String DEFAULT_REPORTS_FOLDER = "target/accessibility-checker/reports";
+    public static final String DEFAULT_OUTPUT_NAME = "accessibility-report";
+
+    public static void main(String[] args) throws IOException {
+        ReportExporter.Format format = ReportExporter.Format.SARIF;
+        Path output = null;
+        Path reportsFolder = Path.of(DEFAULT_REPORTS_FOLDER);
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--format" -> {
+                if (i + 1 == args.length) {
+                    usage();
+                }
+                try {
+                    format = ReportExporter.Format.fromValue(args[++i]);
+                } catch (IllegalArgumentException e) {
+                    usage();
+                }
+            }
+            case "--output" -> {
+                if (i + 1 == args.length) {
+                    usage();
+                }
+                output = Path.of(args[++i]);
+            }
+            case "--help" -> usage();
+            default -> reportsFolder = Path.of(args[i]);
+            }
+        }
+        if (output == null) {
+            output = reportsFolder.resolveSibling(DEFAULT_OUTPUT_NAME + "." + format.getExtension());
+        }
+
+        long start = System.nanoTime();
+        int issueCount = export(reportsFolder, format, output);
+        System.out.printf("Exported %d issues to %s in %d ms%n", issueCount, output,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Exports the last run of each route of the reports folder to the file.
+     * The folder is only read, the application may be running.
+     *
+     * @return the number of exported issues
+     */
+    public static int export(Path reportsFolder, ReportExporter.Format format, Path output) throws IOException {
+        Path parent = output.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, DEFAULT_OUTPUT_NAME, ".tmp");
+        int issueCount;
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            try (ReportExporter exporter = ReportExporter.create(format, writer)) {
+                issueCount = new ReportReader(reportsFolder).exportLatestRuns(exporter);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        // the tools reading the file never see a partial report
+        Files.move(temporary, output, StandardCopyOption.REPLACE_EXISTING);
+        return issueCount;
+    }
+
+    private static void usage() {
+        System.err.println("Usage: ReportExportCli [--format sarif|junit] [--output <file>] [reports folder]");
+        System.exit(2);
+    }
+}
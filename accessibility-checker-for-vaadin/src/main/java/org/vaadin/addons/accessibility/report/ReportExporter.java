@@ -0,0 +1,79 @@
+package org.vaadin.addons.accessibility.report;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the issues of the checks in a format read by the code scanning and
+ * CI tools. The issues are written as they are given, the document is never
+ * built in memory. {@link #close()} ends the document without closing the
+ * writer.
+ */
+public interface ReportExporter extends Closeable {
+
+    enum Format {
+        /** SARIF 2.1.0, read by the code scanning dashboards **/
+        SARIF("sarif"),
+        /** JUnit XML, read by the CI test reports **/
+        JUNIT("xml");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format fromValue(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown export format " + value);
+        }
+    }
+
+    /**
+     * Writes the issues of a run.
+     *
+     * @param run the summary of the run
+     * @param issues the issues of the run, as many as the issue count of the
+     *            summary
+     */
+    void writeRun(RunSummary run, Iterable<StoredIssue> issues) throws IOException;
+
+    /**
+     * Starts a document in the format.
+     */
+    static ReportExporter create(Format format, Writer writer) throws IOException {
+        return switch (format) {
+            case SARIF -> new SarifExporter(writer);
+            case JUNIT -> new JUnitXmlExporter(writer);
+        };
+    }
+}
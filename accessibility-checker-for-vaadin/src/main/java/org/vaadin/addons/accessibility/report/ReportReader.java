@@ -0,0 +1,119 @@
+package org.vaadin.addons.accessibility.report;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import elemental.json.JsonObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Reads the segments of a {@link ReportStore} for the exports, without
+ * opening the store.
+ * <p>
+ * The reader never writes to the folder, so the segments can be exported
+ * while the application appends to them, and it never holds the issues of
+ * the runs: the segments are read once to find the summary of the last run
+ * of each route, then the lines of each of those runs are read again while
+ * its issues are exported.
+ */
+public class ReportReader {
+
+    private final Path folder;
+
+    /**
+     * @param folder the folder of the segments
+     */
+    public ReportReader(Path folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * Exports the last run of each route, sorted by route.
+     *
+     * @return the number of exported issues
+     */
+    public int exportLatestRuns(ReportExporter exporter) throws IOException {
+        int issueCount = 0;
+        for (RunLines run : findLatestRuns().values()) {
+            try (Stream<String> lines = Files.lines(run.segment(), StandardCharsets.UTF_8)) {
+                Iterator<StoredIssue> issues = lines.skip(run.firstLine())
+                        .limit(run.summaryLine() - run.firstLine())
+                        .map(line -> ReportStore.parseRecord(run.segment(), line))
+                        .filter(record -> record != null && "issue".equals(record.getString("type"))
+                                && (long) record.getNumber("runId") == run.summary().runId())
+                        .map(ReportStore::toIssue).iterator();
+                // the exporters iterate the issues once
+                exporter.writeRun(run.summary(), () -> issues);
+            }
+            issueCount += run.summary().issueCount();
+        }
+        return issueCount;
+    }
+
+    /**
+     * @return the lines of the last committed run of each route, by route
+     */
+    private Map<String, RunLines> findLatestRuns() throws IOException {
+        Map<String, RunLines> latest = new TreeMap<>();
+        if (!Files.isDirectory(folder)) {
+            return latest;
+        }
+        Set<Long> runIds = new HashSet<>();
+        for (Path segment : ReportStore.listSegments(folder)) {
+            // line of the first issue of each run that is not committed yet
+            Map<Long, Long> firstLines = new HashMap<>();
+            long lineNumber = 0;
+            try (Stream<String> lines = Files.lines(segment, StandardCharsets.UTF_8)) {
+                for (String line : (Iterable<String>) lines::iterator) {
+                    JsonObject record = ReportStore.parseRecord(segment, line);
+                    if (record != null) {
+                        long runId = (long) record.getNumber("runId");
+                        if (!"run".equals(record.getString("type"))) {
+                            firstLines.putIfAbsent(runId, lineNumber);
+                        } else {
+                            Long firstLine = firstLines.remove(runId);
+                            // skips the runs already read from an older segment
+                            if (runIds.add(runId)) {
+                                RunSummary summary = ReportStore.toSummary(record);
+                                latest.put(summary.route(), new RunLines(segment,
+                                        firstLine != null ? firstLine : lineNumber, lineNumber, summary));
+                            }
+                        }
+                    }
+                    lineNumber++;
+                }
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * @param firstLine the line of the first issue of the run
+     * @param summaryLine the line of the summary, after the issues
+     */
+    private record RunLines(Path segment, long firstLine, long summaryLine, RunSummary summary) {
+    }
+}
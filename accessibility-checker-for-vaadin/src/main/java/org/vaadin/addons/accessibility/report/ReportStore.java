@@ -0,0 +1,517 @@
+package org.vaadin.addons.accessibility.report;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import elemental.json.Json;
+import elemental.json.JsonException;
+import elemental.json.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vaadin.addons.accessibility.AccessibilityCheckerException;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Append-only store of the issues found by the checks, kept between the
+ * restarts of the application.
+ * <p>
+ * The records are appended as JSON lines to segment files. A run is visible
+ * once its summary is written by {@link #commit(long)}, the issues of the
+ * runs that were never committed are skipped. A run that receives no issues
+ * for {@value #PENDING_RUN_TIMEOUT_MILLIS} ms is aborted, for example when
+ * the tab was closed during the check. When there are more than
+ * {@value #MAX_SEALED_SEGMENTS} full segments, they are compacted into one
+ * that keeps the summaries of the last {@value #RETAINED_SUMMARIES} runs and
+ * the issues of the last {@value #RETAINED_RUNS} runs of each route.
+ * When the active segment is full, the issues of the runs that are not
+ * committed yet are written again to the next segment, so the issues of a
+ * run are never split between two segments.
+ * <p>
+ * The issues of the retained runs are indexed in memory by route, and the
+ * issues of the last run of each route by rule id and by source file.
+ */
+public class ReportStore implements Closeable {
+
+    static final int RETAINED_RUNS = 20;
+    static final int RETAINED_SUMMARIES = 500;
+    static final int MAX_SEALED_SEGMENTS = 4;
+    static final long MAX_SEGMENT_SIZE = 4 * 1024 * 1024;
+    static final long PENDING_RUN_TIMEOUT_MILLIS = 10 * 60 * 1000;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path folder;
+    private final long maxSegmentSize;
+    private final long pendingRunTimeout;
+    /** the last runs of each route, the oldest first **/
+    private final Map<String, List<RunSummary>> runsByRoute = new HashMap<>();
+    private final Map<Long, List<StoredIssue>> issuesByRun = new HashMap<>();
+    /** rule id to route to the issues of the last run of the route **/
+    private final Map<String, Map<String, List<StoredIssue>>> latestByRule = new HashMap<>();
+    /** source file to route to the issues of the last run of the route **/
+    private final Map<String, Map<String, List<StoredIssue>>> latestByFile = new HashMap<>();
+    private final Map<Long, PendingRun> pendingRuns = new HashMap<>();
+    private long nextRunId = 1;
+    private int nextSegment = 1;
+    private Path activeSegment;
+    /** size of the active segment when it was opened, with the issues of the pending runs **/
+    private long activeSegmentStart;
+    private BufferedWriter writer;
+
+    /**
+     * Opens the store and reads the committed runs.
+     *
+     * @param folder the folder of the segments, created if needed
+     */
+    public ReportStore(Path folder) throws IOException {
+        this(folder, MAX_SEGMENT_SIZE, PENDING_RUN_TIMEOUT_MILLIS);
+    }
+
+    ReportStore(Path folder, long maxSegmentSize, long pendingRunTimeout) throws IOException {
+        this.folder = folder;
+        this.maxSegmentSize = maxSegmentSize;
+        this.pendingRunTimeout = pendingRunTimeout;
+        Files.createDirectories(folder);
+        List<Path> segments = listSegments(folder);
+        Set<Long> runIds = new HashSet<>();
+        for (Path segment : segments) {
+            for (SegmentRun run : readSegment(segment)) {
+                if (!runIds.add(run.runId())) {
+                    // already read from an older segment, the compaction was interrupted
+                    continue;
+                }
+                register(toSummary(run.summary()), run.issues().stream().map(ReportStore::toIssue).toList());
+            }
+            nextSegment = Math.max(nextSegment, segmentNumber(segment) + 1);
+        }
+        if (!segments.isEmpty() && Files.size(segments.get(segments.size() - 1)) < maxSegmentSize) {
+            openSegment(segments.get(segments.size() - 1));
+        } else {
+            openSegment(segmentPath(nextSegment++));
+        }
+        getLogger().debug("{} runs read from {}", runIds.size(), folder);
+    }
+
+    /**
+     * Starts a run, its issues are added with {@link #append(long, List)}.
+     *
+     * @param route the route template of the checked view
+     * @return the id of the run
+     */
+    public synchronized long begin(String route) {
+        expirePendingRuns();
+        long runId = nextRunId++;
+        pendingRuns.put(runId, new PendingRun(route));
+        return runId;
+    }
+
+    /**
+     * Appends issues to a run that is not committed yet.
+     */
+    public synchronized void append(long runId, List<StoredIssue> issues) throws IOException {
+        PendingRun run = getPendingRun(runId);
+        for (StoredIssue issue : issues) {
+            write(toJson(runId, issue));
+        }
+        writer.flush();
+        run.issues.addAll(issues);
+        run.lastUpdate = System.currentTimeMillis();
+    }
+
+    /**
+     * Writes the summary of the run, the run is then visible in the queries.
+     *
+     * @return the summary of the run
+     */
+    public synchronized RunSummary commit(long runId) throws IOException {
+        PendingRun run = getPendingRun(runId);
+        Map<String, Integer> categoryCounts = new TreeMap<>();
+        Map<String, Integer> ruleCounts = new TreeMap<>();
+        for (StoredIssue issue : run.issues) {
+            categoryCounts.merge(issue.category(), 1, Integer::sum);
+            ruleCounts.merge(issue.ruleId(), 1, Integer::sum);
+        }
+        RunSummary summary = new RunSummary(runId, System.currentTimeMillis(), run.route, run.issues.size(),
+                categoryCounts, ruleCounts);
+        write(toJson(summary));
+        writer.flush();
+        pendingRuns.remove(runId);
+        register(summary, run.issues);
+        if (Files.size(activeSegment) - activeSegmentStart >= maxSegmentSize) {
+            rotate();
+        }
+        return summary;
+    }
+
+    /**
+     * Forgets a run that will not be committed, its issues already written
+     * are skipped.
+     */
+    public synchronized void abort(long runId) {
+        pendingRuns.remove(runId);
+    }
+
+    /**
+     * @return the folder of the segments
+     */
+    public Path getFolder() {
+        return folder;
+    }
+
+    /**
+     * @return the routes with at least one run, sorted
+     */
+    public synchronized List<String> getRoutes() {
+        return runsByRoute.keySet().stream().sorted().toList();
+    }
+
+    /**
+     * @return the last {@value #RETAINED_SUMMARIES} runs of the route, the
+     *         oldest first
+     */
+    public synchronized List<RunSummary> getRuns(String route) {
+        return List.copyOf(runsByRoute.getOrDefault(route, Collections.emptyList()));
+    }
+
+    /**
+     * @return the issues of the run, empty if the run is not one of the last
+     *         {@value #RETAINED_RUNS} runs of its route
+     */
+    public synchronized List<StoredIssue> getIssues(long runId) {
+        return List.copyOf(issuesByRun.getOrDefault(runId, Collections.emptyList()));
+    }
+
+    /**
+     * @return the issues of the rule in the last run of each route, by route
+     */
+    public synchronized Map<String, List<StoredIssue>> findByRule(String ruleId) {
+        return copy(latestByRule.get(ruleId));
+    }
+
+    /**
+     * @param file the source file relative to the project folder
+     * @return the issues of the components created in the file in the last
+     *         run of each route, by route
+     */
+    public synchronized Map<String, List<StoredIssue>> findByFile(String file) {
+        return copy(latestByFile.get(file));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Seals the active segment and compacts the sealed segments if there are
+     * too many. The issues of the pending runs are written again to the new
+     * segment, their lines in the sealed segment are skipped since the runs
+     * are not committed there.
+     */
+    private void rotate() throws IOException {
+        writer.close();
+        openSegment(segmentPath(nextSegment++));
+        for (Map.Entry<Long, PendingRun> run : pendingRuns.entrySet()) {
+            for (StoredIssue issue : run.getValue().issues) {
+                write(toJson(run.getKey(), issue));
+            }
+        }
+        writer.flush();
+        activeSegmentStart = Files.size(activeSegment);
+        List<Path> sealed = listSegments(folder);
+        sealed.remove(activeSegment);
+        if (sealed.size() > MAX_SEALED_SEGMENTS) {
+            compact(sealed);
+        }
+    }
+
+    private void expirePendingRuns() {
+        long now = System.currentTimeMillis();
+        pendingRuns.entrySet().removeIf(run -> {
+            boolean expired = now - run.getValue().lastUpdate > pendingRunTimeout;
+            if (expired) {
+                getLogger().debug("Aborted the run {} of {} that received no issues for {} ms", run.getKey(),
+                        run.getValue().route, pendingRunTimeout);
+            }
+            return expired;
+        });
+    }
+
+    private PendingRun getPendingRun(long runId) {
+        PendingRun run = pendingRuns.get(runId);
+        if (run == null) {
+            throw new AccessibilityCheckerException("The run " + runId + " is not started or already committed");
+        }
+        return run;
+    }
+
+    private void register(RunSummary summary, List<StoredIssue> issues) {
+        List<RunSummary> runs = runsByRoute.computeIfAbsent(summary.route(), route -> new ArrayList<>());
+        if (!runs.isEmpty()) {
+            unindexLatest(summary.route(), issuesByRun.getOrDefault(runs.get(runs.size() - 1).runId(),
+                    Collections.emptyList()));
+        }
+        runs.add(summary);
+        issuesByRun.put(summary.runId(), issues);
+        if (runs.size() > RETAINED_RUNS) {
+            issuesByRun.remove(runs.get(runs.size() - RETAINED_RUNS - 1).runId());
+        }
+        if (runs.size() > RETAINED_SUMMARIES) {
+            runs.remove(0);
+        }
+        for (StoredIssue issue : issues) {
+            latestByRule.computeIfAbsent(issue.ruleId(), ruleId -> new HashMap<>())
+                    .computeIfAbsent(summary.route(), route -> new ArrayList<>()).add(issue);
+            if (issue.file() != null) {
+                latestByFile.computeIfAbsent(issue.file(), file -> new HashMap<>())
+                        .computeIfAbsent(summary.route(), route -> new ArrayList<>()).add(issue);
+            }
+        }
+    }
+
+    private void unindexLatest(String route, List<StoredIssue> issues) {
+        for (StoredIssue issue : issues) {
+            removeRoute(latestByRule, issue.ruleId(), route);
+            if (issue.file() != null) {
+                removeRoute(latestByFile, issue.file(), route);
+            }
+        }
+    }
+
+    private static void removeRoute(Map<String, Map<String, List<StoredIssue>>> index, String key, String route) {
+        Map<String, List<StoredIssue>> byRoute = index.get(key);
+        if (byRoute != null) {
+            byRoute.remove(route);
+            if (byRoute.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static Map<String, List<StoredIssue>> copy(Map<String, List<StoredIssue>> byRoute) {
+        if (byRoute == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, List<StoredIssue>> copy = new TreeMap<>();
+        byRoute.forEach((route, issues) -> copy.put(route, List.copyOf(issues)));
+        return copy;
+    }
+
+    /**
+     * Rewrites the sealed segments into the newest of them with the summaries
+     * and the issues of the retained runs only. The older
+     * segments are deleted after the newest one is replaced, the duplicated
+     * runs are skipped when reading.
+     */
+    private void compact(List<Path> sealed) throws IOException {
+        Path target = sealed.get(sealed.size() - 1);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        Set<Long> retainedRunIds = new HashSet<>();
+        runsByRoute.values().forEach(runs -> runs.forEach(run -> retainedRunIds.add(run.runId())));
+        int runCount = 0;
+        try (BufferedWriter compacted = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (Path segment : sealed) {
+                for (SegmentRun run : readSegment(segment)) {
+                    if (!retainedRunIds.contains(run.runId())) {
+                        continue;
+                    }
+                    if (issuesByRun.containsKey(run.runId())) {
+                        for (JsonObject issue : run.issues()) {
+                            compacted.write(issue.toJson());
+                            compacted.newLine();
+                        }
+                    }
+                    compacted.write(run.summary().toJson());
+                    compacted.newLine();
+                    runCount++;
+                }
+            }
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (Path segment : sealed.subList(0, sealed.size() - 1)) {
+            Files.delete(segment);
+        }
+        getLogger().debug("Compacted {} segments with {} runs into {}", sealed.size(), runCount, target);
+    }
+
+    /**
+     * @return the committed runs of the segment in the order of the file,
+     *         with their issues
+     */
+    private List<SegmentRun> readSegment(Path segment) throws IOException {
+        Map<Long, List<JsonObject>> issues = new HashMap<>();
+        List<SegmentRun> runs = new ArrayList<>();
+        try (Stream<String> lines = Files.lines(segment, StandardCharsets.UTF_8)) {
+            for (String line : (Iterable<String>) lines::iterator) {
+                JsonObject record = parseRecord(segment, line);
+                if (record == null) {
+                    continue;
+                }
+                long runId = (long) record.getNumber("runId");
+                // the issues of a run that was never committed must not be read with a later run
+                nextRunId = Math.max(nextRunId, runId + 1);
+                if ("run".equals(record.getString("type"))) {
+                    runs.add(new SegmentRun(runId, record, issues.getOrDefault(runId, Collections.emptyList())));
+                    issues.remove(runId);
+                } else {
+                    issues.computeIfAbsent(runId, id -> new ArrayList<>()).add(record);
+                }
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * @return the record of the line, null if the line is blank or was left
+     *         incomplete when the application stopped
+     */
+    static JsonObject parseRecord(Path segment, String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            return Json.parse(line);
+        } catch (JsonException e) {
+            getLogger().debug("Skipped an invalid line of {}", segment);
+            return null;
+        }
+    }
+
+    private void openSegment(Path segment) throws IOException {
+        if (Files.exists(segment) && Files.size(segment) > 0) {
+            try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "r")) {
+                file.seek(file.length() - 1);
+                if (file.read() != '\n') {
+                    // end the line left incomplete when the application stopped
+                    Files.writeString(segment, "\n", StandardOpenOption.APPEND);
+                }
+            }
+        }
+        activeSegment = segment;
+        writer = Files.newBufferedWriter(segment, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    private void write(JsonObject record) throws IOException {
+        writer.write(record.toJson());
+        writer.newLine();
+    }
+
+    /**
+     * @return the segments of the folder, the oldest first
+     */
+    static List<Path> listSegments(Path folder) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            return files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted(Comparator.comparingInt(ReportStore::segmentNumber)).collect(
+                    ArrayList::new, ArrayList::add, ArrayList::addAll);
+        }
+    }
+
+    private Path segmentPath(int number) {
+        return folder.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    static int segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static JsonObject toJson(long runId, StoredIssue issue) {
+        JsonObject record = Json.createObject();
+        record.put("type", "issue");
+        record.put("runId", runId);
+        record.put("ruleId", issue.ruleId());
+        record.put("category", issue.category());
+        record.put("tagName", issue.tagName());
+        record.put("message", issue.message());
+        if (issue.file() != null) {
+            record.put("file", issue.file());
+            record.put("line", issue.line());
+        }
+        return record;
+    }
+
+    static StoredIssue toIssue(JsonObject record) {
+        return new StoredIssue(record.getString("ruleId"), record.getString("category"),
+                record.getString("tagName"), record.getString("message"),
+                record.hasKey("file") ? record.getString("file") : null,
+                record.hasKey("line") ? (int) record.getNumber("line") : 0);
+    }
+
+    private static JsonObject toJson(RunSummary summary) {
+        JsonObject record = Json.createObject();
+        record.put("type", "run");
+        record.put("runId", summary.runId());
+        record.put("timestamp", summary.timestamp());
+        record.put("route", summary.route());
+        record.put("issueCount", summary.issueCount());
+        record.put("categories", toJson(summary.categoryCounts()));
+        record.put("rules", toJson(summary.ruleCounts()));
+        return record;
+    }
+
+    static RunSummary toSummary(JsonObject record) {
+        return new RunSummary((long) record.getNumber("runId"), (long) record.getNumber("timestamp"),
+                record.getString("route"), (int) record.getNumber("issueCount"),
+                toCounts(record.getObject("categories")), toCounts(record.getObject("rules")));
+    }
+
+    private static JsonObject toJson(Map<String, Integer> counts) {
+        JsonObject object = Json.createObject();
+        counts.forEach(object::put);
+        return object;
+    }
+
+    private static Map<String, Integer> toCounts(JsonObject object) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (String key : object.keys()) {
+            counts.put(key, (int) object.getNumber(key));
+        }
+        return counts;
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(ReportStore.class);
+    }
+
+    private static final class PendingRun {
+        private final String route;
+        private final List<StoredIssue> issues = new ArrayList<>();
+        private long lastUpdate = System.currentTimeMillis();
+
+        private PendingRun(String route) {
+            this.route = route;
+        }
+    }
+
+    private record SegmentRun(long runId, JsonObject summary, List<JsonObject> issues) {
+    }
+}
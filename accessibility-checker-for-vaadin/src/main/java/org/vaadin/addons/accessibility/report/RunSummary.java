@@ -0,0 +1,37 @@
+package org.vaadin.addons.accessibility.report;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Map;
+
+/**
+ * Summary of a stored run, kept for all the runs to show the trends.
+ *
+ * @param runId id of the run, increasing
+ * @param timestamp end of the run in milliseconds since the epoch
+ * @param route the route template of the checked view
+ * @param issueCount number of issues
+ * @param categoryCounts number of issues by category
+ * @param ruleCounts number of issues by rule id
+ */
+public record RunSummary(long runId, long timestamp, String route, int issueCount,
+                         Map<String, Integer> categoryCounts, Map<String, Integer> ruleCounts) {
+}
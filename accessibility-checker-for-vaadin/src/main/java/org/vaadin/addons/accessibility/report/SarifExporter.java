@@ -0,0 +1,111 @@
+package org.vaadin.addons.accessibility.report;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the issues as the results of a SARIF 2.1.0 run, with the rule id,
+ * the source file relative to the project folder and the line where the
+ * component was created. The issues without location have no location in
+ * SARIF either.
+ */
+public class SarifExporter implements ReportExporter {
+
+    public static final String SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+    public static final String INFORMATION_URI = "https://github.com/parttio/accessibility-checker-for-vaadin";
+
+    private final JsonGenerator generator;
+
+    public SarifExporter(Writer writer) throws IOException {
+        generator = new JsonFactory().createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartObject();
+        generator.writeStringField("$schema", SCHEMA);
+        generator.writeStringField("version", "2.1.0");
+        generator.writeArrayFieldStart("runs");
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("tool");
+        generator.writeObjectFieldStart("driver");
+        generator.writeStringField("name", "Accessibility checker for Vaadin");
+        generator.writeStringField("informationUri", INFORMATION_URI);
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeArrayFieldStart("results");
+    }
+
+    @Override
+    public void writeRun(RunSummary run, Iterable<StoredIssue> issues) throws IOException {
+        for (StoredIssue issue : issues) {
+            generator.writeStartObject();
+            generator.writeStringField("ruleId", issue.ruleId());
+            generator.writeStringField("level", getLevel(issue.category()));
+            generator.writeObjectFieldStart("message");
+            generator.writeStringField("text", issue.message());
+            generator.writeEndObject();
+            if (issue.file() != null) {
+                generator.writeArrayFieldStart("locations");
+                generator.writeStartObject();
+                generator.writeObjectFieldStart("physicalLocation");
+                generator.writeObjectFieldStart("artifactLocation");
+                generator.writeStringField("uri", issue.file());
+                generator.writeStringField("uriBaseId", "%SRCROOT%");
+                generator.writeEndObject();
+                generator.writeObjectFieldStart("region");
+                generator.writeNumberField("startLine", issue.line());
+                generator.writeEndObject();
+                generator.writeEndObject();
+                generator.writeEndObject();
+                generator.writeEndArray();
+            }
+            generator.writeObjectFieldStart("properties");
+            generator.writeStringField("route", run.route());
+            generator.writeStringField("tagName", issue.tagName());
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    /**
+     * @return the SARIF level of the category of the checker
+     */
+    private static String getLevel(String category) {
+        return switch (category) {
+            case "VIOLATION" -> "error";
+            case "NEED_REVIEW" -> "warning";
+            default -> "note";
+        };
+    }
+}
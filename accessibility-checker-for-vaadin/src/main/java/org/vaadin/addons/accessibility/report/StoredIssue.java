@@ -0,0 +1,36 @@
+package org.vaadin.addons.accessibility.report;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * An issue of a stored run.
+ *
+ * @param ruleId id of the broken rule
+ * @param category the category of the rule, like VIOLATION
+ * @param tagName tag name of the component
+ * @param message the message of the rule
+ * @param file source file where the component was created, relative to the
+ *            project folder, null if unknown
+ * @param line line where the component was created, 0 if unknown
+ */
+public record StoredIssue(String ruleId, String category, String tagName, String message, String file,
+                          int line) {
+}
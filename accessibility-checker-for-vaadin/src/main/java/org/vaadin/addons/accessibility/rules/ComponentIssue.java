@@ -0,0 +1,31 @@
+package org.vaadin.addons.accessibility.rules;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * A rule broken by a component.
+ *
+ * @param nodeId nodeId of the component, the one of the route target for the
+ *            rules of the view
+ * @param rule the broken rule
+ */
+public record ComponentIssue(int nodeId, ComponentRule rule) {
+}
@@ -0,0 +1,100 @@
+package org.vaadin.addons.accessibility.rules;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.HasAriaLabel;
+import com.vaadin.flow.component.HasLabel;
+import com.vaadin.flow.component.formlayout.FormLayout;
+import com.vaadin.flow.component.html.IFrame;
+import com.vaadin.flow.component.html.Image;
+
+import java.util.function.Predicate;
+
+/**
+ * The checks done on the server side component tree.
+ * <p>
+ * The ids are the ones of the rules of the accessibility checker engine, so
+ * the client shows the same fixes for both.
+ */
+public enum ComponentRule {
+    MISSING_LABEL("input_label_exists", "The field has no label", HasLabel.class,
+            component -> isBlank(((HasLabel) component).getLabel()) && !hasAriaLabel(component)
+                    && component.getParent().filter(FormLayout.FormItem.class::isInstance).isEmpty()),
+    IMAGE_WITHOUT_ALT("img_alt_valid", "The image has no alternative text", Image.class,
+            component -> ((Image) component).getAlt().isEmpty()),
+    IFRAME_WITHOUT_TITLE("frame_title_exists", "The iframe has no title", IFrame.class,
+            component -> isBlank(component.getElement().getAttribute("title"))),
+    /**
+     * Checked on the current route target and its layouts.
+     */
+    MISSING_PAGE_TITLE("page_title_exists", "The route has no page title", null, null),
+    /**
+     * Checked on the current route target and its layouts.
+     */
+    MISSING_MAIN_LANDMARK("skip_main_exists", "The page has no main landmark", null, null);
+
+    private final String id;
+    private final String message;
+    private final Class<?> componentType;
+    private final Predicate<Component> violation;
+
+    ComponentRule(String id, String message, Class<?> componentType, Predicate<Component> violation) {
+        this.id = id;
+        this.message = message;
+        this.componentType = componentType;
+        this.violation = violation;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return true if the rule is checked on each component of the given
+     *         class, false if it's a rule of the view
+     */
+    public boolean appliesTo(Class<? extends Component> componentClass) {
+        return componentType != null && componentType.isAssignableFrom(componentClass);
+    }
+
+    /**
+     * @param component a component the rule applies to
+     * @return true if the component breaks the rule
+     */
+    public boolean isViolatedBy(Component component) {
+        return violation.test(component);
+    }
+
+    private static boolean hasAriaLabel(Component component) {
+        return component instanceof HasAriaLabel hasAriaLabel
+                && (hasAriaLabel.getAriaLabel().filter(label -> !label.isBlank()).isPresent()
+                        || hasAriaLabel.getAriaLabelledBy().isPresent());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,138 @@
+package org.vaadin.addons.accessibility.rules;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.HasElement;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Main;
+import com.vaadin.flow.router.HasDynamicTitle;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.RouteConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Checks the rules that can be answered from the component tree of a UI,
+ * without the browser.
+ * <p>
+ * The components the rules apply to are kept in an index stored in the UI.
+ * Flow has no event for the components attached below another one, so each
+ * check still walks the visible component tree to find the new ones, with one
+ * lookup of the rules per component class. The rules are only evaluated on
+ * the indexed components, at each check as the properties of the components
+ * can change without any event. The hidden components are skipped like in
+ * the browser.
+ * <p>
+ * Must be called while holding the session lock.
+ */
+public class ComponentRuleEngine {
+
+    /** number of components or rules evaluated between two checks of the time budget **/
+    static final int BUDGET_CHECK_INTERVAL = 256;
+
+    /**
+     * @param ui the UI to check
+     * @return the issues of the UI, sorted by nodeId
+     */
+    public List<ComponentIssue> check(UI ui) {
+        return check(ui, Long.MAX_VALUE, TimeUnit.NANOSECONDS).orElseThrow();
+    }
+
+    /**
+     * Same as {@link #check(UI)}, stopped when the time budget runs out. The
+     * components indexed before are kept for the next check.
+     *
+     * @param ui the UI to check
+     * @param budget the maximum duration of the check
+     * @param unit the unit of the budget
+     * @return the issues of the UI sorted by nodeId, empty if the budget ran
+     *         out
+     */
+    public Optional<List<ComponentIssue>> check(UI ui, long budget, TimeUnit unit) {
+        long start = System.nanoTime();
+        long budgetNanos = unit.toNanos(budget);
+        BooleanSupplier overBudget = () -> System.nanoTime() - start > budgetNanos;
+        ComponentRuleIndex index = ComponentUtil.getData(ui, ComponentRuleIndex.class);
+        if (index == null) {
+            index = new ComponentRuleIndex();
+            ComponentUtil.setData(ui, ComponentRuleIndex.class, index);
+        }
+        if (!index.index(ui, overBudget)) {
+            return Optional.empty();
+        }
+        List<ComponentIssue> issues = new ArrayList<>();
+        int evaluated = 0;
+        for (Map.Entry<Component, List<ComponentRule>> candidate : index.getCandidates().entrySet()) {
+            if (++evaluated % BUDGET_CHECK_INTERVAL == 0 && overBudget.getAsBoolean()) {
+                return Optional.empty();
+            }
+            if (!ComponentRuleIndex.isShown(candidate.getKey())) {
+                continue;
+            }
+            for (ComponentRule rule : candidate.getValue()) {
+                if (rule.isViolatedBy(candidate.getKey())) {
+                    issues.add(new ComponentIssue(nodeId(candidate.getKey()), rule));
+                }
+            }
+        }
+        checkView(ui, index, issues);
+        issues.sort((first, second) -> Integer.compare(first.nodeId(), second.nodeId()));
+        return Optional.of(issues);
+    }
+
+    /**
+     * @return the route template of the current view, the location if the
+     *         view has no route
+     */
+    public static String getRoute(UI ui) {
+        Component currentView = ui.getCurrentView();
+        Optional<String> template = currentView == null ? Optional.empty()
+                : RouteConfiguration.forRegistry(ui.getInternals().getRouter().getRegistry())
+                        .getTemplate(currentView.getClass());
+        return "/" + template.orElseGet(() -> ui.getInternals().getActiveViewLocation().getPath());
+    }
+
+    private void checkView(UI ui, ComponentRuleIndex index, List<ComponentIssue> issues) {
+        List<HasElement> chain = ui.getInternals().getActiveRouterTargetsChain();
+        if (chain.isEmpty() || !(chain.get(0) instanceof Component view)) {
+            return;
+        }
+        if (chain.stream().noneMatch(target -> target instanceof HasDynamicTitle
+                || target.getClass().isAnnotationPresent(PageTitle.class))) {
+            issues.add(new ComponentIssue(nodeId(view), ComponentRule.MISSING_PAGE_TITLE));
+        }
+        if (!index.hasLandmark() && chain.stream().noneMatch(target -> target instanceof Main
+                || "main".equals(target.getElement().getAttribute("role")))) {
+            issues.add(new ComponentIssue(nodeId(view), ComponentRule.MISSING_MAIN_LANDMARK));
+        }
+    }
+
+    private static int nodeId(Component component) {
+        return component.getElement().getNode().getId();
+    }
+}
@@ -0,0 +1,117 @@
+package org.vaadin.addons.accessibility.rules;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.html.Main;
+
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The components of a UI some rules apply to, and the main landmarks.
+ * <p>
+ * Each indexed component has a detach listener removing it, so the
+ * components of the previous view are dropped when navigating. The tree is
+ * walked at each check to find the new components, the rules applying to a
+ * class are computed once per class so the walk costs one lookup per visible
+ * component. The children of the hidden components are not walked, they are
+ * indexed once shown.
+ */
+class ComponentRuleIndex {
+
+    private static final ClassValue<List<ComponentRule>> RULES_BY_CLASS = new ClassValue<>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected List<ComponentRule> computeValue(Class<?> type) {
+            return Arrays.stream(ComponentRule.values())
+                    .filter(rule -> rule.appliesTo((Class<? extends Component>) type)).toList();
+        }
+    };
+
+    private final Map<Component, List<ComponentRule>> candidates = new IdentityHashMap<>();
+    private final Set<Component> landmarks = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Adds the visible components of the subtree that are not indexed yet.
+     *
+     * @param overBudget checked every {@value ComponentRuleEngine#BUDGET_CHECK_INTERVAL}
+     *            components, stops the walk when true
+     * @return false if the walk was stopped, the components already indexed are
+     *         kept
+     */
+    boolean index(Component root, BooleanSupplier overBudget) {
+        Deque<Component> stack = new ArrayDeque<>();
+        stack.push(root);
+        int walked = 0;
+        while (!stack.isEmpty()) {
+            if (++walked % ComponentRuleEngine.BUDGET_CHECK_INTERVAL == 0 && overBudget.getAsBoolean()) {
+                return false;
+            }
+            Component component = stack.pop();
+            if (!component.isVisible()) {
+                continue;
+            }
+            List<ComponentRule> rules = RULES_BY_CLASS.get(component.getClass());
+            boolean landmark = component instanceof Main;
+            if ((!rules.isEmpty() || landmark) && !candidates.containsKey(component)
+                    && !landmarks.contains(component)) {
+                if (landmark) {
+                    landmarks.add(component);
+                }
+                if (!rules.isEmpty()) {
+                    candidates.put(component, rules);
+                }
+                component.addDetachListener(event -> {
+                    event.unregisterListener();
+                    candidates.remove(component);
+                    landmarks.remove(component);
+                });
+            }
+            component.getChildren().forEach(stack::push);
+        }
+        return true;
+    }
+
+    Map<Component, List<ComponentRule>> getCandidates() {
+        return candidates;
+    }
+
+    boolean hasLandmark() {
+        return landmarks.stream().anyMatch(ComponentRuleIndex::isShown);
+    }
+
+    /**
+     * @return true if the component is attached and neither it nor its parents
+     *         are hidden
+     */
+    static boolean isShown(Component component) {
+        if (!component.isAttached()) {
+            return false;
+        }
+        for (Component current = component; current != null; current = current.getParent().orElse(null)) {
+            if (!current.isVisible()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,228 @@
+package org.vaadin.addons.accessibility.sampling;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.router.AfterNavigationEvent;
+import com.vaadin.flow.router.AfterNavigationListener;
+import com.vaadin.flow.server.VaadinSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vaadin.addons.accessibility.rules.ComponentIssue;
+import org.vaadin.addons.accessibility.rules.ComponentRuleEngine;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Audits the component tree of a fraction of the navigations, to find the
+ * issues that only happen with the production data.
+ * <p>
+ * The sampled navigations are audited by a bounded pool of workers, the
+ * navigations sampled while the queue is full are dropped. Each audit holds
+ * the session lock for at most the time budget, the audits running out of
+ * time are only counted. The issues are counted by route template and rule
+ * id, the counters are lock free and exposed through JMX.
+ */
+public class ComponentTreeSampler implements AfterNavigationListener, ComponentTreeSamplerMXBean, Closeable {
+
+    public static final String OBJECT_NAME = "org.vaadin.addons.accessibility:type=ComponentTreeSampler";
+    static final int QUEUE_CAPACITY = 64;
+
+    private final double samplingRate;
+    private final long budgetNanos;
+    private final ComponentRuleEngine componentRuleEngine = new ComponentRuleEngine();
+    private final ThreadPoolExecutor executor;
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder audited = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder overBudget = new LongAdder();
+    private final LongAdder auditNanos = new LongAdder();
+    /** route template to rule id to the number of issues **/
+    private final Map<String, Map<String, LongAdder>> issueCounts = new ConcurrentHashMap<>();
+    private ObjectName objectName;
+
+    /**
+     * @param samplingRate the fraction of the navigations audited, between 0 and 1
+     * @param workers the number of audits running at the same time
+     * @param budget the maximum duration of an audit
+     * @param unit the unit of the budget
+     */
+    public ComponentTreeSampler(double samplingRate, int workers, long budget, TimeUnit unit) {
+        this(samplingRate, workers, QUEUE_CAPACITY, budget, unit);
+    }
+
+    ComponentTreeSampler(double samplingRate, int workers, int queueCapacity, long budget, TimeUnit unit) {
+        this.samplingRate = samplingRate;
+        this.budgetNanos = unit.toNanos(budget);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "accessibility-checker-sampler-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterNavigation(AfterNavigationEvent event) {
+        if (ThreadLocalRandom.current().nextDouble() >= samplingRate) {
+            return;
+        }
+        sampled.increment();
+        UI ui = event.getLocationChangeEvent().getUI();
+        try {
+            // audited once the navigation request has released the session lock
+            executor.execute(() -> audit(ui));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    private void audit(UI ui) {
+        VaadinSession session = ui.getSession();
+        if (session == null) {
+            return;
+        }
+        try {
+            session.accessSynchronously(() -> {
+                if (!ui.isAttached()) {
+                    return;
+                }
+                long start = System.nanoTime();
+                Optional<List<ComponentIssue>> issues = componentRuleEngine.check(ui, budgetNanos,
+                        TimeUnit.NANOSECONDS);
+                auditNanos.add(System.nanoTime() - start);
+                if (issues.isEmpty()) {
+                    overBudget.increment();
+                    return;
+                }
+                audited.increment();
+                Map<String, LongAdder> routeCounts = issueCounts.computeIfAbsent(ComponentRuleEngine.getRoute(ui),
+                        route -> new ConcurrentHashMap<>());
+                for (ComponentIssue issue : issues.get()) {
+                    routeCounts.computeIfAbsent(issue.rule().getId(), ruleId -> new LongAdder()).increment();
+                }
+            });
+        } catch (RuntimeException e) {
+            // the session was closed in the meantime
+            getLogger().debug("Unable to audit the UI {}", ui.getUIId(), e);
+        }
+    }
+
+    /**
+     * Registers the counters in the platform MBean server as
+     * {@value #OBJECT_NAME}.
+     */
+    public void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                getLogger().warn("{} is already registered, the counters are not exposed", OBJECT_NAME);
+                return;
+            }
+            server.registerMBean(this, name);
+            objectName = name;
+        } catch (JMException e) {
+            getLogger().warn("Unable to register {}", OBJECT_NAME, e);
+        }
+    }
+
+    @Override
+    public double getSamplingRate() {
+        return samplingRate;
+    }
+
+    @Override
+    public long getSampledNavigations() {
+        return sampled.sum();
+    }
+
+    @Override
+    public long getAuditedNavigations() {
+        return audited.sum();
+    }
+
+    @Override
+    public long getDroppedNavigations() {
+        return dropped.sum();
+    }
+
+    @Override
+    public long getOverBudgetNavigations() {
+        return overBudget.sum();
+    }
+
+    @Override
+    public long getAuditTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(auditNanos.sum());
+    }
+
+    @Override
+    public Map<String, Map<String, Long>> getIssueCounts() {
+        Map<String, Map<String, Long>> counts = new TreeMap<>();
+        issueCounts.forEach((route, routeCounts) -> {
+            Map<String, Long> ruleCounts = new TreeMap<>();
+            routeCounts.forEach((ruleId, count) -> ruleCounts.put(ruleId, count.sum()));
+            counts.put(route, ruleCounts);
+        });
+        return counts;
+    }
+
+    @Override
+    public void reset() {
+        sampled.reset();
+        audited.reset();
+        dropped.reset();
+        overBudget.reset();
+        auditNanos.reset();
+        issueCounts.clear();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                getLogger().debug("Unable to unregister {}", objectName, e);
+            }
+            objectName = null;
+        }
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(ComponentTreeSampler.class);
+    }
+}
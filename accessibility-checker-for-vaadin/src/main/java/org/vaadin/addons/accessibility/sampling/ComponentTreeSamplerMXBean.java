@@ -0,0 +1,70 @@
+package org.vaadin.addons.accessibility.sampling;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Map;
+
+/**
+ * Counters of the audits of the component tree in production, see
+ * {@link ComponentTreeSampler}.
+ */
+public interface ComponentTreeSamplerMXBean {
+
+    /**
+     * @return the fraction of the navigations audited
+     */
+    double getSamplingRate();
+
+    /**
+     * @return the number of navigations selected for an audit
+     */
+    long getSampledNavigations();
+
+    /**
+     * @return the number of audits completed
+     */
+    long getAuditedNavigations();
+
+    /**
+     * @return the number of audits dropped because the workers were busy
+     */
+    long getDroppedNavigations();
+
+    /**
+     * @return the number of audits stopped when the time budget ran out
+     */
+    long getOverBudgetNavigations();
+
+    /**
+     * @return the time spent in the audits, in milliseconds
+     */
+    long getAuditTimeMillis();
+
+    /**
+     * @return the number of issues found by route template and rule id
+     */
+    Map<String, Map<String, Long>> getIssueCounts();
+
+    /**
+     * Sets all the counters to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,82 @@
+package org.vaadin.addons.accessibility.sampling;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the {@link ComponentTreeSampler} when the
+ * {@value #SAMPLING_RATE} property is set, as a servlet init parameter or
+ * as a system property with the {@code vaadin.} prefix, for example
+ * {@code -Dvaadin.accessibility-checker.sampling-rate=0.01}. The sampling is
+ * disabled by default.
+ */
+public class ProductionSamplingInitListener implements VaadinServiceInitListener {
+
+    /** fraction of the navigations audited, between 0 and 1 **/
+    public static final String SAMPLING_RATE = "accessibility-checker.sampling-rate";
+    /** number of audits running at the same time **/
+    public static final String SAMPLING_WORKERS = "accessibility-checker.sampling-workers";
+    /** maximum duration of an audit in milliseconds **/
+    public static final String SAMPLING_BUDGET = "accessibility-checker.sampling-budget-ms";
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        VaadinService service = event.getSource();
+        DeploymentConfiguration configuration = service.getDeploymentConfiguration();
+        double samplingRate;
+        int workers;
+        long budget;
+        try {
+            samplingRate = Double.parseDouble(configuration.getStringProperty(SAMPLING_RATE, "0"));
+            workers = Integer.parseInt(configuration.getStringProperty(SAMPLING_WORKERS, "1"));
+            budget = Long.parseLong(configuration.getStringProperty(SAMPLING_BUDGET, "5"));
+        } catch (NumberFormatException e) {
+            getLogger().warn("Invalid configuration of the accessibility sampling, the sampling is disabled", e);
+            return;
+        }
+        if (samplingRate <= 0) {
+            return;
+        }
+        if (samplingRate > 1 || workers < 1 || budget < 1) {
+            getLogger().warn("The accessibility sampling needs a rate between 0 and 1, at least one worker and a "
+                    + "budget of at least 1 ms, the sampling is disabled");
+            return;
+        }
+        ComponentTreeSampler sampler = new ComponentTreeSampler(samplingRate, workers, budget,
+                TimeUnit.MILLISECONDS);
+        sampler.registerMBean();
+        service.addUIInitListener(uiInitEvent -> uiInitEvent.getUI().addAfterNavigationListener(sampler));
+        service.addServiceDestroyListener(serviceDestroyEvent -> sampler.close());
+        getLogger().info("Auditing the accessibility of {}% of the navigations", samplingRate * 100);
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(ProductionSamplingInitListener.class);
+    }
+}
@@ -0,0 +1,140 @@
+package org.vaadin.addons.accessibility.visitors;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.stmt.Statement;
+import com.github.javaparser.metamodel.BaseNodeMetaModel;
+import com.github.javaparser.metamodel.PropertyMetaModel;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of the nodes of a compilation unit by the line where they begin.
+ * <p>
+ * The index is built in one traversal and stored in the unit. For a line it
+ * returns the outermost node, or statement, beginning on that line which is
+ * what the LineNumberVisitor and StatementLineNumberVisitor of the dev server
+ * return after a full traversal.
+ */
+public class LineNumberIndex {
+
+    private static final DataKey<LineNumberIndex> DATA_KEY = new DataKey<>() {
+    };
+    private static final Map<BaseNodeMetaModel, List<PropertyMetaModel>> CHILD_PROPERTIES = new ConcurrentHashMap<>();
+
+    private final Node[] nodeByLine;
+    private final Statement[] statementByLine;
+
+    private LineNumberIndex(Node[] nodeByLine, Statement[] statementByLine) {
+        this.nodeByLine = nodeByLine;
+        this.statementByLine = statementByLine;
+    }
+
+    /**
+     * @param cu the compilation unit
+     * @return the index of the unit, built on the first call
+     */
+    public static LineNumberIndex of(CompilationUnit cu) {
+        if (cu.containsData(DATA_KEY)) {
+            return cu.getData(DATA_KEY);
+        }
+        LineNumberIndex index = build(cu);
+        cu.setData(DATA_KEY, index);
+        return index;
+    }
+
+    /**
+     * @param lineNumber line number, starting at 1
+     * @return the outermost node beginning on the line or null
+     */
+    public Node findNode(int lineNumber) {
+        return lineNumber > 0 && lineNumber < nodeByLine.length ? nodeByLine[lineNumber] : null;
+    }
+
+    /**
+     * @param lineNumber line number, starting at 1
+     * @return the outermost statement beginning on the line or null
+     */
+    public Statement findStatement(int lineNumber) {
+        return lineNumber > 0 && lineNumber < statementByLine.length ? statementByLine[lineNumber] : null;
+    }
+
+    private static LineNumberIndex build(CompilationUnit cu) {
+        List<Node> nodes = new ArrayList<>();
+        collect(cu, nodes);
+        int lastLine = 0;
+        for (Node node : nodes) {
+            lastLine = Math.max(lastLine, node.getRange().get().end.line);
+        }
+        Node[] nodeByLine = new Node[lastLine + 1];
+        Statement[] statementByLine = new Statement[lastLine + 1];
+        for (Node node : nodes) {
+            int line = node.getRange().get().begin.line;
+            if (nodeByLine[line] == null) {
+                nodeByLine[line] = node;
+            }
+            if (node instanceof Statement statement && statementByLine[line] == null) {
+                statementByLine[line] = statement;
+            }
+        }
+        return new LineNumberIndex(nodeByLine, statementByLine);
+    }
+
+    /**
+     * Adds the node and its children in the order of the JavaParser generic
+     * visitors: the properties of the most specific type first, in alphabetical
+     * order, then the ones of the super types up to the comment of the node.
+     */
+    private static void collect(Node node, List<Node> nodes) {
+        if (node.getRange().isPresent()) {
+            nodes.add(node);
+        }
+        Optional<BaseNodeMetaModel> metaModel = Optional.of(node.getMetaModel());
+        while (metaModel.isPresent()) {
+            for (PropertyMetaModel property : getChildProperties(metaModel.get())) {
+                Object value = property.getValue(node);
+                if (value instanceof Node child) {
+                    collect(child, nodes);
+                } else if (value instanceof NodeList<?> children) {
+                    for (Node child : children) {
+                        collect(child, nodes);
+                    }
+                }
+            }
+            metaModel = metaModel.get().getSuperNodeMetaModel();
+        }
+    }
+
+    private static List<PropertyMetaModel> getChildProperties(BaseNodeMetaModel metaModel) {
+        return CHILD_PROPERTIES.computeIfAbsent(metaModel, m -> m.getDeclaredPropertyMetaModels().stream()
+                .filter(property -> property.getNodeReference().isPresent())
+                .sorted(Comparator.comparing(PropertyMetaModel::getName))
+                .toList());
+    }
+}
@@ -0,0 +1,133 @@
+package org.vaadin.addons.accessibility.visitors;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.comments.LineComment;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index of the statements generated by the plugin, the ones with an
+ * {@code <accessibility-plugin-*>} line comment, by marker, method name and scope.
+ * <p>
+ * The index is built once per compilation unit with the {@link MarkerIndexVisitor}
+ * and stored in the unit. It has the same result as the {@link GenericStringVisitor}
+ * implementations: when no scope is given the first statement in the source is returned.
+ */
+public class MarkerIndex {
+
+    public static final String MARKER_PREFIX = "<accessibility-plugin-";
+
+    private static final DataKey<MarkerIndex> DATA_KEY = new DataKey<>() {
+    };
+
+    private final Map<Key, ExpressionStmt> byScope = new HashMap<>();
+    private final Map<Key, ExpressionStmt> firstByMarker = new HashMap<>();
+
+    /**
+     * @param cu the compilation unit
+     * @return the index of the unit, built on the first call
+     */
+    public static MarkerIndex of(CompilationUnit cu) {
+        if (cu.containsData(DATA_KEY)) {
+            return cu.getData(DATA_KEY);
+        }
+        MarkerIndex index = new MarkerIndex();
+        cu.accept(new MarkerIndexVisitor(), index);
+        cu.setData(DATA_KEY, index);
+        return index;
+    }
+
+    public ExpressionStmt find(GenericStringVisitor visitor, String scope) {
+        return find(visitor.getComment(), visitor.getMethodName(), scope);
+    }
+
+    public ExpressionStmt find(LineComment comment, String methodName, String scope) {
+        if (scope == null) {
+            return firstByMarker.get(new Key(comment.getContent(), methodName, null));
+        }
+        return byScope.get(new Key(comment.getContent(), methodName, scope));
+    }
+
+    /**
+     * Adds a statement found in the source, the first one wins.
+     */
+    void add(ExpressionStmt stmt) {
+        Key key = toKey(stmt);
+        if (key != null) {
+            byScope.putIfAbsent(key, stmt);
+            firstByMarker.putIfAbsent(key.withoutScope(), stmt);
+        }
+    }
+
+    /**
+     * Keeps the index in sync when a modification inserts a new statement or
+     * replaces an existing one.
+     *
+     * @param oldStmt the replaced statement, null for an insertion
+     * @param newStmt the new statement
+     */
+    public void update(ExpressionStmt oldStmt, ExpressionStmt newStmt) {
+        Key key = newStmt != null ? toKey(newStmt) : null;
+        if (oldStmt != null) {
+            byScope.values().removeIf(stmt -> stmt == oldStmt);
+            // a replacement keeps the position of the replaced statement
+            if (key != null) {
+                firstByMarker.replaceAll((k, stmt) ->
+                        stmt == oldStmt && k.equals(key.withoutScope()) ? newStmt : stmt);
+            }
+            firstByMarker.values().removeIf(stmt -> stmt == oldStmt);
+        }
+        if (key != null) {
+            byScope.put(key, newStmt);
+            firstByMarker.putIfAbsent(key.withoutScope(), newStmt);
+        }
+    }
+
+    private static Key toKey(ExpressionStmt stmt) {
+        if (!stmt.getExpression().isMethodCallExpr()) {
+            return null;
+        }
+        String marker = stmt.getComment()
+                .filter(Comment::isLineComment)
+                .map(Comment::getContent)
+                .filter(content -> content.startsWith(MARKER_PREFIX))
+                .orElse(null);
+        if (marker == null) {
+            return null;
+        }
+        MethodCallExpr methodCallExpr = stmt.getExpression().asMethodCallExpr();
+        return new Key(marker, methodCallExpr.getNameAsString(),
+                methodCallExpr.getScope().map(Expression::toString).orElse(null));
+    }
+
+    private record Key(String marker, String methodName, String scope) {
+        private Key withoutScope() {
+            return new Key(marker, methodName, null);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.vaadin.addons.accessibility.visitors;
+
+/*-
+ * #%L
+ * Accessibility checker
+ * %%
+ * Copyright (C) 2023 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+
+/**
+ * Collects all the statements generated by the plugin in one traversal.
+ */
+public class MarkerIndexVisitor extends VoidVisitorAdapter<MarkerIndex> {
+
+    @Override
+    public void visit(ExpressionStmt n, MarkerIndex index) {
+        index.add(n);
+        super.visit(n, index);
+    }
+}
@@ -0,0 +1,76 @@
+import {IEngineResult} from "accessibility-checker/lib/common/engine/IReport";
+import {ACIgnoredRule} from "./accessibility-checker-types";
+
+interface CompiledIgnoredRule {
+    htmlTag: string;
+    /** tag name of the node, upper case **/
+    nodeTagName: string;
+    lastTag?: boolean;
+}
+
+/**
+ * The ignored rules indexed by rule id, so an issue is only matched against the rules of its rule id and the rules
+ * without rule id. The tags of the dom path of the issue are split once, only if a rule needs them.
+ */
+export class IgnoredRulesMatcher {
+
+    private ignoreAll = false;
+    /** rule ids ignored for all the tags **/
+    private readonly ignoredRuleIds = new Set<string>();
+    /** rules without rule id **/
+    private readonly anyRuleId: CompiledIgnoredRule[] = [];
+    private readonly rulesByRuleId = new Map<string, CompiledIgnoredRule[]>();
+
+    constructor(ignoredRules: ACIgnoredRule[]) {
+        for (const ignoredRule of ignoredRules) {
+            if (ignoredRule.htmlTag == undefined) {
+                if (ignoredRule.ruleId == undefined) {
+                    this.ignoreAll = true;
+                } else {
+                    this.ignoredRuleIds.add(ignoredRule.ruleId);
+                }
+                continue;
+            }
+            const compiled = {
+                htmlTag: ignoredRule.htmlTag.toLowerCase(),
+                nodeTagName: ignoredRule.htmlTag.toUpperCase(),
+                lastTag: ignoredRule.lastTag
+            };
+            if (ignoredRule.ruleId == undefined) {
+                this.anyRuleId.push(compiled);
+            } else {
+                const rules = this.rulesByRuleId.get(ignoredRule.ruleId) ?? [];
+                rules.push(compiled);
+                this.rulesByRuleId.set(ignoredRule.ruleId, rules);
+            }
+        }
+    }
+
+    isIgnored(issue: IEngineResult): boolean {
+        if (this.ignoreAll || this.ignoredRuleIds.has(issue.ruleId)) {
+            return true;
+        }
+        const rules = this.rulesByRuleId.get(issue.ruleId);
+        if (this.anyRuleId.length == 0 && rules == undefined) {
+            return false;
+        }
+        const tags = getPathTags(issue);
+        const tagName = (issue.node as HTMLElement).tagName;
+        const matches = (rule: CompiledIgnoredRule) => tags.has(rule.htmlTag)
+            && (rule.lastTag == undefined || rule.lastTag == (tagName === rule.nodeTagName));
+        return this.anyRuleId.some(matches) || (rules != undefined && rules.some(matches));
+    }
+}
+
+/**
+ * @return the tags of the dom path of the issue, for example "/html[1]/body[1]/vaadin-grid[1]" gives html, body and
+ * vaadin-grid
+ */
+function getPathTags(issue: IEngineResult): Set<string> {
+    const tags = new Set<string>();
+    for (const step of issue.path.dom.split("/")) {
+        const index = step.indexOf("[");
+        tags.add((index < 0 ? step : step.substring(0, index)).toLowerCase());
+    }
+    return tags;
+}
@@ -1,12 +1,135 @@
+let accessibilityChecker;
 
+/**
+ * Loads the accessibility checker engine of the pinned npm package, only once
+ * and only when it's needed. A failed load is tried again by the next call.
+ */
+export function loadAccessibilityChecker() {
+    if (!accessibilityChecker) {
+        accessibilityChecker = import("accessibility-checker-engine/ace.js")
+            .then(module => module.default?.Checker ? module.default : (module.Checker ? module : window.ace))
+            .catch(error => {
+                accessibilityChecker = undefined;
+                throw error;
+            });
+    }
+    return accessibilityChecker;
+}
 
-export function runAccessibilityCheck(document) {
-    return sleep(1).then(() => {
-        const checker = new ace.Checker();
-        return checker.check(document, ["WCAG_2_1"]);
+/** Rules evaluated on html, head and body, the chunks of the page never contain these elements **/
+export const DOCUMENT_RULES = ["page_title_exists", "skip_main_exists", "html_lang_exists"];
+
+const DOCUMENT_RULESET = "VAADIN_ACCESSIBILITY_CHECKER_DOCUMENT";
+
+/** Time given to the engine in a frame, the rest is left to the page **/
+const FRAME_BUDGET_MS = 12;
+
+const requestIdle = window.requestIdleCallback
+    ? (callback) => window.requestIdleCallback(callback, {timeout: 500})
+    : (callback) => setTimeout(() => callback({timeRemaining: () => FRAME_BUDGET_MS}), 1);
+
+/**
+ * Adds a ruleset with only the document rules of WCAG 2.1, so the document is
+ * walked without evaluating the rules of the other elements.
+ *
+ * @return true if the ruleset is available
+ */
+function addDocumentRuleset(checker) {
+    if (typeof checker.addRuleset !== "function") {
+        return false;
+    }
+    const rulesets = checker.getGuidelines?.() ?? checker.getRulesets?.() ?? checker.rulesets ?? [];
+    if (rulesets.some(ruleset => ruleset.id === DOCUMENT_RULESET)) {
+        return true;
+    }
+    const wcag = rulesets.find(ruleset => ruleset.id === "WCAG_2_1");
+    if (!wcag) {
+        return false;
+    }
+    checker.addRuleset({
+        ...wcag,
+        id: DOCUMENT_RULESET,
+        name: "Document rules",
+        checkpoints: wcag.checkpoints
+            .map(checkpoint => ({
+                ...checkpoint,
+                rules: (checkpoint.rules ?? []).filter(rule => DOCUMENT_RULES.includes(rule.id))
+            }))
+            .filter(checkpoint => checkpoint.rules.length > 0)
     });
+    return true;
+}
+
+/**
+ * Checks a root of the page: the whole subtree of the element, only the
+ * element itself or only the document rules.
+ *
+ * @return the results of the root
+ */
+async function checkRoot(checker, root, documentRuleset) {
+    if (root.scope === "document") {
+        const report = await checker.check(root.element, [documentRuleset ? DOCUMENT_RULESET : "WCAG_2_1"]);
+        return report.results.filter(result => DOCUMENT_RULES.includes(result.ruleId));
+    }
+    const report = await checker.check(root.element, ["WCAG_2_1"]);
+    // the descendants of a split element are checked in their own chunks
+    return root.scope === "element"
+        ? report.results.filter(result => result.node === root.element)
+        : report.results;
 }
 
-function sleep(ms) {
-    return new Promise(resolve => setTimeout(resolve, ms));
-}
\ No newline at end of file
+/**
+ * Checks the roots one by one in the idle time of the browser. The results
+ * of each root are passed to onResults as soon as they are available, then
+ * onDone is called. If the engine can't be loaded or fails, onError is called
+ * with the error before onDone.
+ *
+ * @return a function cancelling the check
+ */
+export function runChunkedAccessibilityCheck(roots, onResults, onDone, onError) {
+    let cancelled = false;
+    let index = 0;
+    let lastDuration = 0;
+    const fail = (error) => {
+        if (!cancelled) {
+            onError(error);
+            onDone();
+        }
+    };
+    const runSlice = async (checker, documentRuleset, deadline) => {
+        const sliceStart = performance.now();
+        // the next root is checked in the same slice if the previous one was fast enough
+        do {
+            const root = roots[index++];
+            if (!root.element.isConnected) {
+                continue;
+            }
+            const start = performance.now();
+            const results = await checkRoot(checker, root, documentRuleset);
+            lastDuration = performance.now() - start;
+            if (cancelled) {
+                return;
+            }
+            onResults(root, results);
+        } while (index < roots.length
+            && lastDuration < Math.min(deadline.timeRemaining(), FRAME_BUDGET_MS - (performance.now() - sliceStart)));
+        if (index < roots.length) {
+            requestIdle(deadline => runSlice(checker, documentRuleset, deadline).catch(fail));
+        } else {
+            onDone();
+        }
+    };
+    loadAccessibilityChecker().then(ace => {
+        if (cancelled) {
+            return;
+        }
+        const checker = new ace.Checker();
+        const documentRuleset = addDocumentRuleset(checker);
+        if (roots.length === 0) {
+            onDone();
+        } else {
+            requestIdle(deadline => runSlice(checker, documentRuleset, deadline).catch(fail));
+        }
+    }).catch(fail);
+    return () => cancelled = true;
+}
@@ -36,10 +36,13 @@ export const getStyles = css`
 }
 
 .result-list {
-    list-style-type: none;
     margin: 0;
     padding: 0;
     overflow: auto;
+    /* the virtual list needs a height, it shrinks in the container */
+    height: 50vh;
+    min-height: 0;
+    flex: 1 1 auto;
 }
 
 .result {
@@ -92,6 +95,11 @@ h3.component {
     flex-grow: 1;
 }
 
+.component-location {
+    color: #A0A0A0;
+    margin-right: 0.5rem;
+}
+
 .component-solved {
     color: hsl(144, 83%, 44%);
 }
@@ -217,6 +225,41 @@ code {
     margin-right: 3px;
 }
 
+.history {
+    padding: 0.75rem;
+    max-height: 40vh;
+    overflow: auto;
+}
+
+.history table {
+    border-collapse: collapse;
+    width: 100%;
+}
+
+.history th, .history td {
+    border-bottom: 1px solid #3C3C3C;
+    padding: 0.25rem 0.5rem;
+    text-align: right;
+}
+
+.history th:first-child, .history td:first-child {
+    text-align: left;
+}
+
+.histogram {
+    display: flex;
+    align-items: flex-end;
+    justify-content: flex-end;
+    gap: 1px;
+    height: 16px;
+}
+
+.histogram-bar {
+    display: inline-block;
+    width: 4px;
+    background: #9e2cc6;
+}
+
 .loading-icon {
     display: inline-block;
     width: 14px;
@@ -1,13 +1,19 @@
 
-import {IEngineResult} from "accessibility-checker/lib/common/engine/IReport";
-
 export enum ACRuleCategory {
     VIOLATION = "VIOLATION",
     RECOMMENDATION = "RECOMMENDATION",
     NEED_REVIEW = "NEED_REVIEW"
 }
 
-export type ACRuleDetails = IEngineResult & {
+/**
+ * Issue of the report. Only what the list needs is kept: the node is held weakly so the report doesn't keep the
+ * removed views in memory and the snippet is computed when the details are displayed.
+ */
+export type ACRuleDetails = {
+    ruleId: string;
+    /** interned, the issues of a rule usually have the same message **/
+    message: string;
+    nodeRef: WeakRef<Node>;
     tagName: string;
     ruleCategory: ACRuleCategory;
     solved: boolean;
@@ -29,4 +35,135 @@ export interface ACIgnoredRule {
      * Note the htmlTag is required to use true/false
      */
     lastTag?: boolean;
-}
\ No newline at end of file
+}
+/**
+ * Part of the page checked in one chunk: the subtree of the element, only the element itself when its subtree is
+ * split into several chunks, or only the rules of the document
+ */
+export interface ACCheckRoot {
+    element: HTMLElement;
+    scope: "subtree" | "element" | "document";
+}
+
+export type ACFixType = "label" | "aria-label" | "title" | "alt-text";
+
+export interface ACFix {
+    nodeId: number;
+    uiId: number;
+    type: ACFixType;
+    value: string;
+}
+
+export interface ACFixResult {
+    /**
+     * Position of the fix in the batch
+     */
+    index: number;
+    nodeId: number;
+    uiId: number;
+    success: boolean;
+    message?: string;
+    /**
+     * Nodes of the same UI created at the same location, solved by the same fix
+     */
+    nodeIds: number[];
+}
+
+/**
+ * Issue found by the server on the component tree
+ */
+export interface ACComponentIssue {
+    nodeId: number;
+    /**
+     * Id of the matching rule of the accessibility checker engine
+     */
+    ruleId: string;
+    message: string;
+}
+
+/**
+ * Issue sent to the server to be stored in the report history
+ */
+export interface ACStoredIssue {
+    /**
+     * Component of the issue, the server stores where it was created
+     */
+    nodeId?: number;
+    ruleId: string;
+    category: ACRuleCategory;
+    tagName: string;
+    message: string;
+}
+
+/**
+ * Summary of a stored check of the route
+ */
+export interface ACRunSummary {
+    runId: number;
+    timestamp: number;
+    issueCount: number;
+    /**
+     * Number of issues by category
+     */
+    categories: Partial<Record<ACRuleCategory, number>>;
+}
+
+export interface ACReportHistory {
+    route: string;
+    /**
+     * Last checks of the route, the oldest first
+     */
+    runs: ACRunSummary[];
+    /**
+     * Rules of the last check, the most frequent first
+     */
+    rules: {ruleId: string, count: number}[];
+}
+
+/**
+ * Issues of a rule or of a source file in the last check of each route of the report history
+ */
+export interface ACFoundIssues {
+    ruleId?: string;
+    file?: string;
+    /**
+     * The routes with at least one issue, sorted by route
+     */
+    routes: {
+        route: string,
+        issues: {ruleId: string, category: ACRuleCategory, tagName: string, file?: string, line?: number}[]
+    }[];
+}
+
+/**
+ * Where the component of an issue was created, the file is relative to the project folder
+ */
+export interface ACSourceLocation {
+    file: string;
+    line: number;
+}
+
+/**
+ * Durations of a phase of a command of the server, in µs
+ */
+export interface ACPhaseMetrics {
+    command: string;
+    phase: string;
+    count: number;
+    p50: number;
+    p90: number;
+    p99: number;
+    max: number;
+    /**
+     * Counts of the buckets of the histogram
+     */
+    buckets: number[];
+}
+
+export interface ACMetrics {
+    /**
+     * Upper bounds of the buckets in µs, the last bucket has no upper bound
+     */
+    bucketBounds: number[];
+    phases: ACPhaseMetrics[];
+}
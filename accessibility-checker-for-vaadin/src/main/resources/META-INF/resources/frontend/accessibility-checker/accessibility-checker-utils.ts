@@ -6,23 +6,59 @@
  * That might need to be refined
  * @param node
  */
-import {ComponentReference, getComponents} from "./copy-component-util";
-import {ACRuleCategory} from "./accessibility-checker-types";
+import {ComponentReference, getComponent} from "./copy-component-util";
+import {ACCheckRoot, ACRuleCategory, ACRuleDetails} from "./accessibility-checker-types";
 
 import {
     eRuleConfidence,
-    eRulePolicy, IEngineResult
+    eRulePolicy
 } from "accessibility-checker/lib/common/engine/IReport";
 
 export function getComponentForNode(node: Node): ComponentReference | undefined {
     const elementForNode = getElementForNode(node);
     if (elementForNode) {
-        const componentList = getComponents(elementForNode);
-        return componentList[componentList.length - 1];
+        return getNearestComponent(elementForNode);
     }
     return undefined;
 }
 
+/** Nearest component of the elements, null if there is none **/
+let componentCache = new WeakMap<HTMLElement, ComponentReference | null>();
+
+/**
+ * Clear the components of the elements, to call before a check since the components can change between two checks
+ */
+export function clearComponentCache() {
+    componentCache = new WeakMap();
+}
+
+/**
+ * Same as the last component of getComponents, the result is cached for the element and all the ancestors walked
+ * through, so the issues of the same component share the lookups
+ * @param element
+ */
+function getNearestComponent(element: HTMLElement): ComponentReference | undefined {
+    const walked: HTMLElement[] = [];
+    let component: ComponentReference | null = null;
+    let current: HTMLElement | undefined = element;
+    while (current && current.parentNode) {
+        const cached = componentCache.get(current);
+        if (cached !== undefined) {
+            component = cached;
+            break;
+        }
+        walked.push(current);
+        const candidate = getComponent(current);
+        if (candidate.nodeId !== -1) {
+            component = candidate.element?.tagName.startsWith('FLOW-CONTAINER-') ? null : candidate;
+            break;
+        }
+        current = current.parentElement ? current.parentElement : ((current.parentNode as ShadowRoot).host as HTMLElement);
+    }
+    walked.forEach(walkedElement => componentCache.set(walkedElement, component));
+    return component ?? undefined;
+}
+
 export function  getElementForNode(node: Node) {
     if (node instanceof HTMLElement) {
         const rootNode = node.getRootNode();
@@ -39,6 +75,24 @@ export function  getElementForNode(node: Node) {
     return undefined;
 }
 
+export function getNodeForNodeId(nodeId: number): Node | undefined {
+    const vaadin = (window as any).Vaadin;
+    if (vaadin && vaadin.Flow) {
+        const { clients } = vaadin.Flow;
+        const appIds = Object.keys(clients);
+        for (const appId of appIds) {
+            const client = clients[appId];
+            if (client.getByNodeId) {
+                const node = client.getByNodeId(nodeId);
+                if (node) {
+                    return node;
+                }
+            }
+        }
+    }
+    return undefined;
+}
+
 export function  getUiId() {
     const vaadin = (window as any).Vaadin;
     if (vaadin && vaadin.Flow) {
@@ -69,14 +123,30 @@ export function getRuleCategory(rulePolicy: eRulePolicy, ruleConfidence: eRuleCo
 }
 
 
-export function getTagName(ruleDetail: IEngineResult) {
-    const component = getComponentForNode(ruleDetail.node);
+export function getTagName(node: Node) {
+    const component = getComponentForNode(node);
     if (component?.element) {
         return component?.element?.tagName;
     }
     return "Global issue";
 }
 
+/**
+ * @return the node of the issue, null if it has been removed and garbage collected
+ * @param issue
+ */
+export function getIssueNode(issue: ACRuleDetails): Node | null {
+    return issue.nodeRef.deref() ?? null;
+}
+
+/**
+ * @return the start tag of the element, as the snippet of the engine
+ * @param node
+ */
+export function getSnippet(node: Node) {
+    return (node as HTMLElement).outerHTML?.match(/^<[^>]*>/)?.[0] ?? "";
+}
+
 export function highlight(node:Node | null) {
     if (node) {
         const elementForNode = getElementForNode(node);
@@ -86,6 +156,20 @@ export function highlight(node:Node | null) {
     }
 }
 
+/**
+ * Check if the mutation only added or removed the highlight of the checker
+ * @param mutation
+ */
+export function isHighlightMutation(mutation: MutationRecord) {
+    if (mutation.type !== "attributes" || mutation.attributeName !== "class") {
+        return false;
+    }
+    const withoutHighlight = (value: string | null) => (value ?? "").split(" ")
+        .filter(className => className && className !== 'vaadin-accessibility-checker-highlight')
+        .sort().join(" ");
+    return withoutHighlight(mutation.oldValue) === withoutHighlight((mutation.target as Element).getAttribute("class"));
+}
+
 export function resetHighlight(node:Node | null) {
     if (node) {
         const elementForNode = getElementForNode(node);
@@ -93,4 +177,54 @@ export function resetHighlight(node:Node | null) {
             elementForNode.classList.remove('vaadin-accessibility-checker-highlight');
         }
     }
-}
\ No newline at end of file
+}
+
+/** Subtrees with more elements are split into their children to be checked in several chunks **/
+const MAX_CHUNK_ELEMENTS = 300;
+
+/**
+ * Split the page into subtrees small enough to be checked without freezing the page, in the document order.
+ * A split element is checked on its own after its children, the document rules first. The dev tools are not
+ * checked.
+ */
+export function getCheckRoots(): ACCheckRoot[] {
+    const roots: ACCheckRoot[] = [getDocumentRoot()];
+    const split = (element: HTMLElement) => {
+        const children = getChildElements(element);
+        if (children.length > 0 && countElements(element, MAX_CHUNK_ELEMENTS) > MAX_CHUNK_ELEMENTS) {
+            children.forEach(split);
+            roots.push({element, scope: "element"});
+        } else {
+            roots.push({element, scope: "subtree"});
+        }
+    };
+    getChildElements(document.body).forEach(split);
+    return roots;
+}
+
+/**
+ * The root checking the rules of html, head and body
+ */
+export function getDocumentRoot(): ACCheckRoot {
+    return {element: document.documentElement, scope: "document"};
+}
+
+function getChildElements(element: HTMLElement): HTMLElement[] {
+    return [...Array.from(element.children), ...Array.from(element.shadowRoot?.children ?? [])]
+        .filter((child): child is HTMLElement => child instanceof HTMLElement
+            && !["SCRIPT", "STYLE", "SLOT", "TEMPLATE", "VAADIN-DEV-TOOLS"].includes(child.tagName));
+}
+
+/**
+ * Count the elements of the subtree, including the shadow roots, up to the limit
+ */
+function countElements(element: Element, limit: number): number {
+    let count = 1;
+    for (const child of [...Array.from(element.children), ...Array.from(element.shadowRoot?.children ?? [])]) {
+        count += countElements(child, limit - count);
+        if (count > limit) {
+            break;
+        }
+    }
+    return count;
+}
@@ -3,8 +3,8 @@ import {customElement, property, state} from 'lit/decorators.js';
 
 import {IEngineResult} from "accessibility-checker/lib/common/engine/IReport";
 // @ts-ignore
-import {runAccessibilityCheck} from "./accessibility-checker-lib.js";
-import {ComponentReference} from "./copy-component-util";
+import {DOCUMENT_RULES, loadAccessibilityChecker, runChunkedAccessibilityCheck} from "./accessibility-checker-lib.js";
+import {ComponentReference, deepContains} from "./copy-component-util";
 
 import type {
     DevToolsInterface,
@@ -16,10 +16,14 @@ import type {
 import {injectGlobalCss} from "./copy-styles";
 import {ThemeEditor} from "Frontend/generated/jar-resources/vaadin-dev-tools/theme-editor/editor";
 import {SelectChangeEvent} from "@vaadin/select";
+import type {VirtualList} from "@vaadin/virtual-list";
+import "@vaadin/virtual-list/vaadin-virtual-list.js";
+import {virtualListRenderer} from "@vaadin/virtual-list/lit.js";
 import {getStyles} from "./accessibility-checker-styles";
-import {ACIgnoredRule, ACRuleCategory, ACRuleDetails} from "./accessibility-checker-types";
+import {ACCheckRoot, ACComponentIssue, ACFix, ACFixResult, ACFoundIssues, ACIgnoredRule, ACMetrics, ACReportHistory, ACRuleCategory, ACRuleDetails, ACSourceLocation, ACStoredIssue} from "./accessibility-checker-types";
+import {IgnoredRulesMatcher} from "./accessibility-checker-ignored-rules";
 import {getIconByRuleCategory, getBackIcon, getBackToListIcon, getNextIcon, getDetailsIcon} from "./accessibility-checker-icons";
-import {getComponentForNode, getElementForNode, getUiId, getRuleCategory, getTagName, highlight, resetHighlight} from "./accessibility-checker-utils";
+import {clearComponentCache, getCheckRoots, getComponentForNode, getDocumentRoot, getElementForNode, getIssueNode, getNodeForNodeId, getUiId, getRuleCategory, getSnippet, getTagName, highlight, isHighlightMutation, resetHighlight} from "./accessibility-checker-utils";
 
 
 injectGlobalCss(css`
@@ -44,7 +48,15 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
     @property()
     report?: ACRuleDetails[];
 
+    /** Sort the issues by the file and line where their component was created **/
+    @property()
+    sortByLocation = false;
+
     filteredReport?: ACRuleDetails[];
+    /** Number of issues of each category, computed when the report changes **/
+    private categoryCounts = new Map<ACRuleCategory, number>();
+    /** Tag names of the issues, computed when the report changes **/
+    private reportTagNames: string[] = [];
 
     @property()
     detail?: ACRuleDetails;
@@ -57,14 +69,65 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
 
     private node: Node | null = null;
 
-    private scrollPosition = 0;
     private debugMode = false;
 
     @state()
     private checkRunning = false;
 
-    /** Ignored rule id, preferably to be configured and loaded in the init method **/
-    ignoredRules: ACIgnoredRule[] = [
+    /** Issues found by the accessibility checker engine in the browser **/
+    private engineReport?: ACRuleDetails[];
+    /** Frame adding the issues found since the previous one to the report, the report is updated once per frame **/
+    private reportUpdateFrame?: number;
+    /** Issues found by the server on the component tree, available before the engine finishes **/
+    private componentIssues: ACRuleDetails[] = [];
+
+    /** Where the components of the report were created, by node id **/
+    @state()
+    private locations = new Map<number, ACSourceLocation>();
+    /** Components whose location was requested, resolved or not **/
+    private requestedLocations = new Set<number>();
+
+    /** Messages of the report, each message is stored once **/
+    private messages = new Map<string, string>();
+
+    /** Cancels the running check, if any **/
+    private cancelRunningCheck?: () => void;
+
+    /** Id of the running check in the report history of the server **/
+    private storeRunId?: string;
+    private storeRunCount = 0;
+
+    /** Last checks of the current route, displayed before the first check **/
+    @state()
+    private history?: ACReportHistory;
+
+    /** Issues of a rule or a file in the other routes, displayed on demand **/
+    @state()
+    private foundIssues?: ACFoundIssues;
+
+    /** Durations of the commands of the server, displayed on demand **/
+    @state()
+    private metrics?: ACMetrics;
+    @state()
+    private showMetrics = false;
+
+    /** Result of the last export of the report history **/
+    @state()
+    private exportMessage?: string;
+
+    /** Above this number of changed components the whole page is checked again **/
+    private static MAX_CHANGED_ROOTS = 50;
+    private mutationObserver?: MutationObserver;
+    /** Page observed by the mutation observer, it's stopped after a navigation **/
+    private observedLocation?: string;
+    /**
+     * Elements of the components changed since the last check, undefined if the whole page must be checked. They are
+     * weakly referenced so the removed views are not kept until the next check
+     **/
+    private changedRoots?: {refs: WeakRef<HTMLElement>[], elements: WeakSet<HTMLElement>};
+
+    /** Ignored rules of the Vaadin components, the rules of the project are sent by the server **/
+    static defaultIgnoredRules: ACIgnoredRule[] = [
         {htmlTag: "vaadin-dev-tools"},
         {htmlTag: "vite-plugin-checker-error-overlay"},
         {htmlTag: "vaadin-connection-indicator"},
@@ -92,36 +155,335 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
         {ruleId: "aria_attribute_redundant", htmlTag: "vaadin-combo-box"}, // disable the error with aria-disabled + disabled
     ];
 
+    private ignoredRulesMatcher = new IgnoredRulesMatcher(AccessibilityChecker.defaultIgnoredRules);
+
     startTests() {
+        this.cancelCheck();
+        const changedRoots = this.takeChangedRoots();
+        if (this.engineReport !== undefined && changedRoots !== undefined) {
+            this.runIncrementalCheck(changedRoots);
+        } else {
+            this.runFullCheck();
+        }
+    }
+
+    private runFullCheck() {
+        this.filterTagName = "";
+        this.filterRuleCategory = undefined;
+        this.engineReport = [];
+        this.report = [];
+        this.messages.clear();
+        this.clearLocations();
+        this.observeMutations();
+        this.runCheck(getCheckRoots(), "Time elapsed");
+    }
+
+    /**
+     * Check only the components changed since the last check and the document rules, the issues of the other
+     * components are kept and the issues of the removed nodes are dropped
+     * @param changedRoots
+     * @private
+     */
+    private runIncrementalCheck(changedRoots: HTMLElement[]) {
+        const isChecked = (node: Node) => changedRoots.some(root => deepContains(root, node));
+        this.engineReport = this.engineReport!.filter(issue => {
+            const node = getIssueNode(issue);
+            return node !== null && node.isConnected && !isChecked(node) && !DOCUMENT_RULES.includes(issue.ruleId);
+        });
+        const roots: ACCheckRoot[] = changedRoots.map(element => ({element, scope: "subtree"}));
+        this.runCheck([getDocumentRoot(), ...roots], `${changedRoots.length} changed components checked`);
+    }
+
+    /**
+     * Check the roots in the idle time of the browser, the issues of each root are added to the report as soon as
+     * they are found. If the check fails, the error is shown and the run is not stored.
+     * @param roots
+     * @param description logged with the duration at the end
+     * @private
+     */
+    private runCheck(roots: ACCheckRoot[], description: string) {
         this.checkRunning = true;
-        // reset the scroll position
-        this.scrollPosition = 0;
-        runAccessibilityCheck(document).then(
-            (accessibilityCheckResult: any) => {
-                const start = new Date().getTime()
+        clearComponentCache();
+        this.checkComponents();
+        const start = new Date().getTime();
+        const location = window.location.href;
+        const storeRunId = `${start}-${++this.storeRunCount}`;
+        this.storeRunId = storeRunId;
+        // the issues kept by an incremental check are part of this run
+        this.storeIssues(storeRunId, this.engineReport!);
+        let failed = false;
+        const navigated = () => {
+            if (window.location.href === location) {
+                return false;
+            }
+            // the user navigated, the results are not relevant anymore and the run must not be stored for the new route
+            this.cancelCheck();
+            this.stopObservingMutations();
+            return true;
+        };
+        this.cancelRunningCheck = runChunkedAccessibilityCheck(roots,
+            (root: ACCheckRoot, results: IEngineResult[]) => {
+                if (navigated()) {
+                    return;
+                }
                 // Remove passing issues
-                this.report = accessibilityCheckResult.results.filter(
-                    (issue: IEngineResult) => {
-                        return this.validateRuleDetails(issue);
+                const issues = results.filter(issue => deepContains(root.element, issue.node) && this.validateRuleDetails(issue))
+                    .map(ruleDetail => this.toEngineRuleDetails(ruleDetail));
+                if (issues.length > 0) {
+                    for (const issue of issues) {
+                        this.engineReport!.push(issue);
                     }
-                ).map((ruleDetail: IEngineResult) => ({
-                    ...ruleDetail,
-                    tagName: getTagName(ruleDetail),
-                    ruleCategory: getRuleCategory(ruleDetail.value[0], ruleDetail.value[1]),
-                    solved: false
-                }));
-
-                const duration = new Date().getTime() - start;
-                if (duration > 500) {
-                    console.error(`Time elapsed ${duration / 1000}s`);
+                    this.scheduleReportUpdate();
+                    this.storeIssues(storeRunId, issues);
+                }
+            },
+            () => {
+                // the roots removed by a navigation are skipped without results
+                if (navigated()) {
+                    return;
+                }
+                this.cancelRunningCheck = undefined;
+                this.cancelReportUpdate();
+                this.report = this.mergeComponentIssues(this.engineReport!);
+                if (failed) {
+                    // the next check covers the whole page
+                    this.engineReport = undefined;
+                    this.abortStoredRun();
                 } else {
-                    console.debug(`Time elapsed ${duration / 1000}s`);
+                    // the issues of the server that the engine didn't find complete the run
+                    this.storeIssues(storeRunId, this.report.slice(this.engineReport!.length), true);
+                    this.storeRunId = undefined;
                 }
-                this.filterTagName = "";
-                this.filterRuleCategory = undefined;
+                this.resolveLocations();
                 this.checkRunning = false;
+                console.debug(`${description} ${(new Date().getTime() - start) / 1000}s`);
+            },
+            (error: unknown) => {
+                failed = true;
+                console.error(error);
+                this.errorMessage = `The accessibility check failed: ${error}`;
+            });
+    }
+
+    /**
+     * Stop the running check, the next check will check the whole page
+     * @private
+     */
+    private cancelCheck() {
+        this.cancelReportUpdate();
+        if (this.cancelRunningCheck) {
+            this.cancelRunningCheck();
+            this.cancelRunningCheck = undefined;
+            this.engineReport = undefined;
+            this.checkRunning = false;
+        }
+        this.abortStoredRun();
+    }
+
+    /**
+     * Update the report with the issues found by the engine in the next frame. The chunks checked in the same frame
+     * are merged, filtered and rendered once instead of once per chunk
+     * @private
+     */
+    private scheduleReportUpdate() {
+        if (this.reportUpdateFrame === undefined) {
+            this.reportUpdateFrame = requestAnimationFrame(() => {
+                this.reportUpdateFrame = undefined;
+                if (this.engineReport !== undefined) {
+                    this.report = this.mergeComponentIssues(this.engineReport);
+                }
+            });
+        }
+    }
+
+    private cancelReportUpdate() {
+        if (this.reportUpdateFrame !== undefined) {
+            cancelAnimationFrame(this.reportUpdateFrame);
+            this.reportUpdateFrame = undefined;
+        }
+    }
+
+    /**
+     * Drop the issues of the running check already sent to the server
+     * @private
+     */
+    private abortStoredRun() {
+        if (this.storeRunId !== undefined) {
+            devTools.send(`${AccessibilityChecker.NAME}-store-issues`, {
+                uiId: getUiId(),
+                runId: this.storeRunId,
+                cancelled: true
+            });
+            this.storeRunId = undefined;
+        }
+    }
+
+    /**
+     * Send the issues to the server to be stored in the report history with the location of their component
+     * @param runId
+     * @param issues
+     * @param done true for the last issues of the run
+     * @private
+     */
+    private storeIssues(runId: string, issues: ACRuleDetails[], done = false) {
+        if (issues.length == 0 && !done) {
+            return;
+        }
+        const storedIssues: ACStoredIssue[] = issues.map(issue => {
+            const node = getIssueNode(issue);
+            return {
+                nodeId: node !== null ? getComponentForNode(node)?.nodeId : undefined,
+                ruleId: issue.ruleId,
+                category: issue.ruleCategory,
+                tagName: issue.tagName,
+                message: issue.message
+            };
+        });
+        devTools.send(`${AccessibilityChecker.NAME}-store-issues`, {
+            uiId: getUiId(),
+            runId: runId,
+            issues: storedIssues,
+            done: done
+        });
+    }
+
+    private toEngineRuleDetails(ruleDetail: IEngineResult): ACRuleDetails {
+        return {
+            ruleId: ruleDetail.ruleId,
+            message: this.intern(ruleDetail.message),
+            nodeRef: new WeakRef(ruleDetail.node),
+            tagName: getTagName(ruleDetail.node),
+            ruleCategory: getRuleCategory(ruleDetail.value[0], ruleDetail.value[1]),
+            solved: false
+        };
+    }
+
+    private intern(message: string) {
+        const interned = this.messages.get(message);
+        if (interned !== undefined) {
+            return interned;
+        }
+        this.messages.set(message, message);
+        return message;
+    }
+
+    private getIssueNodeId(issue: ACRuleDetails) {
+        const node = getIssueNode(issue);
+        return node !== null ? getComponentForNode(node)?.nodeId : undefined;
+    }
+
+    private getIssueLocation(issue: ACRuleDetails) {
+        const nodeId = this.getIssueNodeId(issue);
+        return nodeId !== undefined ? this.locations.get(nodeId) : undefined;
+    }
+
+    /**
+     * Request the locations of all the components of the report not requested yet in one message
+     * @private
+     */
+    private resolveLocations() {
+        const nodeIds: number[] = [];
+        for (const issue of this.report ?? []) {
+            const nodeId = this.getIssueNodeId(issue);
+            if (nodeId !== undefined && !this.requestedLocations.has(nodeId)) {
+                this.requestedLocations.add(nodeId);
+                nodeIds.push(nodeId);
             }
-        );
+        }
+        if (nodeIds.length > 0) {
+            devTools.send(`${AccessibilityChecker.NAME}-resolve-locations`, {
+                uiId: getUiId(),
+                nodeIds: nodeIds
+            });
+        }
+    }
+
+    private clearLocations() {
+        this.locations = new Map();
+        this.requestedLocations.clear();
+    }
+
+    private checkComponents() {
+        this.componentIssues = [];
+        devTools.send(`${AccessibilityChecker.NAME}-check-components`, {
+            uiId: getUiId()
+        });
+    }
+
+    /**
+     * Start tracking the components changed since the last check
+     * @private
+     */
+    private observeMutations() {
+        this.changedRoots = {refs: [], elements: new WeakSet()};
+        this.observedLocation = window.location.href;
+        if (this.mutationObserver === undefined) {
+            this.mutationObserver = new MutationObserver(mutations => this.collectChangedRoots(mutations));
+            this.mutationObserver.observe(document.body, {
+                subtree: true, childList: true, characterData: true, attributes: true, attributeOldValue: true
+            });
+        }
+    }
+
+    /**
+     * Stop tracking the changed components, the next check covers the whole page
+     * @private
+     */
+    private stopObservingMutations() {
+        this.mutationObserver?.disconnect();
+        this.mutationObserver = undefined;
+        this.observedLocation = undefined;
+        this.changedRoots = undefined;
+    }
+
+    private collectChangedRoots(mutations: MutationRecord[]) {
+        if (window.location.href !== this.observedLocation) {
+            // the whole page of the new route is checked
+            this.stopObservingMutations();
+            return;
+        }
+        for (const mutation of mutations) {
+            if (this.changedRoots === undefined) {
+                // the whole page is checked again anyway, for example after the ignored rules changed
+                this.stopObservingMutations();
+                return;
+            }
+            if (isHighlightMutation(mutation)) {
+                continue;
+            }
+            const target = mutation.target instanceof HTMLElement ? mutation.target : mutation.target.parentElement;
+            if (!target || target.closest("vaadin-dev-tools")) {
+                continue;
+            }
+            const root = getComponentForNode(target)?.element ?? target;
+            if (root === document.body || root === document.documentElement) {
+                this.stopObservingMutations();
+                return;
+            }
+            if (!this.changedRoots.elements.has(root)) {
+                this.changedRoots.elements.add(root);
+                this.changedRoots.refs.push(new WeakRef(root));
+                if (this.changedRoots.refs.length > AccessibilityChecker.MAX_CHANGED_ROOTS) {
+                    // the whole page is checked again
+                    this.stopObservingMutations();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the changed roots not contained in another one, undefined if the whole page must be checked
+     * @private
+     */
+    private takeChangedRoots() {
+        if (this.changedRoots === undefined) {
+            return undefined;
+        }
+        const roots = this.changedRoots.refs.map(ref => ref.deref())
+            .filter((root): root is HTMLElement => root !== undefined && root.isConnected);
+        this.changedRoots = {refs: [], elements: new WeakSet()};
+        return roots.filter(root => !roots.some(other => other !== root && deepContains(other, root)));
     }
 
     openIde(node:Node) {
@@ -140,18 +502,21 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
 
     async backToList() {
         if (this.detail  !== undefined) {
-            resetHighlight(this.detail.node);
+            resetHighlight(getIssueNode(this.detail));
         }
+        const index = this.indexDetail;
         this.detail = undefined;
         this.indexDetail = undefined;
-        // wait for the update and set the scroll position
+        // wait for the update and scroll to the last displayed issue
         await this.updateComplete;
-        (this.renderRoot.querySelector("#result-list") as HTMLElement).scrollTop = this.scrollPosition;
+        if (index !== undefined) {
+            (this.renderRoot.querySelector("#result-list") as VirtualList).scrollToIndex(index);
+        }
     }
 
     back() {
         if (this.detail) {
-            resetHighlight(this.detail.node);
+            resetHighlight(getIssueNode(this.detail));
         }
         if (this.indexDetail) {
             this.indexDetail--;
@@ -162,12 +527,12 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
         }
         if (this.indexDetail !== undefined && this.filteredReport) {
             this.detail = this.filteredReport[this.indexDetail];
-            highlight(this.detail.node);
+            highlight(getIssueNode(this.detail));
         }
     }
     next() {
         if (this.detail !== undefined && this.filteredReport) {
-            resetHighlight(this.detail.node);
+            resetHighlight(getIssueNode(this.detail));
         }
         if (this.indexDetail !== undefined && this.filteredReport && this.indexDetail < this.filteredReport.length - 1) {
             this.indexDetail++;
@@ -177,33 +542,56 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
 
         if (this.filteredReport) {
             this.detail = this.filteredReport[this.indexDetail];
-            highlight(this.detail.node);
+            highlight(getIssueNode(this.detail));
         }
     }
 
     activate() {
+        // load the engine when the tab is opened, not when the page is loaded, a failed load is reported by the check
+        loadAccessibilityChecker().catch((error: unknown) => console.error(error));
         this.checkRunning = false;
+        if (this.report === undefined) {
+            devTools.send(`${AccessibilityChecker.NAME}-report-history`, {
+                uiId: getUiId()
+            });
+        }
         if (this.detail) {
-            highlight(this.detail.node);
+            highlight(getIssueNode(this.detail));
         }
         const vaadinDevTool = (document.getElementsByTagName('vaadin-dev-tools')[0] as VaadinDevTools);
         vaadinDevTool.setJavaLiveReloadActive(false);
     }
 
     deactivate() {
+        // the changes are not tracked while the tab is closed
+        this.stopObservingMutations();
         if (this.detail) {
-            resetHighlight(this.detail.node);
+            resetHighlight(getIssueNode(this.detail));
         }
         const vaadinDevTool = (document.getElementsByTagName('vaadin-dev-tools')[0] as VaadinDevTools);
         vaadinDevTool.setJavaLiveReloadActive(true);
     }
     willUpdate(changedProperties: PropertyValues<this>) {
-        if (changedProperties.has('filterTagName') ||changedProperties.has('filterRuleCategory') || changedProperties.has('report')) {
+        if (changedProperties.has('report')) {
+            this.categoryCounts = new Map();
+            const tagNames = new Set<string>();
+            for (const issue of this.report ?? []) {
+                this.categoryCounts.set(issue.ruleCategory, (this.categoryCounts.get(issue.ruleCategory) ?? 0) + 1);
+                tagNames.add(issue.tagName.toLowerCase());
+            }
+            this.reportTagNames = Array.from(tagNames);
+        }
+        if (changedProperties.has('filterTagName') ||changedProperties.has('filterRuleCategory') || changedProperties.has('report')
+            || changedProperties.has('sortByLocation') || (this.sortByLocation && changedProperties.has('locations'))) {
             if (this.report) {
                 this.filteredReport = this.report.filter(rule =>
                     (this.filterRuleCategory == null || rule.ruleCategory == this.filterRuleCategory)
                     && (this.filterTagName == "" || rule.tagName.toLowerCase() == this.filterTagName)
                 );
+                if (this.sortByLocation) {
+                    const issueLocations = new Map(this.filteredReport.map(issue => [issue, this.getIssueLocation(issue)]));
+                    this.filteredReport.sort((a, b) => compareLocations(issueLocations.get(a), issueLocations.get(b)));
+                }
             }
         }
     }
@@ -223,72 +611,249 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
                                 <button class=${this.filterRuleCategoryClassName(ACRuleCategory.VIOLATION)} @click=${() => this.toggleFilterRuleCategory(ACRuleCategory.VIOLATION)}
                                         ?aria-pressed=${this.isRuleCategoryPressed(ACRuleCategory.VIOLATION)}>
                                     ${getIconByRuleCategory(ACRuleCategory.VIOLATION)}
-                                    ${this.report.filter((issue: ACRuleDetails) => issue.ruleCategory == ACRuleCategory.VIOLATION).length}
+                                    ${this.categoryCounts.get(ACRuleCategory.VIOLATION) ?? 0}
                                     violations
                                 </button>
                                 <button class=${this.filterRuleCategoryClassName(ACRuleCategory.NEED_REVIEW)} @click=${() => this.toggleFilterRuleCategory(ACRuleCategory.NEED_REVIEW)}
                                         ?aria-pressed=${this.isRuleCategoryPressed(ACRuleCategory.NEED_REVIEW)}>
                                     ${getIconByRuleCategory(ACRuleCategory.NEED_REVIEW)}
-                                    ${this.report.filter((issue: ACRuleDetails) => issue.ruleCategory == ACRuleCategory.NEED_REVIEW).length}
+                                    ${this.categoryCounts.get(ACRuleCategory.NEED_REVIEW) ?? 0}
                                     need review
                                 </button>
                                 <button class=${this.filterRuleCategoryClassName(ACRuleCategory.RECOMMENDATION)} @click=${() => this.toggleFilterRuleCategory(ACRuleCategory.RECOMMENDATION)}
                                         ?aria-pressed=${this.isRuleCategoryPressed(ACRuleCategory.RECOMMENDATION)}>
                                     ${getIconByRuleCategory(ACRuleCategory.RECOMMENDATION)}
-                                    ${this.report.filter((issue: ACRuleDetails) => issue.ruleCategory == ACRuleCategory.RECOMMENDATION).length}
+                                    ${this.categoryCounts.get(ACRuleCategory.RECOMMENDATION) ?? 0}
                                     recommendations
                                 </button>
+                                <button class="button" aria-pressed=${this.sortByLocation} @click=${() => this.sortByLocation = !this.sortByLocation}>
+                                    Sort by file
+                                </button>
                                 <select .value=${this.filterTagName} @change=${this.clickHandler} class="select-filter-tagname" aria-label="Filter by tag name">
                                     <option value="">All</option>
                                     ${this.getReportTagNames().map((item, index) => html`<option value="${item}">${item}</option>`)}
                                 </select>
+                                <button class="button" aria-pressed=${this.showMetrics} @click=${this.toggleMetrics}>Metrics</button>
                                 <button class="button button-run" ?disabled=${this.checkRunning} @click=${this.startTests}>
                                     ${(this.checkRunning)? html`<span class="loading-icon"></span>`: nothing}
                                     Re-run Check</button>
                             </div>
-                            <ul class="result-list" id="result-list">
-                                ${this.filteredReport.map((item, index) => this.renderItemInList(item, index))}
-                            </ul>
+                            ${this.renderMetrics()}
+                            <vaadin-virtual-list class="result-list" id="result-list" role="list" .items=${this.filteredReport}
+                                    ${virtualListRenderer<ACRuleDetails>((item, model) => this.renderItemInList(item, model.index))}>
+                            </vaadin-virtual-list>
                         </div>
                         `
                         : html`<div class="issue-summary">
                             <div class="margin-right">Click "Run check" to start the accessibility assessment.</div>
+                            <button class="button" aria-pressed=${this.showMetrics} @click=${this.toggleMetrics}>Metrics</button>
                             <button class="button button-run" ?disabled=${this.checkRunning} @click=${this.startTests}>
                                 ${(this.checkRunning)? html`<span class="loading-icon"></span>`: nothing}Run Check</button>
                         </div>
+                        ${this.renderMetrics()}
+                        ${this.renderHistory()}
                         `}
             `;
 
         }
     }
+
+    /**
+     * Render the last checks of the route, the newest first, with the difference of issues with the previous check
+     * and the most frequent rules of the last check
+     * @private
+     */
+    private renderHistory() {
+        if (this.history === undefined || this.history.runs.length == 0) {
+            return nothing;
+        }
+        const runs = this.history.runs;
+        return html`<div class="history">
+            <div class="section">
+                <span class="margin-right">${this.exportMessage ?? nothing}</span>
+                <button class="button" @click=${() => this.exportReport("sarif")}>Export SARIF</button>
+                <button class="button" @click=${() => this.exportReport("junit")}>Export JUnit XML</button>
+            </div>
+            <table>
+                <caption>Last checks of ${this.history.route}</caption>
+                <thead>
+                    <tr>
+                        <th scope="col">Date</th>
+                        <th scope="col">Violations</th>
+                        <th scope="col">Need review</th>
+                        <th scope="col">Recommendations</th>
+                        <th scope="col">Issues</th>
+                        <th scope="col">Change</th>
+                    </tr>
+                </thead>
+                <tbody>
+                    ${runs.map((run, index) => {
+                        const delta = index > 0 ? run.issueCount - runs[index - 1].issueCount : 0;
+                        return html`<tr>
+                            <td>${new Date(run.timestamp).toLocaleString()}</td>
+                            <td>${run.categories[ACRuleCategory.VIOLATION] ?? 0}</td>
+                            <td>${run.categories[ACRuleCategory.NEED_REVIEW] ?? 0}</td>
+                            <td>${run.categories[ACRuleCategory.RECOMMENDATION] ?? 0}</td>
+                            <td>${run.issueCount}</td>
+                            <td>${delta > 0 ? `+${delta}` : delta}</td>
+                        </tr>`;
+                    }).reverse()}
+                </tbody>
+            </table>
+            ${this.history.rules.length > 0 ? html`<table>
+                <caption>Most frequent rules of the last check</caption>
+                <tbody>
+                    ${this.history.rules.slice(0, 5).map(rule => html`<tr>
+                        <td>
+                            <button class="nav-button" title="Show the routes with this rule"
+                                    @click=${() => this.findIssues({ruleId: rule.ruleId})}>${rule.ruleId}</button>
+                        </td>
+                        <td>${rule.count}</td>
+                    </tr>`)}
+                </tbody>
+            </table>` : nothing}
+            ${this.renderFoundIssues()}
+        </div>`;
+    }
+
+    /**
+     * Request the issues of a rule or a source file in the last check of each route
+     * @param query
+     * @private
+     */
+    private findIssues(query: {ruleId: string} | {file: string}) {
+        devTools.send(`${AccessibilityChecker.NAME}-find-issues`, query);
+    }
+
+    /**
+     * Render the routes whose last check has issues of the requested rule or source file
+     * @private
+     */
+    private renderFoundIssues() {
+        if (this.foundIssues === undefined) {
+            return nothing;
+        }
+        const found = this.foundIssues;
+        return html`<table>
+            <caption>
+                Routes with issues of ${found.ruleId ?? found.file} in their last check
+                <button class="nav-button" @click=${() => this.foundIssues = undefined}>Close</button>
+            </caption>
+            <tbody>
+                ${found.routes.length == 0 ? html`<tr><td>None</td></tr>` : found.routes.map(route => html`<tr>
+                    <td>${route.route}</td>
+                    <td>${found.ruleId !== undefined
+                        ? [...new Set(route.issues.filter(issue => issue.file).map(issue => `${issue.file}:${issue.line}`))].join(", ")
+                        : [...new Set(route.issues.map(issue => issue.ruleId))].join(", ")}</td>
+                    <td>${route.issues.length}</td>
+                </tr>`)}
+            </tbody>
+        </table>`;
+    }
+
+    private toggleMetrics() {
+        this.showMetrics = !this.showMetrics;
+        if (this.showMetrics) {
+            this.requestMetrics();
+        }
+    }
+
+    private requestMetrics() {
+        devTools.send(`${AccessibilityChecker.NAME}-metrics`, {});
+    }
+
+    /**
+     * Render the durations of the commands of the server by phase, with the histogram of each phase
+     * @private
+     */
+    private renderMetrics() {
+        if (!this.showMetrics) {
+            return nothing;
+        }
+        const bounds = this.metrics?.bucketBounds ?? [];
+        const bucketLabel = (index: number) => index < bounds.length
+            ? `< ${formatMicros(bounds[index])}` : `>= ${formatMicros(bounds[bounds.length - 1])}`;
+        return html`<div class="history metrics">
+            <div class="section">
+                <span class="margin-right">Durations of the commands of the server</span>
+                <button class="button" @click=${this.requestMetrics}>Refresh</button>
+            </div>
+            ${(this.metrics?.phases.length ?? 0) == 0 ? html`<p>Nothing measured yet.</p>` : html`<table>
+                <thead>
+                    <tr>
+                        <th scope="col">Command</th>
+                        <th scope="col">Phase</th>
+                        <th scope="col">Count</th>
+                        <th scope="col">p50</th>
+                        <th scope="col">p90</th>
+                        <th scope="col">p99</th>
+                        <th scope="col">Max</th>
+                        <th scope="col">Histogram</th>
+                    </tr>
+                </thead>
+                <tbody>
+                    ${this.metrics!.phases.map(phase => {
+                        const first = phase.buckets.findIndex(count => count > 0);
+                        const last = phase.buckets.length - 1 - [...phase.buckets].reverse().findIndex(count => count > 0);
+                        const maxCount = Math.max(...phase.buckets);
+                        return html`<tr>
+                            <td>${phase.command}</td>
+                            <td>${phase.phase}</td>
+                            <td>${phase.count}</td>
+                            <td>${formatMicros(phase.p50)}</td>
+                            <td>${formatMicros(phase.p90)}</td>
+                            <td>${formatMicros(phase.p99)}</td>
+                            <td>${formatMicros(phase.max)}</td>
+                            <td>
+                                <div class="histogram">
+                                    ${phase.buckets.slice(first, last + 1).map((count, index) => html`<span class="histogram-bar"
+                                            title="${bucketLabel(first + index)}: ${count}"
+                                            style="height: ${Math.max(count > 0 ? 2 : 0, Math.round(16 * count / maxCount))}px"></span>`)}
+                                </div>
+                            </td>
+                        </tr>`;
+                    })}
+                </tbody>
+            </table>`}
+        </div>`;
+    }
+
+    /**
+     * Export the last check of each route of the report history to a file of the build folder
+     * @param format
+     * @private
+     */
+    private exportReport(format: "sarif" | "junit") {
+        this.exportMessage = "Exporting...";
+        devTools.send(`${AccessibilityChecker.NAME}-export-report`, {
+            format: format
+        });
+    }
+
     clickHandler(e: SelectChangeEvent) {
         this.filterTagName = e.target!.value;
     }
 
     getReportTagNames() {
-        if (this.report) {
-            return Array.from(new Set(this.report.map((item) => item.tagName.toLowerCase())))
-        }
-        return [];
+        return this.reportTagNames;
     }
 
 
     renderItemInList(issue:ACRuleDetails, index:number) {
+        const location = this.getIssueLocation(issue);
 
-        const component = getComponentForNode(issue.node);
-        return html`<li class="result" @click="${() => {
-            // save the scroll position
-            this.scrollPosition = (this.renderRoot.querySelector("#result-list") as HTMLElement).scrollTop;
+        return html`<div class="result" role="listitem" @click="${() => {
             this.indexDetail = index;
             if (this.filteredReport) {
                 this.detail = this.filteredReport[this.indexDetail];
-                highlight(this.detail.node);
+                highlight(getIssueNode(this.detail));
             }
         }
         }">
             <p class="text">
                 <span class="component">
                     <span class="component-tagname">${issue.tagName} </span>
+                    ${location ? html`<span class="component-location">${location.file}:${location.line}</span>` : nothing}
                     ${issue.solved?  html`<span class="component-solved">Solved</span>`: nothing}
                 </span>
                 <span class="warning-message">
@@ -296,7 +861,7 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
                 </span>
             </p>
             ${getDetailsIcon()}
-        </li>
+        </div>
         `;
     }
 
@@ -304,7 +869,11 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
         if (this.debugMode) {
             console.debug("Full Issue ", issue);
         }
-        const component = getComponentForNode(issue.node);
+        const node = getIssueNode(issue);
+        if (node === null) {
+            return this.renderRemovedDetail(issue);
+        }
+        const component = getComponentForNode(node);
         return html`
             <div class="detail">
                 ${(this.errorMessage) ? html`<div class="result error-message">
@@ -314,7 +883,7 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
                 <div class="result detail-header">
                     <h2 class="component">${issue.tagName}</h2>
 
-                    <button class="button" @click="${() => this.openIde(issue.node)}">
+                    <button class="button" @click="${() => this.openIde(node)}">
                         ${(component?.element) ? html`Open the component in IDE` : html`Open the route in IDE`}
                     </button>
                 </div>
@@ -347,9 +916,11 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
                     </span>
                 </div>
 
-                ${(this.generateVaadinDetails(issue))
+                ${(this.generateVaadinDetails(issue, node))
                 }
 
+                ${this.renderIssueLocation(issue)}
+
                 <div class="section">
                     <h3 class="small-heading">Help <a
                             href="frontend/accessibility-checker/help/en-US/${issue.ruleId}.html"
@@ -360,13 +931,58 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
 
                 <div class="section">
                     <h3 class="small-heading">HTML Snippet</h3>
-                    <p>${issue.snippet}</p>
+                    <p>${getSnippet(node)}</p>
                 </div>
             </div>
         `;
     }
 
-    private generateVaadinDetails(issue: ACRuleDetails) {
+    /**
+     * Render where the component of the issue was created, with the issues of the same file in the other routes
+     * @param issue
+     * @private
+     */
+    private renderIssueLocation(issue: ACRuleDetails) {
+        const location = this.getIssueLocation(issue);
+        if (location === undefined) {
+            return nothing;
+        }
+        return html`<div class="section">
+            <h3 class="small-heading">Source</h3>
+            <p>
+                <span class="margin-right">${location.file}:${location.line}</span>
+                <button class="button" @click=${() => this.findIssues({file: location.file})}>Issues of this file in the other routes</button>
+            </p>
+            ${this.foundIssues?.file === location.file ? html`<div class="history">${this.renderFoundIssues()}</div>` : nothing}
+        </div>`;
+    }
+
+    /**
+     * The node of the issue has been garbage collected, for example after a navigation
+     * @param issue
+     * @private
+     */
+    private renderRemovedDetail(issue: ACRuleDetails) {
+        return html`
+            <div class="detail">
+                <div class="detail-actionbar">
+                    <button class="nav-button" @click="${() => this.backToList()}">
+                        ${getBackToListIcon()}
+                        Back to list
+                    </button>
+                </div>
+                <div class="section">
+                    <span class="warning-message">
+                        ${getIconByRuleCategory(issue.ruleCategory)}
+                        <span>${issue.message}</span>
+                    </span>
+                    <p>The element of this issue has been removed from the page, run the check again.</p>
+                </div>
+            </div>
+        `;
+    }
+
+    private generateVaadinDetails(issue: ACRuleDetails, node: Node) {
         switch (issue.ruleId) {
             case "input_label_visible":
             case "input_label_exists":
@@ -379,10 +995,10 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
                                 label</label>
                             <input class="text-field" id="input-label"
                                    placeholder="Type label here">
-                            <button class="button" @click="${() => this.setLabel(issue.node, '#input-label')}">Set
+                            <button class="button" @click="${() => this.setLabel(node, '#input-label')}">Set
                                 label
                             </button>
-                            <button class="button" @click="${() => this.setAriaLabel(issue.node, '#input-label')}">Set
+                            <button class="button" @click="${() => this.setAriaLabel(node, '#input-label')}">Set
                                 aria label
                             </button>
                         </div>
@@ -396,7 +1012,7 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
                             <label for="input-label">Enter an invisible (Aria) label</label>
                             <input class="text-field" id="input-label"
                                    placeholder="Type label here">
-                            <button class="button" @click="${() => this.setAriaLabel(issue.node, '#input-label')}">Set
+                            <button class="button" @click="${() => this.setAriaLabel(node, '#input-label')}">Set
                                 aria label
                             </button>
                         </div>
@@ -423,7 +1039,7 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
                         <div>
                             <label for="input-label">Enter a title for the html component</label>
                             <input class="text-field" id="input-title" placeholder="Type alternative text here">
-                            <button class="button" @click="${() => this.setTitle(issue.node, '#input-title')}">Set
+                            <button class="button" @click="${() => this.setTitle(node, '#input-title')}">Set
                                 title
                             </button>
                         </div>
@@ -436,7 +1052,7 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
                             <label for="input-label">Enter an alternative text for the image or an empty text if it's
                                 decorative</label>
                             <input class="text-field" id="input-alt" placeholder="Type alternative text here">
-                            <button class="button" @click="${() => this.setAltText(issue.node, '#input-alt')}">Set
+                            <button class="button" @click="${() => this.setAltText(node, '#input-alt')}">Set
                                 alternative text
                             </button>
                         </div>
@@ -461,7 +1077,7 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
 
                         <div>
                             You can open the component in the theme editor and update the background or foreground color.
-                            <button class="button" @click="${() => this.openComponentInThemeEditor(issue.node)}">Open in the theme editor
+                            <button class="button" @click="${() => this.openComponentInThemeEditor(node)}">Open in the theme editor
                             </button>
 
                         </div>
@@ -504,12 +1120,7 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
             const component = getComponentForNode(node);
             
             if (component !== undefined) {
-                const serializableComponentRef: ComponentReference = {nodeId: component.nodeId, uiId: component.uiId};
-                devTools.send(`${AccessibilityChecker.NAME}-set-label`, {
-                    nodeId: component.nodeId,
-                    uiId: component.uiId,
-                    label: labelText
-                });
+                this.applyFixes([{nodeId: component.nodeId, uiId: component.uiId, type: "label", value: labelText}]);
             }
         }
     }
@@ -525,11 +1136,7 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
 
             const component = getComponentForNode(node);
             if (component !== undefined) {
-                devTools.send(`${AccessibilityChecker.NAME}-set-aria-label`, {
-                    nodeId: component.nodeId,
-                    uiId: component.uiId,
-                    label: labelText
-                });
+                this.applyFixes([{nodeId: component.nodeId, uiId: component.uiId, type: "aria-label", value: labelText}]);
             }
         }
     }
@@ -577,11 +1184,7 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
         // set the label on the server side
         const component = getComponentForNode(node);
         if (component !== undefined) {
-            devTools.send(`${AccessibilityChecker.NAME}-set-title`, {
-                nodeId: component.nodeId,
-                uiId: component.uiId,
-                title: text
-            });
+            this.applyFixes([{nodeId: component.nodeId, uiId: component.uiId, type: "title", value: text}]);
         }
     }
 
@@ -593,13 +1196,20 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
         // set the label on the server side
         const component = getComponentForNode(node);
         if (component !== undefined) {
-            devTools.send(`${AccessibilityChecker.NAME}-set-alt-text`, {
-                nodeId: component.nodeId,
-                uiId: component.uiId,
-                text: text
-            });
+            this.applyFixes([{nodeId: component.nodeId, uiId: component.uiId, type: "alt-text", value: text}]);
         }
     }
+    /**
+     * Send several fixes at once, the server writes each source file only once
+     * and each location where several components are created only once
+     * @param fixes
+     */
+    applyFixes(fixes: ACFix[]) {
+        devTools.send(`${AccessibilityChecker.NAME}-apply-fixes`, {
+            fixes: fixes
+        });
+    }
+
     public static NAME = 'accessibility-checker';
 
     /**
@@ -609,13 +1219,36 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
      */
     handleMessage(message: ServerMessage): boolean {
 
-        if (message.command === `${AccessibilityChecker.NAME}-init`) {
-            // add the Javascript only when the plugin is initialized
-            const scriptElement = document.createElement("script");
-            scriptElement.setAttribute("src", "https://unpkg.com/accessibility-checker-engine@latest/ace.js");
-            scriptElement.setAttribute("async", "true");
-            document.body.appendChild(scriptElement);
-            // Do something
+        if (message.command === `${AccessibilityChecker.NAME}-init`
+            || message.command === `${AccessibilityChecker.NAME}-ignored-rules`) {
+            // the engine is loaded when the tab is activated
+            this.setProjectIgnoredRules(message.data.ignoredRules ?? []);
+            return true; // Mark the message as handled
+        }
+        if (message.command === `${AccessibilityChecker.NAME}-report-history`) {
+            this.history = message.data;
+            return true; // Mark the message as handled
+        }
+        if (message.command === `${AccessibilityChecker.NAME}-find-issues`) {
+            this.foundIssues = message.data;
+            return true; // Mark the message as handled
+        }
+        if (message.command === `${AccessibilityChecker.NAME}-metrics`) {
+            this.metrics = message.data;
+            return true; // Mark the message as handled
+        }
+        if (message.command === `${AccessibilityChecker.NAME}-resolve-locations`) {
+            const files: string[] = message.data.files;
+            const locations: number[] = message.data.locations;
+            const resolved = new Map(this.locations);
+            for (let i = 0; i + 2 < locations.length; i += 3) {
+                resolved.set(locations[i], {file: files[locations[i + 1]], line: locations[i + 2]});
+            }
+            this.locations = resolved;
+            return true; // Mark the message as handled
+        }
+        if (message.command === `${AccessibilityChecker.NAME}-export-report`) {
+            this.exportMessage = message.data.error ?? `${message.data.issueCount} issues exported to ${message.data.file}`;
             return true; // Mark the message as handled
         }
         if (message.command === `${AccessibilityChecker.NAME}-error`) {
@@ -631,9 +1264,86 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
             }
             return true; // Mark the message as handled
         }
+
+        if (message.command === `${AccessibilityChecker.NAME}-component-issues`) {
+            const issues: ACComponentIssue[] = message.data.issues;
+            this.componentIssues = issues.map(issue => this.toRuleDetails(issue))
+                .filter((issue): issue is ACRuleDetails => issue !== undefined);
+            // show the issues of the server while the engine is still running
+            this.report = this.mergeComponentIssues(this.engineReport ?? []);
+            if (!this.checkRunning) {
+                this.resolveLocations();
+            }
+            return true; // Mark the message as handled
+        }
+
+        if (message.command === `${AccessibilityChecker.NAME}-apply-fixes-result`) {
+            const results: ACFixResult[] = message.data.results;
+            // every node created at the same location is solved by the same edit
+            const solved = new Set(results.filter(result => result.success)
+                .flatMap(result => result.nodeIds.map(nodeId => `${result.uiId}-${nodeId}`)));
+            if (this.report && solved.size > 0) {
+                const isSolved = (issue: ACRuleDetails) => {
+                    const node = getIssueNode(issue);
+                    const component = node !== null ? getComponentForNode(node) : undefined;
+                    return component !== undefined && solved.has(`${component.uiId}-${component.nodeId}`);
+                };
+                this.report = this.report.map(issue => isSolved(issue) ? {...issue, solved: true} : issue);
+                if (this.detail !== undefined && isSolved(this.detail)) {
+                    this.detail = {...this.detail, solved: true}; // update the instance to refresh the detail view
+                }
+            }
+            if (solved.size > 0) {
+                // the lines added by the fixes moved the components created below them
+                this.clearLocations();
+                this.resolveLocations();
+            }
+            const errors = results.filter(result => !result.success).map(result => result.message);
+            if (errors.length > 0) {
+                console.error(errors);
+                this.errorMessage = errors.join("\n");
+            }
+            return true; // Mark the message as handled
+        }
         return false; // The message was not handled
     }
 
+    /**
+     * Add the issues of the server that the engine didn't find
+     * @param engineReport
+     * @private
+     */
+    private mergeComponentIssues(engineReport: ACRuleDetails[]) {
+        const getIssueComponent = (issue: ACRuleDetails) => {
+            const node = getIssueNode(issue);
+            return node !== null ? getComponentForNode(node) : undefined;
+        };
+        const reported = new Set(engineReport.map(issue => {
+            const component = getIssueComponent(issue);
+            return component !== undefined ? `${issue.ruleId}-${component.nodeId}` : issue.ruleId;
+        }));
+        return [...engineReport, ...this.componentIssues.filter(issue => {
+            const component = getIssueComponent(issue);
+            return !reported.has(issue.ruleId)
+                && (component === undefined || !reported.has(`${issue.ruleId}-${component.nodeId}`));
+        })];
+    }
+
+    private toRuleDetails(issue: ACComponentIssue): ACRuleDetails | undefined {
+        const node = getNodeForNodeId(issue.nodeId);
+        if (!node) {
+            return undefined;
+        }
+        return {
+            ruleId: issue.ruleId,
+            message: this.intern(issue.message),
+            nodeRef: new WeakRef(node),
+            tagName: getTagName(node),
+            ruleCategory: ACRuleCategory.VIOLATION,
+            solved: false
+        };
+    }
+
     clearErrorMessage() {
         this.errorMessage = undefined;
     }
@@ -644,40 +1354,21 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
      * @private
      */
     private validateRuleDetails(issue: IEngineResult) {
-        if (issue.value[1] == "PASS") {
-            return false;
-        }
+        return issue.value[1] != "PASS" && !this.ignoredRulesMatcher.isIgnored(issue);
+    }
 
-        for (let ignoredRule of this.ignoredRules) {
-            const ignoredRuleId = (ignoredRule.ruleId == undefined) || (ignoredRule.ruleId == issue.ruleId);
-            if (ignoredRuleId) {
-                if (ignoredRule.htmlTag == undefined) {
-                    // rule ignored and no more rule is applying
-                    return false;
-                }
-                // it fits, check next
-                if (ignoredRule.lastTag == undefined) {
-                    const ignoredRuleHtmlTag = (issue.path.dom.includes(ignoredRule.htmlTag));
-                    if (ignoredRuleHtmlTag) {
-                        // console.debug("1 ignoredRuleHtmlTag for {} RULE: {}", issue, ignoredRule);
-                        return false; //
-                    } // else check the next rule
-                } else if (ignoredRule.lastTag) {
-                    const ignoredRuleHtmlTag = ((issue.path.dom.includes(ignoredRule.htmlTag)) && (((issue.node  as HTMLElement).tagName === ignoredRule.htmlTag.toUpperCase())));
-                    if (ignoredRuleHtmlTag) {
-                        // console.debug("2 ignoredRuleHtmlTag for {} RULE: {}", issue, ignoredRule);
-                        return false; //
-                    } // else check the next rule
-                } else {
-                    const ignoredRuleHtmlTag = ((issue.path.dom.includes(ignoredRule.htmlTag)) && ((issue.node  as HTMLElement).tagName !== ignoredRule.htmlTag.toUpperCase()));
-                    if (ignoredRuleHtmlTag) {
-                        // console.debug("3 ignoredRuleHtmlTag for {} RULE: {}", issue, ignoredRule);
-                        return false; //
-                    } // else check the next rule
-                }
-            }
+    /**
+     * Use the ignored rules of the project. The report doesn't keep the dom path of the issues, so the whole page is
+     * checked again if there is a report
+     * @param projectIgnoredRules
+     * @private
+     */
+    private setProjectIgnoredRules(projectIgnoredRules: ACIgnoredRule[]) {
+        this.ignoredRulesMatcher = new IgnoredRulesMatcher([...AccessibilityChecker.defaultIgnoredRules, ...projectIgnoredRules]);
+        if (this.engineReport !== undefined) {
+            this.changedRoots = undefined;
+            this.startTests();
         }
-        return true;
     }
 
     private isRuleCategoryPressed(category: ACRuleCategory) {
@@ -696,6 +1387,28 @@ export class AccessibilityChecker extends LitElement implements MessageHandler {
     }
 }
 
+/**
+ * Format a duration in µs with the most readable unit
+ */
+function formatMicros(micros: number) {
+    if (micros < 1000) {
+        return `${micros} µs`;
+    }
+    if (micros < 1000000) {
+        return `${(micros / 1000).toFixed(1)} ms`;
+    }
+    return `${(micros / 1000000).toFixed(2)} s`;
+}
+
+/**
+ * Sort by file then line, the issues without location last
+ */
+function compareLocations(a?: ACSourceLocation, b?: ACSourceLocation) {
+    if (a === undefined || b === undefined) {
+        return a === b ? 0 : (a === undefined ? 1 : -1);
+    }
+    return a.file.localeCompare(b.file) || a.line - b.line;
+}
 
 const plugin: DevToolsPlugin = {
     init: function (devToolsInterface: DevToolsInterface): void {
@@ -0,0 +1,74 @@
+package org.vaadin.addons.accessibility;
+
+import com.vaadin.base.devserver.DevToolsInterface;
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AccessibilityCheckerPluginTest {
+
+    private final List<String> commands = new ArrayList<>();
+    private final List<JsonObject> messages = new ArrayList<>();
+    private final DevToolsInterface devToolsInterface = (command, data) -> {
+        commands.add(command);
+        messages.add(data);
+    };
+    private AccessibilityCheckerPlugin plugin;
+
+    @Before
+    public void setup() {
+        plugin = new AccessibilityCheckerPlugin();
+    }
+
+    @After
+    public void close() {
+        AccessibilityCheckerPlugin.closeAll();
+    }
+
+    @Test
+    public void findIssues_noService_errorSent() {
+        JsonObject data = Json.createObject();
+        data.put("ruleId", "input_label_exists");
+
+        Assert.assertTrue(plugin.handleMessage("accessibility-checker-find-issues", data, devToolsInterface));
+
+        Assert.assertEquals(List.of("accessibility-checker-error"), commands);
+        Assert.assertTrue(messages.get(0).getString("message").contains("service"));
+    }
+
+    @Test
+    public void exportReport_noService_errorFieldSent() {
+        JsonObject data = Json.createObject();
+        data.put("format", "sarif");
+
+        Assert.assertTrue(plugin.handleMessage("accessibility-checker-export-report", data, devToolsInterface));
+
+        Assert.assertEquals(List.of("accessibility-checker-export-report"), commands);
+        Assert.assertTrue(messages.get(0).hasKey("error"));
+    }
+
+    @Test
+    public void unknownCommand_notHandled() {
+        Assert.assertFalse(plugin.handleMessage("other-command", Json.createObject(), devToolsInterface));
+        Assert.assertEquals(List.of(), commands);
+    }
+
+    @Test
+    public void closeAll_metricsUnregistered() throws MalformedObjectNameException {
+        ObjectName name = new ObjectName(CommandMetrics.OBJECT_NAME);
+        Assert.assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+
+        AccessibilityCheckerPlugin.closeAll();
+
+        Assert.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
@@ -0,0 +1,211 @@
+package org.vaadin.addons.accessibility;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.internal.ComponentTracker;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinSession;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.vaadin.addons.accessibility.visitors.LabelVisitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class ApplyFixesTest extends AbstractClassBasedTest {
+
+    private static final String CLASS_NAME = "com.example.application.views.FixesFile";
+
+    private final Map<Component, ComponentTracker.Location> createLocations = new HashMap<>();
+    private final CompletableFuture<List<AccessibilityFix.Result>> results = new CompletableFuture<>();
+    private UI ui;
+    private TestSession session;
+    private AccessibilityJavaSourceModifier modifier;
+    private TextField name;
+    private TextField email;
+    private List<TextField> rows;
+
+    @Before
+    public void setupView() throws IOException {
+        setupTestClass("FixesFile");
+        ui = new UI();
+        session = new TestSession(ui);
+        name = track(new TextField(), "TextField name = new TextField();");
+        email = track(new TextField(), "TextField email = new TextField();");
+        rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(track(new TextField(), "TextField row = new TextField();"));
+        }
+        Div view = new Div();
+        view.add(rows.toArray(Component[]::new));
+        view.add(name, email);
+        ui.add(view);
+        modifier = new TestModifier();
+    }
+
+    @After
+    public void closeModifier() throws IOException {
+        modifier.close();
+    }
+
+    @Test
+    public void fixesOfDifferentLocationsAndTypes_allApplied() throws Exception {
+        List<AccessibilityFix.Result> results = apply(
+                fix(name, AccessibilityFix.Type.LABEL, "Name"),
+                fix(name, AccessibilityFix.Type.ARIA_LABEL, "Your name"),
+                fix(email, AccessibilityFix.Type.LABEL, "Email"));
+
+        for (AccessibilityFix.Result result : results) {
+            Assert.assertTrue(result.message(), result.success());
+        }
+        Assert.assertEquals(List.of(nodeId(name)), results.get(0).nodeIds());
+        Assert.assertEquals(List.of(nodeId(email)), results.get(2).nodeIds());
+        assertTestFileContains("name.setLabel(\"Name\");");
+        assertTestFileContains("name.setAriaLabel(\"Your name\");");
+        assertTestFileContains("email.setLabel(\"Email\");");
+    }
+
+    @Test
+    public void fixesOfTheSameLocation_oneEditForAllTheNodes() throws Exception {
+        List<AccessibilityFix.Result> results = apply(
+                fix(rows.get(0), AccessibilityFix.Type.LABEL, "Row"),
+                fix(rows.get(2), AccessibilityFix.Type.LABEL, "Row"));
+
+        List<Integer> rowIds = rows.stream().map(ApplyFixesTest::nodeId).toList();
+        for (AccessibilityFix.Result result : results) {
+            Assert.assertTrue(result.message(), result.success());
+            Assert.assertEquals(rowIds.stream().sorted().toList(), result.nodeIds().stream().sorted().toList());
+        }
+        String contents = getTestFileContents();
+        Assert.assertEquals(contents, contents.indexOf("row.setLabel(\"Row\");"),
+                contents.lastIndexOf("row.setLabel(\"Row\");"));
+    }
+
+    @Test
+    public void fixesOfTheSameLocationWithDifferentValues_lastFixWins() throws Exception {
+        List<AccessibilityFix.Result> results = apply(
+                fix(rows.get(0), AccessibilityFix.Type.LABEL, "First"),
+                fix(rows.get(1), AccessibilityFix.Type.LABEL, "Second"));
+
+        Assert.assertFalse(results.get(0).success());
+        Assert.assertEquals("Overridden by another fix of the same component with a different value",
+                results.get(0).message());
+        Assert.assertTrue(results.get(1).message(), results.get(1).success());
+        Assert.assertEquals(3, results.get(1).nodeIds().size());
+        assertTestFileContains("row.setLabel(\"Second\");");
+        assertTestFileNotContains("First");
+    }
+
+    @Test
+    public void notApplicableFix_failsWithoutStoppingTheOthers() throws Exception {
+        List<AccessibilityFix.Result> results = apply(
+                fix(name, AccessibilityFix.Type.ALT_TEXT, "Image"),
+                fix(email, AccessibilityFix.Type.LABEL, "Email"));
+
+        Assert.assertFalse(results.get(0).success());
+        Assert.assertEquals(AccessibilityFix.Type.ALT_TEXT.getNotApplicableMessage(), results.get(0).message());
+        Assert.assertTrue(results.get(1).message(), results.get(1).success());
+        assertTestFileContains("email.setLabel(\"Email\");");
+    }
+
+    @Test
+    public void setText_writesTheStatement() throws Exception {
+        modifier.setText(email, "Email", new LabelVisitor());
+
+        assertTestFileContains("email.setLabel(\"Email\");");
+    }
+
+    @Test
+    public void setText_moreTimesThanTheKeptRevisions_cachedUnitParsedAgain() throws Exception {
+        int edits = 2 * LineOffsetIndex.MAX_REVISIONS;
+        for (int i = 0; i < edits; i++) {
+            modifier.setText(email, "Email " + i, new LabelVisitor());
+        }
+
+        assertTestFileContains("email.setLabel(\"Email " + (edits - 1) + "\");");
+    }
+
+    private List<AccessibilityFix.Result> apply(AccessibilityFix... fixes) throws Exception {
+        modifier.applyFixes(null, List.of(fixes));
+        List<AccessibilityFix.Result> results = this.results.get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(fixes.length, results.size());
+        return results;
+    }
+
+    private TextField track(TextField field, String statement) throws IOException {
+        createLocations.put(field, new ComponentTracker.Location(CLASS_NAME, "FixesFile.java", "<init>",
+                getLineNumber(testFile, statement)));
+        return field;
+    }
+
+    private static AccessibilityFix fix(Component component, AccessibilityFix.Type type, String value) {
+        return new AccessibilityFix(0, nodeId(component), type, value);
+    }
+
+    private static int nodeId(Component component) {
+        return component.getElement().getNode().getId();
+    }
+
+    private class TestModifier extends AccessibilityJavaSourceModifier {
+
+        TestModifier() {
+            super(null, (devToolsInterface, errorMessage) -> Assert.fail(errorMessage), devToolsInterface -> {
+            }, (devToolsInterface, fixResults) -> results.complete(fixResults));
+        }
+
+        @Override
+        protected VaadinSession getSession() {
+            return session;
+        }
+
+        @Override
+        protected ComponentTracker.Location findCreateLocation(Component c) {
+            return createLocations.get(c);
+        }
+
+        @Override
+        protected File getSourceFile(ComponentTracker.Location createLocation) {
+            return testFile;
+        }
+    }
+
+    /**
+     * Session running the commands in the calling thread, with a single UI.
+     */
+    private static class TestSession extends VaadinSession {
+
+        private final UI ui;
+
+        TestSession(UI ui) {
+            super(null);
+            this.ui = ui;
+        }
+
+        @Override
+        public Future<Void> access(Command command) {
+            command.execute();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public boolean hasLock() {
+            return true;
+        }
+
+        @Override
+        public UI getUIById(int uiId) {
+            return ui;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.vaadin.addons.accessibility;
+
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinSession;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class CommandMetricsTest {
+
+    private final CommandMetrics metrics = new CommandMetrics();
+
+    @After
+    public void close() {
+        metrics.unregisterMBean();
+    }
+
+    @Test
+    public void record_eachPhaseOfEachCommand() {
+        metrics.record("check-components", CommandMetrics.Phase.PARSE, TimeUnit.MICROSECONDS.toNanos(100));
+        metrics.record("check-components", CommandMetrics.Phase.PARSE, TimeUnit.MICROSECONDS.toNanos(300));
+        metrics.record("check-components", CommandMetrics.Phase.WRITE, TimeUnit.MICROSECONDS.toNanos(50));
+        metrics.record("apply-fixes", CommandMetrics.Phase.PARSE, TimeUnit.MICROSECONDS.toNanos(10));
+
+        List<String> commands = new ArrayList<>();
+        metrics.forEachSnapshot((command, snapshots) -> {
+            commands.add(command);
+            if (command.equals("check-components")) {
+                Assert.assertEquals(List.of(CommandMetrics.Phase.PARSE, CommandMetrics.Phase.WRITE),
+                        List.copyOf(snapshots.keySet()));
+                Assert.assertEquals(2, snapshots.get(CommandMetrics.Phase.PARSE).count());
+                Assert.assertEquals(1, snapshots.get(CommandMetrics.Phase.WRITE).count());
+            } else {
+                Assert.assertEquals(List.of(CommandMetrics.Phase.PARSE), List.copyOf(snapshots.keySet()));
+            }
+        });
+        Assert.assertEquals("sorted by command", List.of("apply-fixes", "check-components"), commands);
+
+        Map<String, Long> parse = metrics.getSummaries().get("check-components/parse");
+        Assert.assertEquals(2, (long) parse.get("count"));
+        Assert.assertEquals(400, (long) parse.get("totalMicros"));
+        Assert.assertEquals(300, (long) parse.get("maxMicros"));
+        Assert.assertEquals("below 16 µs", 1, metrics.getHistograms().get("apply-fixes/parse")[4]);
+    }
+
+    @Test
+    public void access_phasesRecordedForTheCommand() {
+        metrics.access(new TestSession(), "apply-fixes",
+                () -> metrics.measure(CommandMetrics.Phase.TRAVERSAL, () -> metrics.getCurrentCommand()));
+        metrics.measure(CommandMetrics.Phase.PARSE, () -> null);
+
+        Map<String, Map<String, Long>> summaries = metrics.getSummaries();
+
+        Assert.assertEquals(List.of("apply-fixes/session-lock", "apply-fixes/traversal", "other/parse"),
+                List.copyOf(summaries.keySet()));
+        Assert.assertEquals(CommandMetrics.NO_COMMAND, metrics.getCurrentCommand());
+    }
+
+    @Test
+    public void reset_histogramsCleared() {
+        metrics.record("apply-fixes", CommandMetrics.Phase.PARSE, 1);
+
+        metrics.reset();
+
+        Assert.assertEquals(Map.of(), metrics.getSummaries());
+    }
+
+    @Test
+    public void unregisterMBean_onlyTheRegisteredMetrics() throws Exception {
+        ObjectName name = new ObjectName(CommandMetrics.OBJECT_NAME);
+        CommandMetrics previous = new CommandMetrics();
+        previous.registerMBean();
+        metrics.registerMBean();
+
+        previous.unregisterMBean();
+        Assert.assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+
+        metrics.unregisterMBean();
+        Assert.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    private static class TestSession extends VaadinSession {
+
+        TestSession() {
+            super(null);
+        }
+
+        @Override
+        public Future<Void> access(Command command) {
+            command.execute();
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.vaadin.addons.accessibility;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.vaadin.flow.component.internal.ComponentTracker;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.vaadin.addons.accessibility.visitors.LabelVisitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CompilationUnitCacheTest extends AbstractClassBasedTest {
+
+    private final AtomicInteger parseCount = new AtomicInteger();
+    private CompilationUnitCache cache;
+
+    @Before
+    public void setupCache() {
+        cache = new CompilationUnitCache(2, source -> {
+            parseCount.incrementAndGet();
+            return StaticJavaParser.parse(source);
+        });
+    }
+
+    @Test
+    public void unchangedFile_parsedOnce() throws IOException {
+        setupTestClass("DemoFile");
+
+        CompilationUnit cu = cache.get(testFile).compilationUnit();
+
+        Assert.assertSame(cu, cache.get(testFile).compilationUnit());
+        Assert.assertEquals(1, parseCount.get());
+    }
+
+    @Test
+    public void changedFile_parsedAgain() throws IOException {
+        setupTestClass("DemoFile");
+        CompilationUnit cu = cache.get(testFile).compilationUnit();
+
+        String source = getTestFileContents().replace("private Button sayHello;", "");
+        Files.writeString(testFile.toPath(), source, StandardCharsets.UTF_8);
+        setLastModified(testFile, testFile.lastModified() + 2000);
+
+        CompilationUnitCache.Snapshot snapshot = cache.get(testFile);
+        Assert.assertNotSame(cu, snapshot.compilationUnit());
+        Assert.assertEquals(source, snapshot.source());
+        Assert.assertEquals(2, parseCount.get());
+    }
+
+    @Test
+    public void touchedFile_notParsedAgain() throws IOException {
+        setupTestClass("DemoFile");
+        CompilationUnit cu = cache.get(testFile).compilationUnit();
+
+        setLastModified(testFile, testFile.lastModified() + 2000);
+
+        Assert.assertSame(cu, cache.get(testFile).compilationUnit());
+        Assert.assertEquals(1, parseCount.get());
+    }
+
+    @Test
+    public void leastRecentlyUsed_evicted() throws IOException {
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            File file = File.createTempFile("test", ".java");
+            Files.writeString(file.toPath(), "class Test" + i + " {}", StandardCharsets.UTF_8);
+            files.add(file);
+        }
+
+        cache.get(files.get(0));
+        cache.get(files.get(1));
+        cache.get(files.get(0));
+        cache.get(files.get(2));
+        Assert.assertEquals(3, parseCount.get());
+
+        cache.get(files.get(0));
+        Assert.assertEquals(3, parseCount.get());
+        cache.get(files.get(1));
+        Assert.assertEquals(4, parseCount.get());
+    }
+
+    @Test
+    public void invalidated_parsedAgain() throws IOException {
+        setupTestClass("DemoFile");
+        cache.get(testFile);
+
+        cache.invalidate(testFile);
+        cache.get(testFile);
+
+        Assert.assertEquals(2, parseCount.get());
+    }
+
+    @Test
+    public void writtenUnit_reusedByTheNextEdit() throws IOException {
+        setupTestClass("DemoFile");
+        AccessibilityJavaSourceModifier.TrackedLocation location = new AccessibilityJavaSourceModifier.TrackedLocation(
+                new ComponentTracker.Location("com.vaadin.base.devserver.editor.inputs.DemoFile", "DemoFile.java",
+                        "DemoFile", getLineNumber(testFile, "name = new TextField();")), 0);
+        List<CompilationUnit> units = new ArrayList<>();
+
+        for (String label : new String[] { "First", "Second" }) {
+            editor.modifyClass(testFile, cu -> {
+                units.add(cu);
+                return Collections.singletonList(editor.createSetTextModification(cu,
+                        editor.rebase(cu, testFile, location), label, new LabelVisitor()));
+            });
+        }
+
+        Assert.assertSame(units.get(0), units.get(1));
+        Assert.assertSame(units.get(0), editor.getCompilationUnitCache().get(testFile).compilationUnit());
+        assertTestFileContains("name.setLabel(\"Second\");");
+        assertTestFileNotContains("First");
+    }
+
+    private static void setLastModified(File file, long lastModified) throws IOException {
+        Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(lastModified));
+    }
+}
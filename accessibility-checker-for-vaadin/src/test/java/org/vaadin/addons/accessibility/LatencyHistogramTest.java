@@ -0,0 +1,68 @@
+package org.vaadin.addons.accessibility;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void record_countedInTheBucketBelowItsBound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(999);
+        histogram.record(micros(1));
+        histogram.record(micros(1023));
+        histogram.record(micros(1024));
+        histogram.record(-1);
+
+        long[] counts = histogram.snapshot().counts();
+
+        Assert.assertEquals("below 1 µs", 2, counts[0]);
+        Assert.assertEquals("below 2 µs", 1, counts[1]);
+        Assert.assertEquals("below 1024 µs", 1, counts[10]);
+        Assert.assertEquals("below 2048 µs", 1, counts[11]);
+        Assert.assertEquals(5, histogram.snapshot().count());
+    }
+
+    @Test
+    public void record_longerThanTheBounds_countedInTheLastBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.HOURS.toNanos(1));
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        Assert.assertEquals(1, snapshot.counts()[LatencyHistogram.BUCKETS - 1]);
+        Assert.assertEquals(TimeUnit.HOURS.toNanos(1), snapshot.maxNanos());
+        Assert.assertEquals(Long.MAX_VALUE, LatencyHistogram.getUpperBoundMicros(LatencyHistogram.BUCKETS - 1));
+        Assert.assertEquals(1L << 22, LatencyHistogram.getUpperBoundMicros(LatencyHistogram.BUCKETS - 2));
+    }
+
+    @Test
+    public void getPercentileMicros_upperBoundOfTheBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(micros(5));
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(micros(1000));
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        Assert.assertEquals(8, snapshot.getPercentileMicros(50));
+        Assert.assertEquals(8, snapshot.getPercentileMicros(90));
+        Assert.assertEquals("at most the maximum", 1000, snapshot.getPercentileMicros(99));
+        Assert.assertEquals(1000, snapshot.getPercentileMicros(100));
+        Assert.assertEquals(micros(90 * 5 + 10 * 1000), snapshot.totalNanos());
+    }
+
+    @Test
+    public void getPercentileMicros_nothingRecorded_zero() {
+        Assert.assertEquals(0, new LatencyHistogram().snapshot().getPercentileMicros(99));
+    }
+
+    private static long micros(long micros) {
+        return TimeUnit.MICROSECONDS.toNanos(micros);
+    }
+}
@@ -0,0 +1,178 @@
+package org.vaadin.addons.accessibility;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class LineOffsetIndexTest {
+
+    @Test
+    public void diff_insertedLines() {
+        List<LineOffsetIndex.Change> changes = LineOffsetIndex.diff(lines("a", "b", "c"),
+                lines("a", "b", "x", "y", "c"));
+
+        Assert.assertEquals(List.of(new LineOffsetIndex.Change(2, 2)), changes);
+    }
+
+    @Test
+    public void diff_removedLine() {
+        List<LineOffsetIndex.Change> changes = LineOffsetIndex.diff(lines("a", "b", "c", "d"),
+                lines("a", "c", "d"));
+
+        Assert.assertEquals(List.of(new LineOffsetIndex.Change(2, -1)), changes);
+    }
+
+    @Test
+    public void diff_replacedLine_noChange() {
+        Assert.assertEquals(List.of(), LineOffsetIndex.diff(lines("a", "b", "c"), lines("a", "x", "c")));
+    }
+
+    @Test
+    public void diff_importAndStatement_changesAtTheirLines() {
+        String before = lines("package p;", "", "import a.A;", "", "class C {", "  C() {",
+                "    A a = new A();", "  }", "}");
+        String after = lines("package p;", "", "import a.A;", "import b.B;", "", "class C {", "  C() {",
+                "    A a = new A();", "    // marker", "    a.set(\"x\");", "  }", "}");
+
+        List<LineOffsetIndex.Change> changes = LineOffsetIndex.diff(before, after);
+
+        Assert.assertEquals(List.of(new LineOffsetIndex.Change(3, 1), new LineOffsetIndex.Change(7, 2)), changes);
+    }
+
+    @Test
+    public void diff_insertedAtTheBeginning() {
+        Assert.assertEquals(List.of(new LineOffsetIndex.Change(0, 1)),
+                LineOffsetIndex.diff(lines("a", "b"), lines("x", "a", "b")));
+    }
+
+    @Test
+    public void rebase_keptLinesMapped() {
+        Random random = new Random(42);
+        for (int iteration = 0; iteration < 200; iteration++) {
+            List<String> before = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                before.add("line " + i);
+            }
+            List<String> after = new ArrayList<>(before);
+            for (int edit = 0; edit < 1 + random.nextInt(6); edit++) {
+                int position = random.nextInt(after.size());
+                if (random.nextBoolean()) {
+                    after.add(position, "inserted " + edit);
+                } else {
+                    after.remove(position);
+                }
+            }
+            LineOffsetIndex index = new LineOffsetIndex();
+            index.add(1, LineOffsetIndex.diff(String.join("\n", before), String.join("\n", after)));
+
+            for (int i = 0; i < before.size(); i++) {
+                int newIndex = after.indexOf(before.get(i));
+                if (newIndex >= 0) {
+                    Assert.assertEquals(before.get(i), newIndex + 1, index.rebase(i + 1, 0, 1));
+                    Assert.assertEquals(before.get(i), i + 1, index.rebase(newIndex + 1, 1, 0));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void rebase_keptLinesMappedThroughRandomRevisions() {
+        Random random = new Random(7);
+        List<List<String>> versions = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            lines.add("line " + i);
+        }
+        versions.add(lines);
+        LineOffsetIndex index = new LineOffsetIndex();
+        for (int revision = 1; revision <= 20; revision++) {
+            List<String> after = new ArrayList<>(lines);
+            for (int edit = 0; edit < 1 + random.nextInt(4); edit++) {
+                int position = random.nextInt(after.size());
+                if (random.nextBoolean()) {
+                    after.add(position, "inserted " + revision + "." + edit);
+                } else {
+                    after.remove(position);
+                }
+            }
+            index.add(revision, LineOffsetIndex.diff(String.join("\n", lines), String.join("\n", after)));
+            versions.add(after);
+            lines = after;
+        }
+
+        for (int from = 0; from < versions.size(); from += 3) {
+            for (int to = 0; to < versions.size(); to += 4) {
+                List<String> fromLines = versions.get(from);
+                List<String> toLines = versions.get(to);
+                for (int i = 0; i < fromLines.size(); i++) {
+                    int toIndex = toLines.indexOf(fromLines.get(i));
+                    if (toIndex >= 0) {
+                        Assert.assertEquals(fromLines.get(i) + " from " + from + " to " + to, toIndex + 1,
+                                index.rebase(i + 1, from, to));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void rebase_severalRevisions() {
+        LineOffsetIndex index = new LineOffsetIndex();
+        index.add(3, List.of(new LineOffsetIndex.Change(10, 2)));
+        index.add(7, List.of(new LineOffsetIndex.Change(3, 1), new LineOffsetIndex.Change(20, 2)));
+
+        Assert.assertEquals(5, index.rebase(5, 0, 2));
+        Assert.assertEquals(13, index.rebase(11, 0, 3));
+        Assert.assertEquals(14, index.rebase(11, 0, 7));
+        Assert.assertEquals(13, index.rebase(12, 3, 7));
+        Assert.assertEquals(12, index.rebase(15, 7, 0));
+        Assert.assertEquals(2, index.rebase(2, 7, 0));
+    }
+
+    @Test
+    public void rebase_insertedLineMappedToTheLineBefore() {
+        LineOffsetIndex index = new LineOffsetIndex();
+        index.add(1, List.of(new LineOffsetIndex.Change(10, 2)));
+
+        Assert.assertEquals(10, index.rebase(11, 1, 0));
+        Assert.assertEquals(10, index.rebase(12, 1, 0));
+        Assert.assertEquals(11, index.rebase(13, 1, 0));
+    }
+
+    @Test(expected = AccessibilityCheckerException.class)
+    public void rebase_removedRevision_throws() {
+        LineOffsetIndex index = new LineOffsetIndex();
+        for (int revision = 1; revision <= LineOffsetIndex.MAX_REVISIONS + 1; revision++) {
+            index.add(revision, List.of(new LineOffsetIndex.Change(1, 1)));
+        }
+
+        index.rebase(5, 0, LineOffsetIndex.MAX_REVISIONS + 1);
+    }
+
+    @Test
+    public void isKept_revisionsBeforeTheKeptOnes_notKept() {
+        LineOffsetIndex index = new LineOffsetIndex();
+        Assert.assertTrue(index.isKept(0));
+        for (int revision = 1; revision <= LineOffsetIndex.MAX_REVISIONS + 1; revision++) {
+            index.add(revision, List.of(new LineOffsetIndex.Change(1, 1)));
+        }
+
+        Assert.assertFalse(index.isKept(0));
+        Assert.assertTrue(index.isKept(1));
+        Assert.assertTrue(index.isKept(LineOffsetIndex.MAX_REVISIONS + 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void add_olderRevision_throws() {
+        LineOffsetIndex index = new LineOffsetIndex();
+        index.add(2, List.of());
+        index.add(1, List.of());
+    }
+
+    private static String lines(String... lines) {
+        return String.join("\n", lines) + "\n";
+    }
+}
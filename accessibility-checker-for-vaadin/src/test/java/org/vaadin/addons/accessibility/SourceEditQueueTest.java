@@ -0,0 +1,154 @@
+package org.vaadin.addons.accessibility;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.vaadin.base.devserver.editor.Editor.Modification;
+import com.vaadin.flow.component.internal.ComponentTracker;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.vaadin.addons.accessibility.visitors.AriaLabelVisitor;
+import org.vaadin.addons.accessibility.visitors.GenericStringVisitor;
+import org.vaadin.addons.accessibility.visitors.LabelVisitor;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class SourceEditQueueTest extends AbstractClassBasedTest {
+
+    private static final long COALESCE_MILLIS = 200;
+
+    private SourceEditQueue queue;
+
+    @After
+    public void closeQueue() {
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    @Test
+    public void editsOfTheSameFile_writtenInOneCycle() throws Exception {
+        setupTestClass("DemoFile");
+        AtomicInteger cycles = new AtomicInteger();
+        queue = new SourceEditQueue((file, modifier) -> {
+            cycles.incrementAndGet();
+            return editor.modifyClass(file, modifier);
+        }, COALESCE_MILLIS);
+
+        CompletableFuture<Integer> label = queue.submit(testFile,
+                setText("Name", new LabelVisitor()));
+        CompletableFuture<Integer> ariaLabel = queue.submit(testFile,
+                setText("Your name", new AriaLabelVisitor()));
+
+        Assert.assertEquals(2, (int) get(label));
+        Assert.assertEquals(2, (int) get(ariaLabel));
+        Assert.assertEquals(1, cycles.get());
+        assertTestFileContains("name.setLabel(\"Name\");");
+        assertTestFileContains("name.setAriaLabel(\"Your name\");");
+    }
+
+    @Test
+    public void sameStatementEditedTwiceInOneCycle_lastValueWritten() throws Exception {
+        setupTestClass("DemoFile");
+        queue = new SourceEditQueue(editor::modifyClass, COALESCE_MILLIS);
+
+        CompletableFuture<Integer> first = queue.submit(testFile,
+                setText("First", new LabelVisitor()));
+        CompletableFuture<Integer> second = queue.submit(testFile,
+                setText("Second", new LabelVisitor()));
+
+        // the second edit replaces the statement and comment inserted by the first one
+        Assert.assertEquals(2, (int) get(first));
+        Assert.assertEquals(0, (int) get(second));
+        assertTestFileContains("name.setLabel(\"Second\");");
+        assertTestFileNotContains("First");
+    }
+
+    @Test
+    public void failedEdit_otherEditsOfTheCycleWritten() throws Exception {
+        setupTestClass("DemoFile");
+        queue = new SourceEditQueue(editor::modifyClass, COALESCE_MILLIS);
+
+        CompletableFuture<Integer> failed = queue.submit(testFile,
+                cu -> Collections.emptyList());
+        CompletableFuture<Integer> label = queue.submit(testFile,
+                setText("Name", new LabelVisitor()));
+
+        Assert.assertEquals(2, (int) get(label));
+        try {
+            get(failed);
+            Assert.fail("An edit without modifications should fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof AccessibilityCheckerException);
+        }
+        assertTestFileContains("name.setLabel(\"Name\");");
+    }
+
+    @Test
+    public void editFailingAfterModifyingTheUnit_notWritten() throws Exception {
+        setupTestClass("DemoFile");
+        queue = new SourceEditQueue(editor::modifyClass, COALESCE_MILLIS);
+
+        CompletableFuture<Integer> label = queue.submit(testFile,
+                setText("Name", new LabelVisitor()));
+        CompletableFuture<Integer> failed = queue.submit(testFile, cu -> {
+            cu.addImport("java.util.UUID");
+            throw new AccessibilityCheckerException("Failed after modifying the unit");
+        });
+
+        Assert.assertEquals(2, (int) get(label));
+        try {
+            get(failed);
+            Assert.fail("The edit should fail");
+        } catch (ExecutionException e) {
+            Assert.assertEquals("Failed after modifying the unit", e.getCause().getMessage());
+        }
+        assertTestFileContains("name.setLabel(\"Name\");");
+        assertTestFileNotContains("UUID");
+
+        // the next cycle doesn't get the modified unit from the cache
+        get(queue.submit(testFile, setText("Your name", new AriaLabelVisitor())));
+        assertTestFileContains("name.setAriaLabel(\"Your name\");");
+        assertTestFileNotContains("UUID");
+    }
+
+    @Test
+    public void closedQueue_pendingEditsFail() throws Exception {
+        setupTestClass("DemoFile");
+        queue = new SourceEditQueue(editor::modifyClass, 10_000);
+
+        CompletableFuture<Integer> pending = queue.submit(testFile, setText("Name", new LabelVisitor()));
+        queue.close();
+        CompletableFuture<Integer> submittedAfterClose = queue.submit(testFile,
+                setText("Name", new LabelVisitor()));
+
+        for (CompletableFuture<Integer> future : List.of(pending, submittedAfterClose)) {
+            try {
+                get(future);
+                Assert.fail("An edit of a closed queue should fail");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof AccessibilityCheckerException);
+            }
+        }
+        assertTestFileNotContains("setLabel(\"Name\")");
+    }
+
+    private Function<CompilationUnit, List<Modification>> setText(String text,
+            GenericStringVisitor visitor) throws IOException {
+        ComponentTracker.Location location = new ComponentTracker.Location(
+                "com.vaadin.base.devserver.editor.inputs.DemoFile", "DemoFile.java",
+                "DemoFile", getLineNumber(testFile, "name = new TextField();"));
+        return cu -> Collections.singletonList(
+                editor.createSetTextModification(cu, location, text, visitor));
+    }
+
+    private static <T> T get(CompletableFuture<T> future) throws Exception {
+        return future.get(10, TimeUnit.SECONDS);
+    }
+}
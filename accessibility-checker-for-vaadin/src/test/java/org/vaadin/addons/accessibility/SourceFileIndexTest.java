@@ -0,0 +1,126 @@
+package org.vaadin.addons.accessibility;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class SourceFileIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path firstRoot;
+    private Path secondRoot;
+    private SourceFileIndex index;
+
+    @Before
+    public void setup() throws IOException {
+        firstRoot = folder.newFolder("first").toPath();
+        secondRoot = folder.newFolder("second").toPath();
+    }
+
+    @After
+    public void close() throws IOException {
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    @Test
+    public void readPackage_skipsTheComments() throws IOException {
+        Path file = write(firstRoot.resolve("View.java"), """
+                /*
+                 * License header
+                 */
+                // package com.example.commented;
+                /* short */ package com.example.views ;
+
+                public class View {
+                }
+                """);
+
+        Assert.assertEquals("com.example.views", SourceFileIndex.readPackage(file));
+    }
+
+    @Test
+    public void readPackage_defaultPackage() throws IOException {
+        Path file = write(firstRoot.resolve("View.java"), "import java.util.List;\n\nclass View {\n}\n");
+
+        Assert.assertEquals("", SourceFileIndex.readPackage(file));
+    }
+
+    @Test
+    public void find_fileOfAnotherRootInAnotherFolderThanItsPackage() throws Exception {
+        write(firstRoot.resolve("com/example/MainView.java"), source("com.example", "MainView"));
+        Path other = write(secondRoot.resolve("views/OtherView.java"), source("com.example", "OtherView"));
+        start();
+
+        Assert.assertEquals(firstRoot.resolve("com/example/MainView.java").toFile(),
+                index.find("com.example.MainView", "MainView.java"));
+        Assert.assertEquals(other.toFile(), index.find("com.example.OtherView$Nested", "OtherView.java"));
+        Assert.assertEquals("another top level class of the file", other.toFile(),
+                index.find("com.example.Helper", "OtherView.java"));
+    }
+
+    @Test
+    public void find_notIndexed_resolvedFromThePackage() throws Exception {
+        start();
+
+        Assert.assertEquals(firstRoot.resolve("com/example/MissingView.java").toFile(),
+                index.find("com.example.MissingView", "MissingView.java"));
+    }
+
+    @Test
+    public void find_movedToAnotherRoot() throws Exception {
+        Path before = write(firstRoot.resolve("com/example/MainView.java"), source("com.example", "MainView"));
+        start();
+        Assert.assertEquals(before.toFile(), index.find("com.example.MainView", "MainView.java"));
+
+        Path after = secondRoot.resolve("moved/MainView.java");
+        Files.createDirectories(after.getParent());
+        Files.move(before, after);
+
+        awaitFile(after, "com.example.MainView", "MainView.java");
+    }
+
+    private void start() throws InterruptedException {
+        index = new SourceFileIndex(List.of(firstRoot, secondRoot));
+        index.start();
+        // the package of the marker file is only known once the roots are indexed
+        Path marker = write(secondRoot.resolve("marker/Marker.java"), source("indexed", "Marker"));
+        awaitFile(marker, "indexed.Marker", "Marker.java");
+    }
+
+    private void awaitFile(Path expected, String className, String filename) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        File file = index.find(className, filename);
+        while (!expected.toFile().equals(file) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            file = index.find(className, filename);
+        }
+        Assert.assertEquals(expected.toFile(), file);
+    }
+
+    private static String source(String packageName, String className) {
+        return "package " + packageName + ";\n\npublic class " + className + " {\n    static class Nested {\n    }\n}\n\n"
+                + "class Helper {\n}\n";
+    }
+
+    private static Path write(Path file, String content) {
+        try {
+            Files.createDirectories(file.getParent());
+            return Files.writeString(file, content);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
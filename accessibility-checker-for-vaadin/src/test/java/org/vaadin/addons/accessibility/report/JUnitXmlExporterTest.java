@@ -0,0 +1,56 @@
+package org.vaadin.addons.accessibility.report;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+public class JUnitXmlExporterTest {
+
+    @Test
+    public void runs_writtenAsTestSuites() throws Exception {
+        StringWriter writer = new StringWriter();
+        try (ReportExporter exporter = new JUnitXmlExporter(writer)) {
+            exporter.writeRun(new RunSummary(1, 0, "home", 2, Map.of(), Map.of()), List.of(
+                    new StoredIssue("input_label_exists", "VIOLATION", "vaadin-text-field", "No <label>",
+                            "src/main/java/HomeView.java", 12),
+                    new StoredIssue("img_alt_valid", "NEED_REVIEW", "img", "No alt", null, 0)));
+            exporter.writeRun(new RunSummary(2, 0, "about", 0, Map.of(), Map.of()), List.of());
+        }
+
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new InputSource(new StringReader(writer.toString())));
+        NodeList suites = document.getDocumentElement().getElementsByTagName("testsuite");
+        Assert.assertEquals(2, suites.getLength());
+
+        Element home = (Element) suites.item(0);
+        Assert.assertEquals("home", home.getAttribute("name"));
+        Assert.assertEquals("2", home.getAttribute("tests"));
+        Assert.assertEquals("2", home.getAttribute("failures"));
+        Assert.assertEquals("1970-01-01T00:00:00Z", home.getAttribute("timestamp"));
+        NodeList testCases = home.getElementsByTagName("testcase");
+        Assert.assertEquals(2, testCases.getLength());
+
+        Element located = (Element) testCases.item(0);
+        Assert.assertEquals("input_label_exists src/main/java/HomeView.java:12", located.getAttribute("name"));
+        Assert.assertEquals("12", located.getAttribute("line"));
+        Element failure = (Element) located.getElementsByTagName("failure").item(0);
+        Assert.assertEquals("No <label>", failure.getAttribute("message"));
+        Assert.assertEquals("VIOLATION", failure.getAttribute("type"));
+
+        Element unlocated = (Element) testCases.item(1);
+        Assert.assertEquals("img_alt_valid img", unlocated.getAttribute("name"));
+        Assert.assertEquals("home", unlocated.getAttribute("classname"));
+        Assert.assertFalse(unlocated.hasAttribute("file"));
+
+        Assert.assertEquals("0", ((Element) suites.item(1)).getAttribute("tests"));
+    }
+}
@@ -0,0 +1,126 @@
+package org.vaadin.addons.accessibility.report;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class ReportReaderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void latestCommittedRunOfEachRoute_exported() throws IOException {
+        Path folder = temporaryFolder.getRoot().toPath();
+        try (ReportStore store = new ReportStore(folder)) {
+            commitRun(store, "home", "input_label_exists", "img_alt_valid");
+            long pending = store.begin("home");
+            store.append(pending, List.of(issue("aria_role_valid")));
+            long about = store.begin("about");
+            store.append(about, List.of(issue("input_label_exists")));
+            commitRun(store, "home", "img_alt_valid");
+            store.append(about, List.of(issue("aria_role_valid")));
+            store.commit(about);
+
+            Map<String, List<String>> exported = new LinkedHashMap<>();
+            Assert.assertEquals(3, new ReportReader(folder).exportLatestRuns(collect(exported)));
+
+            Assert.assertEquals(Map.of("about", List.of("input_label_exists", "aria_role_valid"),
+                    "home", List.of("img_alt_valid")), exported);
+            Assert.assertEquals(List.of("about", "home"), List.copyOf(exported.keySet()));
+        }
+    }
+
+    @Test
+    public void segments_notModified() throws IOException {
+        Path folder = temporaryFolder.getRoot().toPath();
+        try (ReportStore store = new ReportStore(folder)) {
+            commitRun(store, "home", "input_label_exists");
+        }
+        Path segment = segments(folder).get(0);
+        // the line left incomplete when the application stopped
+        Files.writeString(segment, Files.readString(segment) + "{\"type\":\"issue\",\"ru");
+        String content = Files.readString(segment);
+
+        Map<String, List<String>> exported = new LinkedHashMap<>();
+        new ReportReader(folder).exportLatestRuns(collect(exported));
+
+        Assert.assertEquals(Map.of("home", List.of("input_label_exists")), exported);
+        Assert.assertEquals(List.of(segment), segments(folder));
+        Assert.assertEquals(content, Files.readString(segment));
+    }
+
+    @Test
+    public void runsOfSeveralSegments_exportedOnce() throws IOException {
+        Path folder = temporaryFolder.getRoot().toPath();
+        try (ReportStore store = new ReportStore(folder, 200, ReportStore.PENDING_RUN_TIMEOUT_MILLIS)) {
+            for (int i = 0; i < ReportStore.MAX_SEALED_SEGMENTS + 3; i++) {
+                commitRun(store, "home", "input_label_exists");
+                commitRun(store, "route" + i, "img_alt_valid");
+            }
+        }
+        // a copy of a compacted run, as left by an interrupted compaction
+        Path segment = segments(folder).get(0);
+        Files.copy(segment, folder.resolve("segment-000000.log"));
+
+        Map<String, List<String>> exported = new LinkedHashMap<>();
+        int issueCount = new ReportReader(folder).exportLatestRuns(collect(exported));
+
+        Assert.assertEquals(ReportStore.MAX_SEALED_SEGMENTS + 4, exported.size());
+        Assert.assertEquals(exported.size(), issueCount);
+        Assert.assertEquals(List.of("input_label_exists"), exported.get("home"));
+    }
+
+    @Test
+    public void missingFolder_nothingExported() throws IOException {
+        Path folder = temporaryFolder.getRoot().toPath().resolve("reports");
+
+        Assert.assertEquals(0, new ReportReader(folder).exportLatestRuns(collect(new LinkedHashMap<>())));
+        Assert.assertFalse(Files.exists(folder));
+    }
+
+    private static ReportExporter collect(Map<String, List<String>> exported) {
+        return new ReportExporter() {
+            @Override
+            public void writeRun(RunSummary run, Iterable<StoredIssue> issues) {
+                Assert.assertFalse(exported.containsKey(run.route()));
+                List<String> ruleIds = new ArrayList<>();
+                issues.forEach(issue -> ruleIds.add(issue.ruleId()));
+                Assert.assertEquals(run.issueCount(), ruleIds.size());
+                exported.put(run.route(), ruleIds);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static void commitRun(ReportStore store, String route, String... ruleIds) throws IOException {
+        long runId = store.begin(route);
+        for (String ruleId : ruleIds) {
+            store.append(runId, List.of(issue(ruleId)));
+        }
+        store.commit(runId);
+    }
+
+    private static StoredIssue issue(String ruleId) {
+        return new StoredIssue(ruleId, "VIOLATION", "vaadin-text-field", "The message", null, 0);
+    }
+
+    private static List<Path> segments(Path folder) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package org.vaadin.addons.accessibility.report;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.vaadin.addons.accessibility.AccessibilityCheckerException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class ReportStoreTest {
+
+    /** small enough for a segment to be full after each run **/
+    private static final long SEGMENT_SIZE = 200;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void committedRun_readWhenReopened() throws IOException {
+        Path folder = temporaryFolder.getRoot().toPath();
+        try (ReportStore store = new ReportStore(folder)) {
+            long runId = store.begin("home");
+            store.append(runId, List.of(issue("input_label_exists", "src/HomeView.java")));
+            store.append(runId, List.of(issue("img_alt_valid", null)));
+            store.commit(runId);
+        }
+
+        try (ReportStore store = new ReportStore(folder)) {
+            List<RunSummary> runs = store.getRuns("home");
+            Assert.assertEquals(1, runs.size());
+            Assert.assertEquals(2, runs.get(0).issueCount());
+            Assert.assertEquals(List.of(issue("input_label_exists", "src/HomeView.java"), issue("img_alt_valid", null)),
+                    store.getIssues(runs.get(0).runId()));
+            Assert.assertTrue(store.begin("home") > runs.get(0).runId());
+        }
+    }
+
+    @Test
+    public void pendingAndAbortedRuns_skippedWhenReopened() throws IOException {
+        Path folder = temporaryFolder.getRoot().toPath();
+        try (ReportStore store = new ReportStore(folder)) {
+            long pending = store.begin("home");
+            store.append(pending, List.of(issue("input_label_exists", null)));
+            long aborted = store.begin("about");
+            store.append(aborted, List.of(issue("input_label_exists", null)));
+            store.abort(aborted);
+        }
+
+        try (ReportStore store = new ReportStore(folder)) {
+            Assert.assertEquals(List.of(), store.getRoutes());
+        }
+    }
+
+    @Test
+    public void incompleteLine_skippedWhenReopened() throws IOException {
+        Path folder = temporaryFolder.getRoot().toPath();
+        try (ReportStore store = new ReportStore(folder)) {
+            commitRun(store, "home", "input_label_exists");
+        }
+        Path segment = segments(folder).get(0);
+        Files.writeString(segment, Files.readString(segment) + "{\"type\":\"issue\",\"ru");
+
+        try (ReportStore store = new ReportStore(folder)) {
+            commitRun(store, "home", "img_alt_valid");
+        }
+
+        try (ReportStore store = new ReportStore(folder)) {
+            Assert.assertEquals(2, store.getRuns("home").size());
+        }
+    }
+
+    @Test
+    public void sealedSegments_compacted() throws IOException {
+        Path folder = temporaryFolder.getRoot().toPath();
+        int runCount = ReportStore.RETAINED_RUNS + 5;
+        List<Long> runIds = new ArrayList<>();
+        try (ReportStore store = new ReportStore(folder, SEGMENT_SIZE, ReportStore.PENDING_RUN_TIMEOUT_MILLIS)) {
+            for (int i = 0; i < runCount; i++) {
+                runIds.add(commitRun(store, "home", "input_label_exists"));
+            }
+            Assert.assertTrue(segments(folder).size() <= ReportStore.MAX_SEALED_SEGMENTS + 1);
+        }
+
+        try (ReportStore store = new ReportStore(folder)) {
+            Assert.assertEquals(runCount, store.getRuns("home").size());
+            Assert.assertEquals(List.of(), store.getIssues(runIds.get(0)));
+            Assert.assertEquals(1, store.getIssues(runIds.get(runCount - 1)).size());
+        }
+    }
+
+    @Test
+    public void oldestSummaries_droppedByCompaction() throws IOException {
+        Path folder = temporaryFolder.getRoot().toPath();
+        int runCount = ReportStore.RETAINED_SUMMARIES + 5;
+        List<Long> runIds = new ArrayList<>();
+        try (ReportStore store = new ReportStore(folder, SEGMENT_SIZE, ReportStore.PENDING_RUN_TIMEOUT_MILLIS)) {
+            for (int i = 0; i < runCount; i++) {
+                runIds.add(commitRun(store, "home", "input_label_exists"));
+            }
+            commitRun(store, "about", "input_label_exists");
+            Assert.assertEquals(ReportStore.RETAINED_SUMMARIES, store.getRuns("home").size());
+        }
+        long storedRuns = 0;
+        for (Path segment : segments(folder)) {
+            try (Stream<String> lines = Files.lines(segment)) {
+                storedRuns += lines.filter(line -> line.contains("\"type\":\"run\"")).count();
+            }
+        }
+        Assert.assertTrue(storedRuns + " runs stored", storedRuns > 0 && storedRuns < runCount);
+
+        try (ReportStore store = new ReportStore(folder)) {
+            List<RunSummary> runs = store.getRuns("home");
+            Assert.assertEquals(ReportStore.RETAINED_SUMMARIES, runs.size());
+            Assert.assertEquals(runIds.get(5).longValue(), runs.get(0).runId());
+            Assert.assertEquals(runIds.get(runCount - 1).longValue(), runs.get(runs.size() - 1).runId());
+            Assert.assertEquals(1, store.getRuns("about").size());
+        }
+    }
+
+    @Test
+    public void interruptedCompaction_runsReadOnce() throws IOException {
+        Path folder = temporaryFolder.getRoot().toPath();
+        Path copy = temporaryFolder.newFolder("copy").toPath();
+        try (ReportStore store = new ReportStore(folder, SEGMENT_SIZE, ReportStore.PENDING_RUN_TIMEOUT_MILLIS)) {
+            for (int i = 0; i < ReportStore.MAX_SEALED_SEGMENTS; i++) {
+                commitRun(store, "home", "input_label_exists");
+            }
+            for (Path segment : segments(folder)) {
+                Files.copy(segment, copy.resolve(segment.getFileName()));
+            }
+            // seals one more segment and compacts
+            commitRun(store, "home", "input_label_exists");
+            commitRun(store, "home", "img_alt_valid");
+        }
+        // the application stopped before the compacted segments were deleted
+        try (Stream<Path> files = Files.list(copy)) {
+            for (Path segment : files.toList()) {
+                if (!Files.exists(folder.resolve(segment.getFileName()))) {
+                    Files.copy(segment, folder.resolve(segment.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        Files.writeString(folder.resolve("segment-999999.log.tmp"), "not compacted");
+
+        try (ReportStore store = new ReportStore(folder)) {
+            List<RunSummary> runs = store.getRuns("home");
+            Assert.assertEquals(ReportStore.MAX_SEALED_SEGMENTS + 2, runs.size());
+            Assert.assertEquals(runs.size(), runs.stream().map(RunSummary::runId).distinct().count());
+        }
+    }
+
+    @Test
+    public void pendingRun_keptWhenSegmentsRotated() throws IOException {
+        Path folder = temporaryFolder.getRoot().toPath();
+        try (ReportStore store = new ReportStore(folder, SEGMENT_SIZE, ReportStore.PENDING_RUN_TIMEOUT_MILLIS)) {
+            long pending = store.begin("about");
+            store.append(pending, List.of(issue("img_alt_valid", "src/AboutView.java")));
+            for (int i = 0; i < ReportStore.MAX_SEALED_SEGMENTS + 2; i++) {
+                commitRun(store, "home", "input_label_exists");
+            }
+            Assert.assertTrue(segments(folder).size() <= ReportStore.MAX_SEALED_SEGMENTS + 1);
+            store.append(pending, List.of(issue("input_label_exists", "src/AboutView.java")));
+            store.commit(pending);
+        }
+
+        try (ReportStore store = new ReportStore(folder)) {
+            List<RunSummary> runs = store.getRuns("about");
+            Assert.assertEquals(1, runs.size());
+            Assert.assertEquals(2, store.getIssues(runs.get(0).runId()).size());
+        }
+    }
+
+    @Test(expected = AccessibilityCheckerException.class)
+    public void stalePendingRun_expired() throws IOException, InterruptedException {
+        try (ReportStore store = new ReportStore(temporaryFolder.getRoot().toPath(), ReportStore.MAX_SEGMENT_SIZE, 1)) {
+            long stale = store.begin("home");
+            Thread.sleep(10);
+            store.begin("about");
+
+            store.append(stale, List.of(issue("input_label_exists", null)));
+        }
+    }
+
+    @Test
+    public void findByRuleAndFile_lastRunOfEachRoute() throws IOException {
+        try (ReportStore store = new ReportStore(temporaryFolder.getRoot().toPath())) {
+            commitRun(store, "home", "input_label_exists");
+            long about = store.begin("about");
+            store.append(about, List.of(issue("input_label_exists", "src/AboutView.java"),
+                    issue("img_alt_valid", "src/AboutView.java")));
+            store.commit(about);
+            // the last run of home has no label issue anymore
+            commitRun(store, "home", "img_alt_valid");
+
+            Assert.assertEquals(Map.of("about", List.of(issue("input_label_exists", "src/AboutView.java"))),
+                    store.findByRule("input_label_exists"));
+            Assert.assertEquals(List.of("about", "home"), List.copyOf(store.findByRule("img_alt_valid").keySet()));
+            Assert.assertEquals(2, store.findByFile("src/AboutView.java").get("about").size());
+            Assert.assertEquals(Map.of(), store.findByFile("src/Unknown.java"));
+        }
+    }
+
+    private static long commitRun(ReportStore store, String route, String ruleId) throws IOException {
+        long runId = store.begin(route);
+        store.append(runId, List.of(issue(ruleId, null)));
+        store.commit(runId);
+        return runId;
+    }
+
+    private static StoredIssue issue(String ruleId, String file) {
+        return new StoredIssue(ruleId, "VIOLATION", "vaadin-text-field", "The message", file, file != null ? 12 : 0);
+    }
+
+    private static List<Path> segments(Path folder) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.vaadin.addons.accessibility.report;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+public class SarifExporterTest {
+
+    @Test
+    public void issues_writtenAsResults() throws IOException {
+        StringWriter writer = new StringWriter();
+        try (ReportExporter exporter = new SarifExporter(writer)) {
+            exporter.writeRun(run("home", 2), List.of(
+                    new StoredIssue("input_label_exists", "VIOLATION", "vaadin-text-field", "No label",
+                            "src/main/java/HomeView.java", 12),
+                    new StoredIssue("img_alt_valid", "NEED_REVIEW", "img", "No alt", null, 0)));
+            exporter.writeRun(run("about", 1), List.of(
+                    new StoredIssue("aria_role_valid", "RECOMMENDATION", "div", "Invalid role", null, 0)));
+        }
+
+        JsonObject sarif = Json.parse(writer.toString());
+        Assert.assertEquals("2.1.0", sarif.getString("version"));
+        Assert.assertEquals(SarifExporter.SCHEMA, sarif.getString("$schema"));
+        JsonArray runs = sarif.getArray("runs");
+        Assert.assertEquals(1, runs.length());
+        JsonArray results = runs.getObject(0).getArray("results");
+        Assert.assertEquals(3, results.length());
+
+        JsonObject located = results.getObject(0);
+        Assert.assertEquals("input_label_exists", located.getString("ruleId"));
+        Assert.assertEquals("error", located.getString("level"));
+        Assert.assertEquals("No label", located.getObject("message").getString("text"));
+        JsonObject physicalLocation = located.getArray("locations").getObject(0).getObject("physicalLocation");
+        Assert.assertEquals("src/main/java/HomeView.java",
+                physicalLocation.getObject("artifactLocation").getString("uri"));
+        Assert.assertEquals(12, (int) physicalLocation.getObject("region").getNumber("startLine"));
+        Assert.assertEquals("home", located.getObject("properties").getString("route"));
+
+        Assert.assertEquals("warning", results.getObject(1).getString("level"));
+        Assert.assertFalse(results.getObject(1).hasKey("locations"));
+        Assert.assertEquals("note", results.getObject(2).getString("level"));
+        Assert.assertEquals("about", results.getObject(2).getObject("properties").getString("route"));
+    }
+
+    @Test
+    public void noRun_emptyResults() throws IOException {
+        StringWriter writer = new StringWriter();
+        new SarifExporter(writer).close();
+
+        Assert.assertEquals(0, Json.<JsonObject>parse(writer.toString()).getArray("runs").getObject(0)
+                .getArray("results").length());
+    }
+
+    private static RunSummary run(String route, int issueCount) {
+        return new RunSummary(1, 0, route, issueCount, Map.of(), Map.of());
+    }
+}
@@ -0,0 +1,152 @@
+package org.vaadin.addons.accessibility.rules;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.formlayout.FormLayout;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.IFrame;
+import com.vaadin.flow.component.html.Image;
+import com.vaadin.flow.component.html.Main;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.router.Location;
+import com.vaadin.flow.router.PageTitle;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+public class ComponentRuleEngineTest {
+
+    private final ComponentRuleEngine engine = new ComponentRuleEngine();
+    private final UI ui = new UI();
+
+    @Test
+    public void fieldWithoutLabel_missingLabel() {
+        TextField field = new TextField();
+        TextField labelled = new TextField("Name");
+        TextField ariaLabelled = new TextField();
+        ariaLabelled.setAriaLabel("Name");
+        FormLayout formLayout = new FormLayout();
+        TextField inFormItem = new TextField();
+        formLayout.addFormItem(inFormItem, "Name");
+        ui.add(field, labelled, ariaLabelled, formLayout);
+
+        Assert.assertEquals(List.of(issue(field, ComponentRule.MISSING_LABEL)), componentIssues());
+    }
+
+    @Test
+    public void imageWithoutAlt_imageWithoutAlt() {
+        Image image = new Image();
+        Image described = new Image("logo.png", "Logo");
+        ui.add(image, described);
+
+        Assert.assertEquals(List.of(issue(image, ComponentRule.IMAGE_WITHOUT_ALT)), componentIssues());
+    }
+
+    @Test
+    public void iframeWithoutTitle_iframeWithoutTitle() {
+        IFrame iframe = new IFrame("https://vaadin.com");
+        IFrame titled = new IFrame("https://vaadin.com");
+        titled.getElement().setAttribute("title", "Vaadin");
+        ui.add(iframe, titled);
+
+        Assert.assertEquals(List.of(issue(iframe, ComponentRule.IFRAME_WITHOUT_TITLE)), componentIssues());
+    }
+
+    @Test
+    public void viewWithoutTitleAndMain_viewRules() {
+        Div view = new Div();
+        showView(view);
+
+        Assert.assertEquals(List.of(issue(view, ComponentRule.MISSING_PAGE_TITLE),
+                issue(view, ComponentRule.MISSING_MAIN_LANDMARK)), engine.check(ui));
+    }
+
+    @Test
+    public void viewWithTitleAndMain_noViewRule() {
+        TitledView view = new TitledView();
+        showView(view);
+        Assert.assertEquals(List.of(), engine.check(ui));
+
+        Div withMain = new Div(new Main());
+        showView(withMain);
+        Assert.assertEquals(List.of(issue(withMain, ComponentRule.MISSING_PAGE_TITLE)), engine.check(ui));
+    }
+
+    @Test
+    public void hiddenComponents_skipped() {
+        TextField hidden = new TextField();
+        hidden.setVisible(false);
+        Div hiddenParent = new Div(new TextField(), new Image());
+        hiddenParent.setVisible(false);
+        TextField hiddenLater = new TextField();
+        ui.add(hidden, hiddenParent, hiddenLater);
+        Assert.assertEquals(List.of(issue(hiddenLater, ComponentRule.MISSING_LABEL)), componentIssues());
+
+        hiddenLater.setVisible(false);
+        hidden.setVisible(true);
+        Assert.assertEquals(List.of(issue(hidden, ComponentRule.MISSING_LABEL)), componentIssues());
+    }
+
+    @Test
+    public void detachedComponents_dropped() {
+        TextField field = new TextField();
+        ui.add(field);
+        Assert.assertEquals(1, componentIssues().size());
+
+        ui.remove(field);
+        Assert.assertEquals(List.of(), componentIssues());
+    }
+
+    @Test
+    public void checkChanges_evaluatedAgain() {
+        TextField field = new TextField();
+        ui.add(field);
+        Assert.assertEquals(1, componentIssues().size());
+
+        field.setLabel("Name");
+        TextField added = new TextField();
+        ui.add(added);
+        Assert.assertEquals(List.of(issue(added, ComponentRule.MISSING_LABEL)), componentIssues());
+    }
+
+    @Test
+    public void budgetRunOut_indexKeptForTheNextCheck() {
+        Div container = new Div();
+        for (int i = 0; i < ComponentRuleEngine.BUDGET_CHECK_INTERVAL * 2; i++) {
+            container.add(new TextField());
+        }
+        ui.add(container);
+
+        Assert.assertEquals(Optional.empty(), engine.check(ui, 0, TimeUnit.NANOSECONDS));
+        ComponentRuleIndex index = ComponentUtil.getData(ui, ComponentRuleIndex.class);
+        int indexed = index.getCandidates().size();
+        Assert.assertTrue(indexed > 0 && indexed < ComponentRuleEngine.BUDGET_CHECK_INTERVAL * 2);
+
+        Optional<List<ComponentIssue>> issues = engine.check(ui, 1, TimeUnit.MINUTES);
+        Assert.assertEquals(ComponentRuleEngine.BUDGET_CHECK_INTERVAL * 2, issues.orElseThrow().size());
+    }
+
+    /**
+     * @return the issues of the components, without the rules of the view
+     */
+    private List<ComponentIssue> componentIssues() {
+        return engine.check(ui).stream().filter(issue -> issue.rule() != ComponentRule.MISSING_PAGE_TITLE
+                && issue.rule() != ComponentRule.MISSING_MAIN_LANDMARK).toList();
+    }
+
+    private void showView(Component view) {
+        ui.getInternals().showRouteTarget(new Location("view"), view, List.of());
+    }
+
+    private static ComponentIssue issue(Component component, ComponentRule rule) {
+        return new ComponentIssue(component.getElement().getNode().getId(), rule);
+    }
+
+    @PageTitle("Titled")
+    private static class TitledView extends Main {
+    }
+}
@@ -0,0 +1,206 @@
+package org.vaadin.addons.accessibility.sampling;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.IFrame;
+import com.vaadin.flow.component.html.Image;
+import com.vaadin.flow.component.html.Main;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.router.AfterNavigationEvent;
+import com.vaadin.flow.router.Location;
+import com.vaadin.flow.router.LocationChangeEvent;
+import com.vaadin.flow.router.NavigationTrigger;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Router;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.RouteRegistry;
+import com.vaadin.flow.server.VaadinSession;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.vaadin.addons.accessibility.rules.ComponentRule;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+public class ComponentTreeSamplerTest {
+
+    /** the source of the navigation events, the registry is not used **/
+    private static final Router ROUTER = new Router((RouteRegistry) Proxy.newProxyInstance(
+            RouteRegistry.class.getClassLoader(), new Class<?>[] { RouteRegistry.class }, (proxy, method, args) -> null));
+
+    private ComponentTreeSampler sampler;
+
+    @After
+    public void close() {
+        if (sampler != null) {
+            sampler.close();
+        }
+    }
+
+    @Test
+    public void samplingRate_fractionOfTheNavigationsAudited() throws InterruptedException {
+        sampler = new ComponentTreeSampler(0, 1, 4, 1, TimeUnit.SECONDS);
+        for (int i = 0; i < 100; i++) {
+            sampler.afterNavigation(navigation(new TestUI("never", new TestSession())));
+        }
+        Assert.assertEquals(0, sampler.getSampledNavigations());
+        sampler.close();
+
+        sampler = new ComponentTreeSampler(1, 1, 4, 1, TimeUnit.SECONDS);
+        sampler.afterNavigation(navigation(new TestUI("always", new TestSession())));
+        await(sampler::getAuditedNavigations, 1);
+        Assert.assertEquals(1, sampler.getSampledNavigations());
+        sampler.close();
+
+        sampler = new ComponentTreeSampler(0.5, 1, 1000, 1, TimeUnit.SECONDS);
+        for (int i = 0; i < 1000; i++) {
+            sampler.afterNavigation(navigation(new TestUI("half", new TestSession())));
+        }
+        long sampled = sampler.getSampledNavigations();
+        Assert.assertTrue("sampled " + sampled, sampled > 350 && sampled < 650);
+        Assert.assertEquals(0.5, sampler.getSamplingRate(), 0);
+    }
+
+    @Test
+    public void budget_auditsRunningOutOfTimeOnlyCounted() throws InterruptedException {
+        sampler = new ComponentTreeSampler(1, 1, 4, 1, TimeUnit.NANOSECONDS);
+        TestUI ui = new TestUI("large", new TestSession());
+        // the budget is checked once every 256 components
+        for (int i = 0; i < 1000; i++) {
+            ui.add(new TextField());
+        }
+
+        sampler.afterNavigation(navigation(ui));
+
+        await(sampler::getOverBudgetNavigations, 1);
+        Assert.assertEquals(0, sampler.getAuditedNavigations());
+        Assert.assertEquals(Map.of(), sampler.getIssueCounts());
+    }
+
+    @Test
+    public void queueFull_navigationsDropped() throws InterruptedException {
+        sampler = new ComponentTreeSampler(1, 1, 2, 1, TimeUnit.SECONDS);
+        TestSession blocked = new TestSession();
+        blocked.release = new CountDownLatch(1);
+
+        // the first audit runs in the worker, the next two wait in the queue
+        for (int i = 0; i < 5; i++) {
+            sampler.afterNavigation(navigation(new TestUI("blocked", blocked)));
+        }
+
+        Assert.assertEquals(5, sampler.getSampledNavigations());
+        Assert.assertEquals(2, sampler.getDroppedNavigations());
+        blocked.release.countDown();
+        await(sampler::getAuditedNavigations, 3);
+    }
+
+    @Test
+    public void queueFull_defaultCapacity() throws InterruptedException {
+        sampler = new ComponentTreeSampler(1, 1, 1, TimeUnit.SECONDS);
+        TestSession blocked = new TestSession();
+        blocked.release = new CountDownLatch(1);
+
+        for (int i = 0; i < ComponentTreeSampler.QUEUE_CAPACITY + 2; i++) {
+            sampler.afterNavigation(navigation(new TestUI("blocked", blocked)));
+        }
+
+        Assert.assertEquals(1, sampler.getDroppedNavigations());
+        blocked.release.countDown();
+        await(sampler::getAuditedNavigations, ComponentTreeSampler.QUEUE_CAPACITY + 1);
+    }
+
+    @Test
+    public void issueCounts_byRouteAndRule() throws InterruptedException {
+        sampler = new ComponentTreeSampler(1, 2, 4, 1, TimeUnit.SECONDS);
+        TestSession session = new TestSession();
+
+        sampler.afterNavigation(navigation(new TestUI("orders", session, new TextField(), new TextField())));
+        sampler.afterNavigation(navigation(new TestUI("orders", session, new Image())));
+        sampler.afterNavigation(navigation(new TestUI("customers", session, new IFrame("https://vaadin.com"))));
+        sampler.afterNavigation(navigation(new TestUI("empty", session, new Div())));
+        await(sampler::getAuditedNavigations, 4);
+
+        Assert.assertEquals(Map.of(
+                "/customers", Map.of(ComponentRule.IFRAME_WITHOUT_TITLE.getId(), 1L),
+                "/empty", Map.of(),
+                "/orders", Map.of(ComponentRule.MISSING_LABEL.getId(), 2L, ComponentRule.IMAGE_WITHOUT_ALT.getId(), 1L)), sampler.getIssueCounts());
+        Assert.assertEquals(List.of("/customers", "/empty", "/orders"),
+                List.copyOf(sampler.getIssueCounts().keySet()));
+
+        sampler.reset();
+        Assert.assertEquals(Map.of(), sampler.getIssueCounts());
+        Assert.assertEquals(0, sampler.getAuditedNavigations());
+    }
+
+    private static AfterNavigationEvent navigation(UI ui) {
+        return new AfterNavigationEvent(new LocationChangeEvent(ROUTER, ui, NavigationTrigger.ROUTER_LINK,
+                ui.getInternals().getActiveViewLocation(), List.of()));
+    }
+
+    private static void await(LongSupplier counter, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (counter.getAsLong() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(expected, counter.getAsLong());
+    }
+
+    /**
+     * UI showing the components at the location. The view has a title and a
+     * main landmark, and the current view is not known, so the route is the
+     * path of the location.
+     */
+    private static class TestUI extends UI {
+
+        TestUI(String path, VaadinSession session, Component... components) {
+            getInternals().setSession(session);
+            getInternals().showRouteTarget(new Location(path), new SampledView(), List.of());
+            add(components);
+        }
+
+        @Override
+        public Component getCurrentView() {
+            return null;
+        }
+    }
+
+    @PageTitle("Sampled")
+    private static class SampledView extends Main {
+    }
+
+    /**
+     * Session running the commands in the calling thread, once released.
+     */
+    private static class TestSession extends VaadinSession {
+
+        private volatile CountDownLatch release;
+
+        TestSession() {
+            super(null);
+        }
+
+        @Override
+        public void accessSynchronously(Command command) {
+            try {
+                if (release != null && !release.await(10, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Not released");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            command.execute();
+        }
+
+        @Override
+        public boolean hasLock() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.vaadin.addons.accessibility.visitors;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.ast.stmt.Statement;
+import com.vaadin.base.devserver.themeeditor.utils.LineNumberVisitor;
+import com.vaadin.base.devserver.themeeditor.utils.StatementLineNumberVisitor;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class LineNumberIndexTest {
+
+    @Test
+    public void findNode_sameResultAsLineNumberVisitor() throws IOException {
+        for (String input : new String[] { "DemoFile", "MarkedFile" }) {
+            String source = read(input);
+            CompilationUnit cu = StaticJavaParser.parse(source);
+            LineNumberIndex index = LineNumberIndex.of(cu);
+            int lines = (int) source.lines().count();
+            for (int line = 0; line <= lines + 1; line++) {
+                Assert.assertSame(input + ":" + line, cu.accept(new LineNumberVisitor(), line),
+                        index.findNode(line));
+            }
+        }
+    }
+
+    @Test
+    public void findStatement_sameResultAsStatementLineNumberVisitor() throws IOException {
+        for (String input : new String[] { "DemoFile", "MarkedFile" }) {
+            String source = read(input);
+            CompilationUnit cu = StaticJavaParser.parse(source);
+            LineNumberIndex index = LineNumberIndex.of(cu);
+            int lines = (int) source.lines().count();
+            for (int line = 0; line <= lines + 1; line++) {
+                Assert.assertSame(input + ":" + line, cu.accept(new StatementLineNumberVisitor(), line),
+                        index.findStatement(line));
+            }
+        }
+    }
+
+    @Test
+    public void findStatement_outermostStatementOfTheLine() throws IOException {
+        String source = read("MarkedFile");
+        CompilationUnit cu = StaticJavaParser.parse(source);
+        String[] rows = source.split("\n");
+        int line = 1;
+        while (!rows[line - 1].contains("sayHello.addClickListener")) {
+            line++;
+        }
+
+        Statement statement = LineNumberIndex.of(cu).findStatement(line);
+        Assert.assertTrue(statement instanceof ExpressionStmt);
+        Assert.assertEquals(line + 2, statement.getRange().get().end.line);
+    }
+
+    @Test
+    public void of_builtOncePerUnit() throws IOException {
+        CompilationUnit cu = StaticJavaParser.parse(read("DemoFile"));
+
+        Assert.assertSame(LineNumberIndex.of(cu), LineNumberIndex.of(cu));
+    }
+
+    private String read(String className) throws IOException {
+        return IOUtils.toString(getClass().getResource("../inputs/" + className + ".java"),
+                StandardCharsets.UTF_8);
+    }
+}
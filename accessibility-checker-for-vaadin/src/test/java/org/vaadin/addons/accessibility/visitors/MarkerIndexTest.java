@@ -0,0 +1,106 @@
+package org.vaadin.addons.accessibility.visitors;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+public class MarkerIndexTest {
+
+    private static final List<String> SCOPES = Arrays.asList(null, "name", "sayHello", "logo", "other");
+
+    private CompilationUnit cu;
+
+    @Before
+    public void setup() throws IOException {
+        String source = IOUtils.toString(getClass().getResource("../inputs/MarkedFile.java"),
+                StandardCharsets.UTF_8);
+        cu = StaticJavaParser.parse(source);
+    }
+
+    @Test
+    public void find_sameResultAsTheVisitors() {
+        List<GenericStringVisitor> visitors = Arrays.asList(new LabelVisitor(), new AriaLabelVisitor(),
+                new TitleVisitor(), new AltTextVisitor());
+        MarkerIndex index = MarkerIndex.of(cu);
+        for (GenericStringVisitor visitor : visitors) {
+            for (String scope : SCOPES) {
+                Assert.assertSame(visitor.getMethodName() + " " + scope,
+                        cu.accept(visitor, scope), index.find(visitor, scope));
+            }
+        }
+    }
+
+    @Test
+    public void find_firstStatementOfTheScope() {
+        ExpressionStmt stmt = MarkerIndex.of(cu).find(new LabelVisitor(), "name");
+
+        Assert.assertEquals("name.setLabel(\"Name\");", stmt.toString().lines()
+                .reduce((first, second) -> second).orElse(null));
+    }
+
+    @Test
+    public void find_statementWithoutMarkerIgnored() {
+        Assert.assertNull(MarkerIndex.of(cu).find(new TitleVisitor(), "name"));
+    }
+
+    @Test
+    public void of_builtOncePerUnit() {
+        Assert.assertSame(MarkerIndex.of(cu), MarkerIndex.of(cu));
+    }
+
+    @Test
+    public void update_insertedStatementFound() {
+        MarkerIndex index = MarkerIndex.of(cu);
+        ExpressionStmt inserted = createStatement("logo", "setTitle", "Logo", TitleVisitor.COMMENT);
+
+        index.update(null, inserted);
+
+        Assert.assertSame(inserted, index.find(new TitleVisitor(), "logo"));
+        // the title without scope is still the first one in the source
+        Assert.assertNotSame(inserted, index.find(new TitleVisitor(), null));
+    }
+
+    @Test
+    public void update_replacedStatementKeepsItsPosition() {
+        MarkerIndex index = MarkerIndex.of(cu);
+        ExpressionStmt replaced = index.find(new LabelVisitor(), "name");
+        ExpressionStmt replacement = createStatement("name", "setLabel", "Full name", LabelVisitor.COMMENT);
+
+        index.update(replaced, replacement);
+
+        Assert.assertSame(replacement, index.find(new LabelVisitor(), "name"));
+        Assert.assertSame(replacement, index.find(new LabelVisitor(), null));
+    }
+
+    @Test
+    public void update_replacedByUnmarkedStatementRemoved() {
+        MarkerIndex index = MarkerIndex.of(cu);
+        ExpressionStmt replaced = index.find(new AltTextVisitor(), "logo");
+
+        index.update(replaced, createStatement("logo", "setAlt", "Logo", null));
+
+        Assert.assertNull(index.find(new AltTextVisitor(), "logo"));
+        Assert.assertNull(index.find(new AltTextVisitor(), null));
+    }
+
+    private static ExpressionStmt createStatement(String scope, String methodName, String text,
+            com.github.javaparser.ast.comments.LineComment comment) {
+        MethodCallExpr methodCallExpr = new MethodCallExpr(new NameExpr(scope), methodName);
+        methodCallExpr.getArguments().add(new StringLiteralExpr(text));
+        ExpressionStmt stmt = new ExpressionStmt(methodCallExpr);
+        stmt.setComment(comment);
+        return stmt;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.application.views;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.textfield.TextField;
+
+public class FixesFile extends Div {
+
+    public FixesFile() {
+        TextField name = new TextField();
+        TextField email = new TextField();
+        for (int i = 0; i < 3; i++) {
+            TextField row = new TextField();
+            add(row);
+        }
+        add(name, email);
+    }
+}
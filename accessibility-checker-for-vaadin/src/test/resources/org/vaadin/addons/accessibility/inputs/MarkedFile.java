@@ -0,0 +1,45 @@
+package com.vaadin.base.devserver.editor.inputs;
+
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.html.Image;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.router.Route;
+
+@Route("marked")
+public class MarkedFile extends HorizontalLayout {
+
+    private TextField name;
+    private Button sayHello;
+
+    public MarkedFile() {
+        name = new TextField();
+        //<accessibility-plugin-label>
+        name.setLabel("Name");
+        //<accessibility-plugin-aria-label>
+        name.setAriaLabel("Your name");
+        sayHello = new Button("Say hello");
+        //<accessibility-plugin-aria-label>
+        sayHello.setAriaLabel("Say hello");
+        Image logo = new Image("logo.png", "");
+        //<accessibility-plugin-alt-text>
+        logo.setAlt("Logo");
+
+        add(name, sayHello, logo);
+        //<accessibility-plugin-title>
+        setTitle("Marked");
+        // not generated
+        name.setLabel("Other");
+    }
+
+    private void secondLabel() {
+        //<accessibility-plugin-label>
+        name.setLabel("Second");
+        if (name.isEmpty()) {
+            name.setPlaceholder("Name");
+        }
+        sayHello.addClickListener(e -> {
+            name.clear();
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package org.vaadin.addons.accessibility.scanner;
+
+/*-
+ * #%L
+ * Accessibility checker scanner
+ * %%
+ * Copyright (C) 2023 - 2026 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.nio.file.Path;
+
+/**
+ * A problem found in a source file.
+ *
+ * @param file the source file
+ * @param line line of the problem
+ * @param rule the failed check
+ */
+public record Issue(Path file, int line, Rule rule) {
+
+    @Override
+    public String toString() {
+        return file + ":" + line + ": [" + rule.getId() + "] " + rule.getMessage();
+    }
+}
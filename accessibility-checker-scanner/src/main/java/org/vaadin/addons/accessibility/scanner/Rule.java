@@ -0,0 +1,47 @@
+package org.vaadin.addons.accessibility.scanner;
+
+/*-
+ * #%L
+ * Accessibility checker scanner
+ * %%
+ * Copyright (C) 2023 - 2026 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * The checks done on the source of the views.
+ */
+public enum Rule {
+    IMAGE_WITHOUT_ALT("image-without-alt", "The Image has no alternative text, call setAlt or use new Image(src, alt)"),
+    MISSING_LABEL("missing-label", "The field has no label, call setLabel or setAriaLabel"),
+    MISSING_PAGE_TITLE("missing-page-title", "The route has no @PageTitle"),
+    ROUTE_EXTENDS_DIV("route-extends-div", "The route extends Div, extend Main to add the main landmark");
+
+    private final String id;
+    private final String message;
+
+    Rule(String id, String message) {
+        this.id = id;
+        this.message = message;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
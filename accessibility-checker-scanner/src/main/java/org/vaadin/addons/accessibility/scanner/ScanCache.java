@@ -0,0 +1,209 @@
+package org.vaadin.addons.accessibility.scanner;
+
+/*-
+ * #%L
+ * Accessibility checker scanner
+ * %%
+ * Copyright (C) 2023 - 2026 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Results of the previous scan by file and content hash, so only the changed
+ * files are parsed again.
+ * <p>
+ * The issues of a view also depend on the types it uses, so they are only
+ * reused if the fingerprint of the types the view looked up in the
+ * {@link TypeIndex} didn't change either.
+ */
+public class ScanCache {
+
+    private static final int MAGIC = 0x41434b53;
+    // increment when the rules or the format change
+    private static final int VERSION = 4;
+
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Loads the cache, an unreadable or outdated cache is ignored.
+     *
+     * @param cacheFile the cache file, may not exist
+     * @return the loaded cache
+     */
+    public static ScanCache load(Path cacheFile) {
+        ScanCache cache = new ScanCache();
+        if (cacheFile == null || !Files.isRegularFile(cacheFile)) {
+            return cache;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return cache;
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                Path file = Path.of(in.readUTF());
+                byte[] hash = readBytes(in);
+                boolean view = in.readBoolean();
+                int typeCount = in.readInt();
+                List<TypeIndex.TypeInfo> types = new ArrayList<>(typeCount);
+                for (int j = 0; j < typeCount; j++) {
+                    types.add(readType(in));
+                }
+                Set<String> referencedTypes = readStrings(in, new TreeSet<>());
+                byte[] fingerprint = readBytes(in);
+                int issueCount = in.readInt();
+                List<Issue> issues = new ArrayList<>(issueCount);
+                for (int j = 0; j < issueCount; j++) {
+                    int line = in.readInt();
+                    issues.add(new Issue(file, line, Rule.valueOf(in.readUTF())));
+                }
+                cache.entries.put(file, new Entry(hash, view, types, referencedTypes, fingerprint, issues));
+            }
+        } catch (IOException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            cache.entries.clear();
+        }
+        return cache;
+    }
+
+    /**
+     * @return the results of the previous scan of the file if its content
+     *         didn't change, null otherwise
+     */
+    public Entry get(Path file, byte[] hash) {
+        Entry entry = entries.get(file);
+        return entry != null && Arrays.equals(entry.hash(), hash) ? entry : null;
+    }
+
+    public void put(Path file, Entry entry) {
+        entries.put(file, entry);
+    }
+
+    /**
+     * Removes the files that are no longer scanned.
+     */
+    public void retainAll(Collection<Path> files) {
+        entries.keySet().retainAll(new HashSet<>(files));
+    }
+
+    public void save(Path cacheFile) throws IOException {
+        Path folder = cacheFile.toAbsolutePath().getParent();
+        if (folder != null) {
+            Files.createDirectories(folder);
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(cacheFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            Map<Path, Entry> snapshot = new HashMap<>(entries);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<Path, Entry> entry : snapshot.entrySet()) {
+                out.writeUTF(entry.getKey().toString());
+                writeBytes(out, entry.getValue().hash());
+                out.writeBoolean(entry.getValue().view());
+                out.writeInt(entry.getValue().types().size());
+                for (TypeIndex.TypeInfo type : entry.getValue().types()) {
+                    writeType(out, type);
+                }
+                writeStrings(out, entry.getValue().referencedTypes());
+                writeBytes(out, entry.getValue().fingerprint());
+                out.writeInt(entry.getValue().issues().size());
+                for (Issue issue : entry.getValue().issues()) {
+                    out.writeInt(issue.line());
+                    out.writeUTF(issue.rule().name());
+                }
+            }
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readUnsignedByte()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeByte(bytes.length);
+        out.write(bytes);
+    }
+
+    private static TypeIndex.TypeInfo readType(DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        String superclass = in.readBoolean() ? in.readUTF() : null;
+        List<String> interfaces = readStrings(in, new ArrayList<>());
+        int constructorCount = in.readInt();
+        List<TypeIndex.ConstructorInfo> constructors = new ArrayList<>(constructorCount);
+        for (int i = 0; i < constructorCount; i++) {
+            int arity = in.readInt();
+            Set<String> setters = readStrings(in, new TreeSet<>());
+            int delegate = in.readByte();
+            int delegateArity = in.readInt();
+            boolean textArgument = in.readBoolean();
+            constructors.add(new TypeIndex.ConstructorInfo(arity, setters,
+                    delegate < 0 ? null : TypeIndex.Delegate.values()[delegate], delegateArity, textArgument));
+        }
+        return new TypeIndex.TypeInfo(name, superclass, interfaces, constructors);
+    }
+
+    private static void writeType(DataOutputStream out, TypeIndex.TypeInfo type) throws IOException {
+        out.writeUTF(type.name());
+        out.writeBoolean(type.superclass() != null);
+        if (type.superclass() != null) {
+            out.writeUTF(type.superclass());
+        }
+        writeStrings(out, type.interfaces());
+        out.writeInt(type.constructors().size());
+        for (TypeIndex.ConstructorInfo constructor : type.constructors()) {
+            out.writeInt(constructor.arity());
+            writeStrings(out, constructor.setters());
+            out.writeByte(constructor.delegate() == null ? -1 : constructor.delegate().ordinal());
+            out.writeInt(constructor.delegateArity());
+            out.writeBoolean(constructor.textArgument());
+        }
+    }
+
+    private static <C extends Collection<String>> C readStrings(DataInputStream in, C strings) throws IOException {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            strings.add(in.readUTF());
+        }
+        return strings;
+    }
+
+    private static void writeStrings(DataOutputStream out, Collection<String> strings) throws IOException {
+        out.writeInt(strings.size());
+        for (String string : strings) {
+            out.writeUTF(string);
+        }
+    }
+
+    /**
+     * @param hash hash of the content of the file
+     * @param view true if the file declares a route
+     * @param types the types declared in the file
+     * @param referencedTypes the names of the types looked up in the index
+     *            when the view was analyzed
+     * @param fingerprint fingerprint of the referenced types the issues were
+     *            found with
+     * @param issues the problems found in the file
+     */
+    public record Entry(byte[] hash, boolean view, List<TypeIndex.TypeInfo> types, Set<String> referencedTypes,
+                        byte[] fingerprint, List<Issue> issues) {
+    }
+}
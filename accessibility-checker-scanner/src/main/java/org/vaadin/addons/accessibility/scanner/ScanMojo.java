@@ -0,0 +1,92 @@
+package org.vaadin.addons.accessibility.scanner;
+
+/*-
+ * #%L
+ * Accessibility checker scanner
+ * %%
+ * Copyright (C) 2023 - 2026 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Scans the views of the project for the accessibility problems that can be
+ * found without a browser.
+ */
+@Mojo(name = "scan", defaultPhase = LifecyclePhase.VERIFY, threadSafe = true,
+        requiresDependencyResolution = ResolutionScope.COMPILE)
+public class ScanMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    /**
+     * Source roots to scan, the compile source roots of the project by default.
+     */
+    @Parameter
+    private List<File> sourceRoots;
+
+    @Parameter(property = "accessibilityChecker.cacheFile",
+            defaultValue = "${project.build.directory}/accessibility-checker/scan-cache.bin")
+    private File cacheFile;
+
+    @Parameter(property = "accessibilityChecker.failOnProblems", defaultValue = "true")
+    private boolean failOnProblems;
+
+    @Parameter(property = "accessibilityChecker.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("Accessibility scan skipped");
+            return;
+        }
+        List<Path> roots = sourceRoots != null && !sourceRoots.isEmpty()
+                ? sourceRoots.stream().map(File::toPath).toList()
+                : project.getCompileSourceRoots().stream().map(Path::of).toList();
+
+        SourceScanner.ScanResult result;
+        try {
+            // the jars resolve the super types of the components, like TextField
+            List<Path> classpath = project.getCompileClasspathElements().stream().map(Path::of).toList();
+            ScanCache cache = ScanCache.load(cacheFile.toPath());
+            result = new SourceScanner(classpath).scan(roots, cache);
+            cache.save(cacheFile.toPath());
+        } catch (IOException | DependencyResolutionRequiredException e) {
+            throw new MojoExecutionException("Unable to scan the sources", e);
+        }
+        result.issues().forEach(issue -> getLog().warn(issue.toString()));
+        getLog().info(String.format("Scanned %d files (%d parsed), %d problems found",
+                result.files(), result.parsed(), result.issues().size()));
+        if (failOnProblems && !result.issues().isEmpty()) {
+            throw new MojoFailureException(result.issues().size() + " accessibility problems found");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.vaadin.addons.accessibility.scanner;
+
+/*-
+ * #%L
+ * Accessibility checker scanner
+ * %%
+ * Copyright (C) 2023 - 2026 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line entry point.
+ * <p>
+ * Usage: {@code ScannerCli [--cache <file>] [--classpath <jars>] [--no-fail] [source root...]}.
+ * The source root defaults to {@code src/main/java} and the cache to
+ * {@code target/accessibility-checker/scan-cache.bin}. The class path lists
+ * the jars of the super types that are not in the sources, separated with
+ * the path separator. The exit code is 1 if
+ * problems are found, unless {@code --no-fail} is set.
+ */
+public class ScannerCli {
+
+    public static final String DEFAULT_CACHE_FILE = "target/accessibility-checker/scan-cache.bin";
+
+    public static void main(String[] args) throws IOException {
+        Path cacheFile = Path.of(DEFAULT_CACHE_FILE);
+        List<Path> classpath = new ArrayList<>();
+        boolean fail = true;
+        List<Path> roots = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--cache" -> {
+                if (i + 1 == args.length) {
+                    usage();
+                }
+                cacheFile = Path.of(args[++i]);
+            }
+            case "--classpath" -> {
+                if (i + 1 == args.length) {
+                    usage();
+                }
+                for (String jar : args[++i].split(File.pathSeparator)) {
+                    if (!jar.isEmpty()) {
+                        classpath.add(Path.of(jar));
+                    }
+                }
+            }
+            case "--no-fail" -> fail = false;
+            case "--help" -> usage();
+            default -> roots.add(Path.of(args[i]));
+            }
+        }
+        if (roots.isEmpty()) {
+            roots.add(Path.of("src", "main", "java"));
+        }
+
+        long start = System.nanoTime();
+        ScanCache cache = ScanCache.load(cacheFile);
+        SourceScanner.ScanResult result = new SourceScanner(classpath).scan(roots, cache);
+        cache.save(cacheFile);
+        result.issues().forEach(System.out::println);
+        System.out.printf("Scanned %d files (%d parsed) in %d ms, %d problems found%n",
+                result.files(), result.parsed(), (System.nanoTime() - start) / 1_000_000,
+                result.issues().size());
+        if (fail && !result.issues().isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: ScannerCli [--cache <file>] [--classpath <jars>] [--no-fail] [source root...]");
+        System.exit(2);
+    }
+}
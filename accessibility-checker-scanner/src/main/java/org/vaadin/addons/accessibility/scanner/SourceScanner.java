@@ -0,0 +1,267 @@
+package org.vaadin.addons.accessibility.scanner;
+
+/*-
+ * #%L
+ * Accessibility checker scanner
+ * %%
+ * Copyright (C) 2023 - 2026 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JarTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Scans the Java files of the source roots in parallel with the
+ * {@link ViewAnalyzer}.
+ * <p>
+ * The scan has two phases: the types of all the files are collected into a
+ * {@link TypeIndex}, then the views are analyzed with the index. The files
+ * whose content didn't change since the previous scan are not parsed again,
+ * and their types come from the cache. The views are analyzed again only if
+ * they changed or if one of the types they looked up in the index changed.
+ */
+public class SourceScanner {
+
+    // files scanned by a task without forking
+    private static final int THRESHOLD = 16;
+    private static final byte[] NO_FINGERPRINT = new byte[0];
+
+    private final ViewAnalyzer analyzer = new ViewAnalyzer();
+    private final List<Path> classpath;
+    private final ForkJoinPool pool;
+
+    public SourceScanner() {
+        this(List.of());
+    }
+
+    /**
+     * @param classpath the jars used to resolve the super types that are not
+     *            in the sources
+     */
+    public SourceScanner(List<Path> classpath) {
+        this(classpath, ForkJoinPool.commonPool());
+    }
+
+    public SourceScanner(List<Path> classpath, ForkJoinPool pool) {
+        this.classpath = classpath;
+        this.pool = pool;
+    }
+
+    /**
+     * @param roots the source roots
+     * @param cache results of the previous scan, updated with the new results
+     * @return the problems found
+     * @throws IOException if a source root or a jar cannot be read
+     */
+    public ScanResult scan(List<Path> roots, ScanCache cache) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path root : roots) {
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            try (Stream<Path> paths = Files.walk(root)) {
+                paths.filter(path -> path.toString().endsWith(".java") && Files.isRegularFile(path))
+                        .map(path -> path.toAbsolutePath().normalize())
+                        .forEach(files::add);
+            }
+        }
+        Scan scan = new Scan(roots, cache);
+        List<Issue> issues;
+        try {
+            List<FileState> states = pool.invoke(new ScanTask<>(files, scan::index));
+            TypeIndex index = new TypeIndex(states.stream().flatMap(state -> state.types().stream()).toList());
+            List<FileState> views = states.stream().filter(FileState::view).toList();
+            issues = new ArrayList<>(pool.invoke(new ScanTask<>(views, state -> scan.analyze(state, index)))
+                    .stream().flatMap(List::stream).toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        cache.retainAll(files);
+        issues.sort(Comparator.comparing(Issue::file).thenComparingInt(Issue::line));
+        return new ScanResult(issues, files.size(), scan.parsed.get());
+    }
+
+    private static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param issues the problems found, sorted by file and line
+     * @param files number of scanned files
+     * @param parsed number of files parsed, the other ones were unchanged
+     */
+    public record ScanResult(List<Issue> issues, int files, int parsed) {
+    }
+
+    /**
+     * State of one scan, the parsers share the symbol solver of the source
+     * roots and the class path.
+     */
+    private class Scan {
+        private final ScanCache cache;
+        private final ThreadLocal<JavaParser> parser;
+        private final TypeInfoExtractor extractor = new TypeInfoExtractor();
+        private final AtomicInteger parsed = new AtomicInteger();
+
+        private Scan(List<Path> roots, ScanCache cache) throws IOException {
+            this.cache = cache;
+            CombinedTypeSolver typeSolver = new CombinedTypeSolver(new ReflectionTypeSolver());
+            for (Path root : roots) {
+                if (Files.isDirectory(root)) {
+                    typeSolver.add(new JavaParserTypeSolver(root, configuration()));
+                }
+            }
+            for (Path jar : classpath) {
+                if (Files.isRegularFile(jar) && jar.toString().endsWith(".jar")) {
+                    typeSolver.add(new JarTypeSolver(jar));
+                }
+            }
+            JavaSymbolSolver symbolSolver = new JavaSymbolSolver(typeSolver);
+            parser = ThreadLocal.withInitial(() -> new JavaParser(configuration().setSymbolResolver(symbolSolver)));
+        }
+
+        private ParserConfiguration configuration() {
+            return new ParserConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17);
+        }
+
+        /**
+         * First phase, collects the types of the file.
+         *
+         * @return the state of the file, null if it doesn't compile
+         */
+        private FileState index(Path file) throws IOException {
+            byte[] content = Files.readAllBytes(file);
+            byte[] hash = hash(content);
+            ScanCache.Entry entry = cache.get(file, hash);
+            if (entry != null) {
+                return new FileState(file, hash, entry.view(), entry.types(), entry, null);
+            }
+            CompilationUnit cu = parse(new String(content, StandardCharsets.UTF_8));
+            if (cu == null) {
+                // don't cache the files that don't compile
+                return null;
+            }
+            List<TypeIndex.TypeInfo> types = extractor.extract(cu);
+            if (!ViewAnalyzer.hasRoutes(cu)) {
+                cache.put(file, new ScanCache.Entry(hash, false, types, Set.of(), NO_FINGERPRINT, List.of()));
+                return new FileState(file, hash, false, types, null, null);
+            }
+            return new FileState(file, hash, true, types, null, cu);
+        }
+
+        /**
+         * Second phase, analyzes a view unless the file and the types it
+         * references are unchanged.
+         */
+        private List<Issue> analyze(FileState state, TypeIndex index) throws IOException {
+            ScanCache.Entry cached = state.cached();
+            if (cached != null && Arrays.equals(cached.fingerprint(), index.fingerprint(cached.referencedTypes()))) {
+                return cached.issues();
+            }
+            CompilationUnit cu = state.cu() != null ? state.cu() : parse(Files.readString(state.file()));
+            if (cu == null) {
+                return List.of();
+            }
+            Set<String> referencedTypes = new TreeSet<>();
+            List<Issue> issues = analyzer.analyze(state.file(), cu, index.tracking(referencedTypes));
+            cache.put(state.file(), new ScanCache.Entry(state.hash(), true, state.types(), referencedTypes,
+                    index.fingerprint(referencedTypes), issues));
+            return issues;
+        }
+
+        private CompilationUnit parse(String source) {
+            parsed.incrementAndGet();
+            ParseResult<CompilationUnit> result = parser.get().parse(source);
+            return result.isSuccessful() ? result.getResult().orElse(null) : null;
+        }
+    }
+
+    /**
+     * @param cached the entry of the previous scan if the file didn't change
+     * @param cu the parsed file if it's a view that changed
+     */
+    private record FileState(Path file, byte[] hash, boolean view, List<TypeIndex.TypeInfo> types,
+                             ScanCache.Entry cached, CompilationUnit cu) {
+    }
+
+    private interface FileFunction<T, R> {
+        R apply(T item) throws IOException;
+    }
+
+    /**
+     * Applies the function to the items in parallel, the null results are
+     * dropped. The tasks are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private static class ScanTask<T, R> extends RecursiveTask<List<R>> {
+        private final List<T> items;
+        private final FileFunction<T, R> function;
+
+        private ScanTask(List<T> items, FileFunction<T, R> function) {
+            this.items = items;
+            this.function = function;
+        }
+
+        @Override
+        protected List<R> compute() {
+            if (items.size() > THRESHOLD) {
+                int middle = items.size() / 2;
+                ScanTask<T, R> first = new ScanTask<>(items.subList(0, middle), function);
+                first.fork();
+                List<R> results = new ArrayList<>(
+                        new ScanTask<>(items.subList(middle, items.size()), function).compute());
+                results.addAll(first.join());
+                return results;
+            }
+            List<R> results = new ArrayList<>();
+            for (T item : items) {
+                try {
+                    R result = function.apply(item);
+                    if (result != null) {
+                        results.add(result);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return results;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package org.vaadin.addons.accessibility.scanner;
+
+/*-
+ * #%L
+ * Accessibility checker scanner
+ * %%
+ * Copyright (C) 2023 - 2026 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Type hierarchy and constructors of the classes of the scanned sources.
+ * <p>
+ * The super types are resolved once when the {@link TypeInfo} are extracted,
+ * so the queries are only map lookups.
+ */
+public class TypeIndex {
+
+    private final Map<String, TypeInfo> types;
+    /** names looked up in the index, null if they are not recorded **/
+    private final Set<String> referencedTypes;
+
+    public TypeIndex(Collection<TypeInfo> types) {
+        this.types = new HashMap<>();
+        types.forEach(type -> this.types.put(type.name(), type));
+        this.referencedTypes = null;
+    }
+
+    private TypeIndex(Map<String, TypeInfo> types, Set<String> referencedTypes) {
+        this.types = types;
+        this.referencedTypes = referencedTypes;
+    }
+
+    /**
+     * Returns the same index, recording the names of the types looked up
+     * into the given set, including the names that are not in the index and
+     * the super types visited. The issues of a view only depend on these
+     * types.
+     *
+     * @param referencedTypes the set receiving the names, used by a single
+     *            thread
+     * @return the recording index
+     */
+    public TypeIndex tracking(Set<String> referencedTypes) {
+        return new TypeIndex(types, referencedTypes);
+    }
+
+    /**
+     * Hash of the given types as they are in the index, the issues found
+     * with a different fingerprint of their referenced types must be
+     * computed again.
+     *
+     * @param typeNames the names of the types, the missing ones are hashed as
+     *            missing
+     */
+    public byte[] fingerprint(Collection<String> typeNames) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String name : new TreeSet<>(typeNames)) {
+                TypeInfo type = types.get(name);
+                digest.update((name + "=" + (type != null ? type : "") + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Resolves a type name as written in the compilation unit.
+     *
+     * @return the fully qualified name if the type is imported or in the
+     *         index, the name as written otherwise
+     */
+    public String resolve(CompilationUnit cu, String name) {
+        if (get(name) != null) {
+            return name;
+        }
+        for (ImportDeclaration importDeclaration : cu.getImports()) {
+            if (!importDeclaration.isAsterisk() && !importDeclaration.isStatic()
+                    && importDeclaration.getName().getIdentifier().equals(name)) {
+                return importDeclaration.getNameAsString();
+            }
+        }
+        String packageName = cu.getPackageDeclaration().map(p -> p.getNameAsString() + ".").orElse("");
+        if (get(packageName + name) != null) {
+            return packageName + name;
+        }
+        for (ImportDeclaration importDeclaration : cu.getImports()) {
+            if (importDeclaration.isAsterisk() && !importDeclaration.isStatic()
+                    && get(importDeclaration.getNameAsString() + "." + name) != null) {
+                return importDeclaration.getNameAsString() + "." + name;
+            }
+        }
+        return name;
+    }
+
+    /**
+     * @param typeName fully qualified name of the type
+     * @param supertypes simple or fully qualified names of the super types
+     * @return true if the type or one of its super types is in the given ones
+     */
+    public boolean isSubtypeOf(String typeName, Set<String> supertypes) {
+        Deque<String> queue = new ArrayDeque<>();
+        Set<String> visited = new HashSet<>();
+        queue.add(typeName);
+        while (!queue.isEmpty()) {
+            String name = queue.poll();
+            if (!visited.add(name)) {
+                continue;
+            }
+            if (supertypes.contains(name) || supertypes.contains(simpleName(name))) {
+                return true;
+            }
+            TypeInfo type = get(name);
+            if (type != null) {
+                if (type.superclass() != null) {
+                    queue.add(type.superclass());
+                }
+                queue.addAll(type.interfaces());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the constructor called with the given number of arguments
+     * calls one of the setters, directly or through {@code this(...)} and
+     * {@code super(...)}.
+     *
+     * @param typeName fully qualified name of the type
+     * @param arity number of arguments of the constructor
+     * @param setters the setters
+     * @param textConstructors types whose constructors set the text if their
+     *            first argument is a text, for example {@code TextField(String label)}
+     * @return true if the constructor sets the text
+     */
+    public boolean constructorCalls(String typeName, int arity, Set<String> setters,
+                                    Set<String> textConstructors) {
+        Set<String> visited = new HashSet<>();
+        String name = typeName;
+        int currentArity = arity;
+        while (name != null && visited.add(name + "/" + currentArity)) {
+            TypeInfo type = get(name);
+            if (type == null) {
+                return false;
+            }
+            ConstructorInfo constructor = type.constructor(currentArity);
+            if (constructor == null) {
+                return false;
+            }
+            if (constructor.setters().stream().anyMatch(setters::contains)) {
+                return true;
+            }
+            if (constructor.delegate() == null) {
+                return false;
+            }
+            String target = constructor.delegate() == Delegate.THIS ? name : type.superclass();
+            if (target == null) {
+                return false;
+            }
+            if (constructor.delegate() == Delegate.SUPER && constructor.textArgument()
+                    && (textConstructors.contains(target) || textConstructors.contains(simpleName(target)))) {
+                return true;
+            }
+            name = target;
+            currentArity = constructor.delegateArity();
+        }
+        return false;
+    }
+
+    private static String simpleName(String name) {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    private TypeInfo get(String name) {
+        if (referencedTypes != null) {
+            referencedTypes.add(name);
+        }
+        return types.get(name);
+    }
+
+    public enum Delegate {
+        THIS, SUPER
+    }
+
+    /**
+     * @param name fully qualified name
+     * @param superclass fully qualified name of the super class if it could be
+     *            resolved, the name as written otherwise, null if there is none
+     * @param interfaces names of the implemented or extended interfaces
+     * @param constructors the declared constructors, empty for the default one
+     */
+    public record TypeInfo(String name, String superclass, List<String> interfaces,
+                           List<ConstructorInfo> constructors) {
+
+        ConstructorInfo constructor(int arity) {
+            if (constructors.isEmpty()) {
+                return arity == 0 ? new ConstructorInfo(0, new TreeSet<>(), null, 0, false) : null;
+            }
+            return constructors.stream().filter(constructor -> constructor.arity() == arity)
+                    .findFirst().orElse(null);
+        }
+    }
+
+    /**
+     * @param arity number of parameters
+     * @param setters methods called on {@code this} in the constructor, sorted
+     * @param delegate the other constructor called first, if any
+     * @param delegateArity number of arguments passed to the other constructor
+     * @param textArgument true if the first argument passed to the other
+     *            constructor is a text
+     */
+    public record ConstructorInfo(int arity, Set<String> setters, Delegate delegate,
+                                  int delegateArity, boolean textArgument) {
+    }
+}
@@ -0,0 +1,129 @@
+package org.vaadin.addons.accessibility.scanner;
+
+/*-
+ * #%L
+ * Accessibility checker scanner
+ * %%
+ * Copyright (C) 2023 - 2026 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.SuperExpr;
+import com.github.javaparser.ast.expr.ThisExpr;
+import com.github.javaparser.ast.stmt.ExplicitConstructorInvocationStmt;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+
+import java.util.*;
+
+/**
+ * Extracts the {@link TypeIndex.TypeInfo} of the classes of a compilation unit.
+ * <p>
+ * The super types are resolved with the symbol solver set in the parser
+ * configuration of the unit. The symbol solver is not thread safe, so the
+ * resolution is synchronized on {@link #resolveLock(Node)} while the rest of
+ * the extraction runs in parallel.
+ */
+public class TypeInfoExtractor {
+
+    public List<TypeIndex.TypeInfo> extract(CompilationUnit cu) {
+        List<TypeIndex.TypeInfo> types = new ArrayList<>();
+        for (ClassOrInterfaceDeclaration type : cu.findAll(ClassOrInterfaceDeclaration.class)) {
+            Optional<String> name = type.getFullyQualifiedName();
+            if (name.isEmpty()) {
+                // local class
+                continue;
+            }
+            String superclass = null;
+            List<String> interfaces = new ArrayList<>();
+            if (type.isInterface()) {
+                type.getExtendedTypes().forEach(extended -> interfaces.add(resolve(cu, extended)));
+            } else {
+                if (type.getExtendedTypes().isNonEmpty()) {
+                    superclass = resolve(cu, type.getExtendedTypes(0));
+                }
+                type.getImplementedTypes().forEach(implemented -> interfaces.add(resolve(cu, implemented)));
+            }
+            List<TypeIndex.ConstructorInfo> constructors = new ArrayList<>();
+            for (ConstructorDeclaration constructor : type.getConstructors()) {
+                constructors.add(extract(constructor));
+            }
+            types.add(new TypeIndex.TypeInfo(name.get(), superclass, interfaces, constructors));
+        }
+        return types;
+    }
+
+    private TypeIndex.ConstructorInfo extract(ConstructorDeclaration constructor) {
+        Set<String> setters = new TreeSet<>();
+        for (MethodCallExpr call : constructor.getBody().findAll(MethodCallExpr.class)) {
+            if (call.getScope().isEmpty() || call.getScope().get() instanceof ThisExpr
+                    || call.getScope().get() instanceof SuperExpr) {
+                setters.add(call.getNameAsString());
+            }
+        }
+        TypeIndex.Delegate delegate = null;
+        int delegateArity = 0;
+        boolean textArgument = false;
+        if (constructor.getBody().getStatements().isNonEmpty()
+                && constructor.getBody().getStatement(0) instanceof ExplicitConstructorInvocationStmt invocation) {
+            delegate = invocation.isThis() ? TypeIndex.Delegate.THIS : TypeIndex.Delegate.SUPER;
+            delegateArity = invocation.getArguments().size();
+            textArgument = invocation.getArguments().isNonEmpty()
+                    && ViewAnalyzer.isText(invocation.getArgument(0));
+        }
+        return new TypeIndex.ConstructorInfo(constructor.getParameters().size(), setters,
+                delegate, delegateArity, textArgument);
+    }
+
+    /**
+     * Resolves the type with the symbol solver, falls back to the imports if
+     * the type is not in the sources or the class path.
+     */
+    private String resolve(CompilationUnit cu, ClassOrInterfaceType type) {
+        synchronized (resolveLock(type)) {
+            try {
+                return type.resolve().asReferenceType().getQualifiedName();
+            } catch (RuntimeException e) {
+                // unresolved
+            }
+        }
+        String name = type.getNameWithScope();
+        for (ImportDeclaration importDeclaration : cu.getImports()) {
+            if (!importDeclaration.isAsterisk() && !importDeclaration.isStatic()
+                    && importDeclaration.getName().getIdentifier().equals(name)) {
+                return importDeclaration.getNameAsString();
+            }
+        }
+        return name;
+    }
+
+    /**
+     * The parsers of a scan share the same symbol solver, so the resolutions
+     * of all the units parsed with it are synchronized on it.
+     *
+     * @return the lock of the symbol solver of the unit of the node
+     */
+    static Object resolveLock(Node node) {
+        return node.findCompilationUnit()
+                .filter(cu -> cu.containsData(Node.SYMBOL_RESOLVER_KEY))
+                .<Object>map(cu -> cu.getData(Node.SYMBOL_RESOLVER_KEY))
+                .orElse(TypeInfoExtractor.class);
+    }
+}
@@ -0,0 +1,202 @@
+package org.vaadin.addons.accessibility.scanner;
+
+/*-
+ * #%L
+ * Accessibility checker scanner
+ * %%
+ * Copyright (C) 2023 - 2026 Team Parttio
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.*;
+import com.github.javaparser.ast.nodeTypes.NodeWithAnnotations;
+import com.github.javaparser.resolution.types.ResolvedType;
+
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Finds the accessibility problems that can be detected from the source of the
+ * {@code @Route} classes.
+ * <p>
+ * The created components are looked up in the {@link TypeIndex}, so a
+ * subclass of a Vaadin field is checked like the field and a subclass that
+ * sets the label in its constructor is not reported.
+ */
+public class ViewAnalyzer {
+
+    /**
+     * Vaadin components implementing {@code HasLabel}.
+     */
+    private static final Set<String> LABELED_COMPONENTS = Set.of(
+            "TextField", "TextArea", "PasswordField", "EmailField", "NumberField",
+            "IntegerField", "BigDecimalField", "DatePicker", "TimePicker",
+            "DateTimePicker", "ComboBox", "MultiSelectComboBox", "Select",
+            "CheckboxGroup", "RadioButtonGroup", "Checkbox", "CustomField");
+    private static final Set<String> LABEL_SETTERS = Set.of("setLabel", "setAriaLabel");
+    private static final Set<String> ALT_SETTERS = Set.of("setAlt");
+    private static final Set<String> LABELED_TYPES;
+
+    static {
+        Set<String> labeledTypes = new HashSet<>(LABELED_COMPONENTS);
+        labeledTypes.add("HasLabel");
+        LABELED_TYPES = Set.copyOf(labeledTypes);
+    }
+
+    /**
+     * @return true if the file declares a {@code @Route} class
+     */
+    public static boolean hasRoutes(CompilationUnit cu) {
+        return cu.findFirst(ClassOrInterfaceDeclaration.class, type -> hasAnnotation(type, "Route")).isPresent();
+    }
+
+    /**
+     * @param file the source file
+     * @param cu the parsed source file
+     * @param index the types of all the scanned sources
+     * @return the problems found in the routes of the file
+     */
+    public List<Issue> analyze(Path file, CompilationUnit cu, TypeIndex index) {
+        List<Issue> issues = new ArrayList<>();
+        for (ClassOrInterfaceDeclaration route : cu.findAll(ClassOrInterfaceDeclaration.class,
+                type -> hasAnnotation(type, "Route"))) {
+            int line = line(route);
+            if (!hasAnnotation(route, "PageTitle") && route.getImplementedTypes().stream()
+                    .noneMatch(type -> type.getNameAsString().equals("HasDynamicTitle"))) {
+                issues.add(new Issue(file, line, Rule.MISSING_PAGE_TITLE));
+            }
+            if (route.getExtendedTypes().stream().anyMatch(type -> type.getNameAsString().equals("Div"))) {
+                issues.add(new Issue(file, line, Rule.ROUTE_EXTENDS_DIV));
+            }
+            checkCreations(file, cu, index, route, Set.of("Image"), Set.of(), ALT_SETTERS, 2,
+                    Rule.IMAGE_WITHOUT_ALT, issues);
+            checkCreations(file, cu, index, route, LABELED_TYPES, LABELED_COMPONENTS, LABEL_SETTERS, 1,
+                    Rule.MISSING_LABEL, issues);
+        }
+        issues.sort(Comparator.comparingInt(Issue::line));
+        return issues;
+    }
+
+    /**
+     * Reports the components created without the text and whose variable is
+     * never given the text with one of the setters.
+     *
+     * @param types the checked types and their subtypes
+     * @param textConstructors the types taking the text as constructor argument
+     * @param textArgument position of the text in the constructor of the
+     *            text constructors, starting from 1
+     */
+    private void checkCreations(Path file, CompilationUnit cu, TypeIndex index,
+                                ClassOrInterfaceDeclaration route, Set<String> types,
+                                Set<String> textConstructors, Set<String> setters, int textArgument,
+                                Rule rule, List<Issue> issues) {
+        Set<String> initialized = new HashSet<>();
+        for (MethodCallExpr call : route.findAll(MethodCallExpr.class,
+                call -> setters.contains(call.getNameAsString()))) {
+            initialized.add(call.getScope().map(ViewAnalyzer::targetName).orElse("this"));
+        }
+        for (ObjectCreationExpr creation : route.findAll(ObjectCreationExpr.class)) {
+            String simpleName = creation.getType().getNameAsString();
+            String typeName = index.resolve(cu, simpleName);
+            if (!index.isSubtypeOf(typeName, types)) {
+                continue;
+            }
+            int argumentCount = creation.getArguments().size();
+            if (textConstructors.contains(simpleName) || types.contains(simpleName)) {
+                if (argumentCount >= textArgument && isText(creation.getArgument(textArgument - 1))) {
+                    continue;
+                }
+            } else if (index.constructorCalls(typeName, argumentCount, setters, textConstructors)) {
+                continue;
+            }
+            String target = assignedName(creation);
+            if (target == null || !initialized.contains(target)) {
+                issues.add(new Issue(file, line(creation), rule));
+            }
+        }
+    }
+
+    /**
+     * @return the name of the variable or field the expression is assigned
+     *         to, null if it's not assigned
+     */
+    private static String assignedName(Expression expression) {
+        Node parent = expression.getParentNode().orElse(null);
+        while (parent instanceof CastExpr || parent instanceof EnclosedExpr) {
+            parent = parent.getParentNode().orElse(null);
+        }
+        if (parent instanceof VariableDeclarator variable) {
+            return variable.getNameAsString();
+        }
+        if (parent instanceof AssignExpr assign) {
+            return targetName(assign.getTarget());
+        }
+        return null;
+    }
+
+    private static String targetName(Expression expression) {
+        if (expression instanceof NameExpr name) {
+            return name.getNameAsString();
+        }
+        if (expression instanceof FieldAccessExpr fieldAccess) {
+            return fieldAccess.getNameAsString();
+        }
+        if (expression instanceof ThisExpr) {
+            return "this";
+        }
+        return expression.toString();
+    }
+
+    /**
+     * Checks if the expression is a string. The type of the variables, fields
+     * and calls is resolved with the symbol solver of the unit, if it can't be
+     * resolved only a concatenation with a string is a text.
+     */
+    static boolean isText(Expression expression) {
+        if (expression.isStringLiteralExpr() || expression.isTextBlockLiteralExpr()
+                || (expression.isMethodCallExpr()
+                        && expression.asMethodCallExpr().getNameAsString().equals("getTranslation"))) {
+            return true;
+        }
+        if (expression.isLiteralExpr()) {
+            return false;
+        }
+        synchronized (TypeInfoExtractor.resolveLock(expression)) {
+            try {
+                ResolvedType type = expression.calculateResolvedType();
+                return type.isReferenceType() && type.asReferenceType().getQualifiedName().equals("java.lang.String");
+            } catch (RuntimeException e) {
+                // unresolved
+            }
+        }
+        return expression instanceof BinaryExpr binary && binary.getOperator() == BinaryExpr.Operator.PLUS
+                && (isText(binary.getLeft()) || isText(binary.getRight()));
+    }
+
+    private static boolean hasAnnotation(NodeWithAnnotations<?> node, String simpleName) {
+        return node.getAnnotations().stream().anyMatch(annotation -> {
+            String name = annotation.getNameAsString();
+            return name.equals(simpleName) || name.endsWith("." + simpleName);
+        });
+    }
+
+    private static int line(Node node) {
+        return node.getBegin().map(position -> position.line).orElse(0);
+    }
+}
@@ -0,0 +1,122 @@
+package org.vaadin.addons.accessibility.scanner;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class ScanCacheTest {
+
+    private static final String VIEW = """
+            package app;
+
+            import com.vaadin.flow.component.html.Main;
+            import com.vaadin.flow.router.PageTitle;
+            import com.vaadin.flow.router.Route;
+
+            @Route("")
+            @PageTitle("Home")
+            public class HomeView extends Main {
+                public HomeView() {
+                    add(new NameField());
+                }
+            }
+            """;
+    private static final String NAME_FIELD = """
+            package app;
+
+            import com.vaadin.flow.component.textfield.TextField;
+
+            public class NameField extends TextField {
+                public NameField() {
+                }
+            }
+            """;
+
+    @org.junit.Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void savedCache_loaded() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("HomeView.java");
+        Path cacheFile = folder.getRoot().toPath().resolve("cache").resolve("scan.cache");
+        ScanCache cache = new ScanCache();
+        TypeIndex.TypeInfo type = new TypeIndex.TypeInfo("app.HomeView", "com.vaadin.flow.component.html.Main",
+                List.of("app.Marker"), List.of(new TypeIndex.ConstructorInfo(1, new TreeSet<>(Set.of("setLabel")),
+                        TypeIndex.Delegate.SUPER, 1, true)));
+        byte[] hash = { 1, 2, 3 };
+        cache.put(file, new ScanCache.Entry(hash, true, List.of(type), new TreeSet<>(Set.of("app.NameField")),
+                new byte[] { 4, 5 }, List.of(new Issue(file, 12, Rule.MISSING_LABEL))));
+
+        cache.save(cacheFile);
+        ScanCache.Entry entry = ScanCache.load(cacheFile).get(file, hash);
+
+        Assert.assertNotNull(entry);
+        Assert.assertTrue(entry.view());
+        Assert.assertEquals(List.of(type), entry.types());
+        Assert.assertEquals(Set.of("app.NameField"), entry.referencedTypes());
+        Assert.assertArrayEquals(new byte[] { 4, 5 }, entry.fingerprint());
+        Assert.assertEquals(List.of(new Issue(file, 12, Rule.MISSING_LABEL)), entry.issues());
+    }
+
+    @Test
+    public void changedContent_notReused() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("HomeView.java");
+        ScanCache cache = new ScanCache();
+        cache.put(file, new ScanCache.Entry(new byte[] { 1 }, false, List.of(), Set.of(), new byte[0], List.of()));
+
+        Assert.assertNull(cache.get(file, new byte[] { 2 }));
+    }
+
+    @Test
+    public void unreadableCache_empty() throws IOException {
+        Path cacheFile = folder.newFile("scan.cache").toPath();
+        Files.writeString(cacheFile, "not a cache");
+
+        Assert.assertNull(ScanCache.load(cacheFile).get(cacheFile, new byte[0]));
+    }
+
+    @Test
+    public void unrelatedTypeChanged_viewNotAnalyzedAgain() throws IOException {
+        Path root = folder.newFolder("src").toPath();
+        Path app = Files.createDirectories(root.resolve("app"));
+        Files.writeString(app.resolve("HomeView.java"), VIEW);
+        Files.writeString(app.resolve("NameField.java"), NAME_FIELD);
+        Files.writeString(app.resolve("Other.java"), "package app;\n\npublic class Other {\n}\n");
+        ScanCache cache = new ScanCache();
+        SourceScanner scanner = new SourceScanner();
+
+        SourceScanner.ScanResult first = scanner.scan(List.of(root), cache);
+        Assert.assertEquals(3, first.parsed());
+        Assert.assertEquals(1, first.issues().size());
+
+        Files.writeString(app.resolve("Other.java"), "package app;\n\npublic class Other extends NameField {\n}\n");
+        SourceScanner.ScanResult second = scanner.scan(List.of(root), cache);
+        Assert.assertEquals(1, second.parsed());
+        Assert.assertEquals(first.issues(), second.issues());
+    }
+
+    @Test
+    public void referencedTypeChanged_viewAnalyzedAgain() throws IOException {
+        Path root = folder.newFolder("src").toPath();
+        Path app = Files.createDirectories(root.resolve("app"));
+        Files.writeString(app.resolve("HomeView.java"), VIEW);
+        Files.writeString(app.resolve("NameField.java"), NAME_FIELD);
+        ScanCache cache = new ScanCache();
+        SourceScanner scanner = new SourceScanner();
+        Assert.assertEquals(1, scanner.scan(List.of(root), cache).issues().size());
+
+        Files.writeString(app.resolve("NameField.java"), NAME_FIELD.replace("public NameField() {",
+                "public NameField() {\n        setLabel(\"Name\");"));
+        SourceScanner.ScanResult result = scanner.scan(List.of(root), cache);
+
+        Assert.assertEquals(2, result.parsed());
+        Assert.assertEquals(List.of(), result.issues());
+    }
+}
@@ -0,0 +1,72 @@
+package org.vaadin.addons.accessibility.scanner;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class TypeIndexTest {
+
+    private static final TypeIndex.TypeInfo NAME_FIELD = type("app.NameField", "app.BaseField");
+    private static final TypeIndex.TypeInfo BASE_FIELD = type("app.BaseField",
+            "com.vaadin.flow.component.textfield.TextField");
+    private static final TypeIndex.TypeInfo OTHER = type("app.Other", null);
+
+    @Test
+    public void tracking_typesAndSuperTypesRecorded() {
+        TypeIndex index = new TypeIndex(List.of(NAME_FIELD, BASE_FIELD, OTHER));
+        Set<String> referencedTypes = new TreeSet<>();
+
+        Assert.assertTrue(index.tracking(referencedTypes).isSubtypeOf("app.NameField", Set.of("TextField")));
+
+        Assert.assertEquals(Set.of("app.NameField", "app.BaseField"), referencedTypes);
+    }
+
+    @Test
+    public void tracking_missingTypesRecorded() {
+        TypeIndex index = new TypeIndex(List.of(OTHER));
+        Set<String> referencedTypes = new TreeSet<>();
+
+        index.tracking(referencedTypes).isSubtypeOf("app.Unknown", Set.of("TextField"));
+
+        Assert.assertEquals(Set.of("app.Unknown"), referencedTypes);
+    }
+
+    @Test
+    public void fingerprint_otherTypeChanged_unchanged() {
+        List<String> referencedTypes = List.of("app.NameField", "app.BaseField");
+        TypeIndex index = new TypeIndex(List.of(NAME_FIELD, BASE_FIELD, OTHER));
+        TypeIndex changed = new TypeIndex(List.of(NAME_FIELD, BASE_FIELD, type("app.Other", "app.BaseField"),
+                type("app.Added", null)));
+
+        Assert.assertArrayEquals(index.fingerprint(referencedTypes), changed.fingerprint(referencedTypes));
+    }
+
+    @Test
+    public void fingerprint_referencedTypeChanged_changed() {
+        List<String> referencedTypes = List.of("app.NameField", "app.BaseField");
+        TypeIndex index = new TypeIndex(List.of(NAME_FIELD, BASE_FIELD));
+        TypeIndex changed = new TypeIndex(List.of(NAME_FIELD, type("app.BaseField",
+                "com.vaadin.flow.component.textfield.TextField", new TypeIndex.ConstructorInfo(0,
+                        new TreeSet<>(Set.of("setLabel")), null, 0, false))));
+
+        Assert.assertFalse(Arrays.equals(index.fingerprint(referencedTypes), changed.fingerprint(referencedTypes)));
+    }
+
+    @Test
+    public void fingerprint_missingTypeAdded_changed() {
+        List<String> referencedTypes = List.of("app.Unknown");
+        TypeIndex index = new TypeIndex(List.of(OTHER));
+        TypeIndex changed = new TypeIndex(List.of(OTHER, type("app.Unknown", null)));
+
+        Assert.assertFalse(Arrays.equals(index.fingerprint(referencedTypes), changed.fingerprint(referencedTypes)));
+    }
+
+    private static TypeIndex.TypeInfo type(String name, String superclass,
+                                           TypeIndex.ConstructorInfo... constructors) {
+        return new TypeIndex.TypeInfo(name, superclass, List.of(), List.of(constructors));
+    }
+}
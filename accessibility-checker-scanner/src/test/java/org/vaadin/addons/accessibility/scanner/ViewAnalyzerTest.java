@@ -0,0 +1,200 @@
+package org.vaadin.addons.accessibility.scanner;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ViewAnalyzerTest {
+
+    private static final String IMPORTS = """
+            package app;
+
+            import com.vaadin.flow.component.checkbox.Checkbox;
+            import com.vaadin.flow.component.html.Div;
+            import com.vaadin.flow.component.html.Image;
+            import com.vaadin.flow.component.html.Main;
+            import com.vaadin.flow.component.textfield.TextField;
+            import com.vaadin.flow.router.PageTitle;
+            import com.vaadin.flow.router.Route;
+
+            """;
+
+    @org.junit.Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path root;
+    private JavaParser parser;
+
+    @Before
+    public void setup() throws IOException {
+        root = folder.newFolder("src").toPath();
+        ParserConfiguration configuration = new ParserConfiguration()
+                .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17);
+        parser = new JavaParser(new ParserConfiguration()
+                .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17)
+                .setSymbolResolver(new JavaSymbolSolver(new CombinedTypeSolver(new ReflectionTypeSolver(),
+                        new JavaParserTypeSolver(root, configuration)))));
+    }
+
+    @Test
+    public void routeWithoutPageTitle_reported() throws IOException {
+        write("TitledView", """
+                @Route("titled")
+                @PageTitle("Titled")
+                public class TitledView extends Main {
+                }
+                """);
+        write("UntitledView", """
+                @Route("untitled")
+                public class UntitledView extends Main {
+                }
+                """);
+
+        Assert.assertEquals(List.of(), analyze("TitledView"));
+        Assert.assertEquals(List.of(Rule.MISSING_PAGE_TITLE), analyze("UntitledView"));
+    }
+
+    @Test
+    public void routeExtendingDiv_reported() throws IOException {
+        write("DivView", """
+                @Route("div")
+                @PageTitle("Div")
+                public class DivView extends Div {
+                }
+                """);
+
+        Assert.assertEquals(List.of(Rule.ROUTE_EXTENDS_DIV), analyze("DivView"));
+    }
+
+    @Test
+    public void imageWithoutAlt_reported() throws IOException {
+        write("ImageView", """
+                @Route("images")
+                @PageTitle("Images")
+                public class ImageView extends Main {
+                    public ImageView(String alt, int width) {
+                        add(new Image("logo.png", "Logo"));
+                        add(new Image("name.png", alt));
+                        add(new Image("width.png", width));
+                        Image set = new Image();
+                        set.setAlt("Set");
+                        add(new Image());
+                    }
+                }
+                """);
+
+        Assert.assertEquals(List.of(Rule.IMAGE_WITHOUT_ALT, Rule.IMAGE_WITHOUT_ALT), analyze("ImageView"));
+    }
+
+    @Test
+    public void fieldWithoutLabel_reported() throws IOException {
+        write("FormView", """
+                @Route("form")
+                @PageTitle("Form")
+                public class FormView extends Main {
+                    private static final String EMAIL = "Email";
+                    private TextField phone;
+
+                    public FormView(String label, boolean checked, Labels labels) {
+                        add(new TextField("Name"));
+                        add(new TextField(label));
+                        add(new TextField(EMAIL));
+                        add(new TextField(labels.address()));
+                        add(new TextField("Zip " + 1));
+                        add(new Checkbox(checked));
+                        phone = new TextField();
+                        phone.setAriaLabel("Phone");
+                        add(new TextField());
+                    }
+                }
+                """);
+        write("Labels", """
+                public interface Labels {
+                    String address();
+                }
+                """);
+
+        List<Issue> issues = analyzeIssues("FormView");
+
+        Assert.assertEquals(List.of(Rule.MISSING_LABEL, Rule.MISSING_LABEL),
+                issues.stream().map(Issue::rule).toList());
+        Assert.assertEquals(List.of(23, 26), issues.stream().map(Issue::line).toList());
+    }
+
+    @Test
+    public void subclassOfField_resolvedThroughTheSources() throws IOException {
+        write("BaseField", """
+                public class BaseField extends TextField {
+                    public BaseField() {
+                    }
+
+                    public BaseField(String label) {
+                        super(label);
+                    }
+                }
+                """);
+        write("LabeledField", """
+                public class LabeledField extends BaseField {
+                    public LabeledField() {
+                        setLabel("Labeled");
+                    }
+                }
+                """);
+        write("SubclassView", """
+                @Route("subclasses")
+                @PageTitle("Subclasses")
+                public class SubclassView extends Main {
+                    public SubclassView() {
+                        add(new LabeledField());
+                        add(new BaseField("Base"));
+                        add(new BaseField());
+                    }
+                }
+                """);
+
+        List<Issue> issues = analyzeIssues("SubclassView");
+
+        Assert.assertEquals(List.of(Rule.MISSING_LABEL), issues.stream().map(Issue::rule).toList());
+        Assert.assertEquals(17, issues.get(0).line());
+    }
+
+    private void write(String className, String body) throws IOException {
+        Files.createDirectories(root.resolve("app"));
+        Files.writeString(root.resolve("app/" + className + ".java"), IMPORTS + body);
+    }
+
+    private List<Rule> analyze(String className) throws IOException {
+        return analyzeIssues(className).stream().map(Issue::rule).toList();
+    }
+
+    private List<Issue> analyzeIssues(String className) throws IOException {
+        TypeInfoExtractor extractor = new TypeInfoExtractor();
+        List<TypeIndex.TypeInfo> types = new ArrayList<>();
+        CompilationUnit view = null;
+        try (var files = Files.list(root.resolve("app"))) {
+            for (Path file : files.toList()) {
+                CompilationUnit cu = parser.parse(file).getResult().orElseThrow();
+                types.addAll(extractor.extract(cu));
+                if (file.getFileName().toString().equals(className + ".java")) {
+                    view = cu;
+                }
+            }
+        }
+        Assert.assertNotNull(view);
+        return new ViewAnalyzer().analyze(root.resolve("app/" + className + ".java"), view, new TypeIndex(types));
+    }
+}